@@ -5,5 +5,8 @@ create table item
     item_name varchar(10),
     price     integer,
     quantity  integer,
+    item_name_lower varchar(10) as lower(item_name),
     primary key (id)
 );
+create index idx_item_name on item (item_name);
+create index idx_item_name_lower on item (item_name_lower);
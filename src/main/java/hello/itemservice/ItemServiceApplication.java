@@ -1,24 +1,36 @@
 package hello.itemservice;
 
-import hello.itemservice.config.V2Config;
+import hello.itemservice.config.*;
 import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.service.ItemService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 
+/**
+ * 저장소 구현 선택
+ - 설정 클래스를 모두 import 하고 itemservice.repository 프로퍼티 값에 해당하는 설정만 활성화(@ConditionalOnProperty)
+ - memory, memory-durable, memory-columnar, jdbc-template-v1, jdbc-template-v2, jdbc-template-v3, sharded, replicated, mybatis, jpa, spring-data-jpa, querydsl, v2(기본값)
+ - 재빌드 없이 실행 시점에 변경 가능 ex) --itemservice.repository=mybatis
+ - itemservice.shadow.repository 를 지정하면 조회 요청을 해당 구현에도 비동기로 보내서 비교(ShadowConfig)
+ - itemservice.replica.urls 를 지정하면 읽기 전용 트랜잭션을 복제본 데이터베이스로 보냄(ReplicaRoutingConfig)
+ - itemservice.limiter.enabled=true 이면 ItemController 요청 종류별로 동시 처리 한도 적용(ConcurrencyLimitConfig)
+ - itemservice.deadline.enabled=true 이면 요청 종류별 마감 시간을 저장소 쿼리 타임아웃으로 전달, 넘으면 504(RequestDeadlineConfig)
+ - Accept: application/x-item-binary 요청에 상품 목록을 이진 형식으로 응답(ItemBinaryConfig, itemservice.binary.enabled=false 이면 끔)
+ - itemservice.cache.enabled=true 이면 상품 상세 조회 캐시를 사용하고 여러 인스턴스의 캐시를 변경 버전 테이블로 맞춤(ItemCacheConfig)
+ - itemservice.hot.enabled=true 이면 자주 조회되는 상품을 추적하고 시작할 때 미리 읽음(HotItemConfig)
+ - 선택되지 않은 기술(MyBatis, JPA, 스프링 데이터 JPA)의 자동 구성은 PersistenceStackEnvironmentPostProcessor 가 제외
+ */
 @Slf4j
-//@Import(MemoryConfig.class)
-//@Import(JdbcTemplateV1Config.class)
-//@Import(JdbcTemplateV2Config.class)
-//@Import(JdbcTemplateV3Config.class)
-//@Import(MyBatisConfig.class)
-//@Import(JpaConfig.class)
-//@Import(SpringDataJpaConfig.class)
-//@Import(QuerydslConfig.class)
-@Import(V2Config.class)
+@Import({MemoryConfig.class, DurableMemoryConfig.class, ColumnarMemoryConfig.class,
+		JdbcTemplateV1Config.class, JdbcTemplateV2Config.class, JdbcTemplateV3Config.class, ShardedConfig.class, ReplicatedConfig.class,
+		MyBatisConfig.class, JpaConfig.class, SpringDataJpaConfig.class, QuerydslConfig.class,
+		V2Config.class, ShadowConfig.class, ReplicaRoutingConfig.class,
+		ConcurrencyLimitConfig.class, RequestDeadlineConfig.class, ItemBinaryConfig.class, ItemCacheConfig.class, HotItemConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.itemservice.web")
 public class ItemServiceApplication {
 
@@ -26,6 +38,15 @@ public class ItemServiceApplication {
 		SpringApplication.run(ItemServiceApplication.class, args);
 	}
 
+	/**
+	 * spring.main.lazy-initialization=true 일 때도 요청 처리에 꼭 필요한 빈은 시작 시점에 생성
+	 -> 첫 요청에서 저장소 초기화(EntityManagerFactory 등) 비용을 치르지 않도록
+	 */
+	@Bean
+	public static LazyInitializationExcludeFilter eagerItemBeans() {
+		return LazyInitializationExcludeFilter.forBeanTypes(ItemService.class, ItemRepository.class);
+	}
+
 	@Bean
 	@Profile("local")
 	public TestDataInit testDataInit(ItemRepository itemRepository) {
@@ -0,0 +1,110 @@
+package hello.itemservice.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 상품 id 별 조회 빈도 추정(count-min sketch) + 감쇠
+ - DEPTH 개 행, 행마다 width(2의 거듭제곱) 개 카운터 -> id 를 행마다 다른 해시로 섞어서 카운터 하나씩 선택
+ - 추정값 = 선택한 카운터 중 최솟값 -> 다른 id 와 겹쳐서 크게 추정할 수는 있어도 작게 추정하지는 않음
+ - 증가는 카운터마다 CAS(AtomicIntegerArray) -> 잠금 없음, 메모리는 id 수와 관계없이 DEPTH * width * 4 바이트
+ - 전체 증가 횟수는 LongAdder 에 모으고 합계는 약 CHECK_INTERVAL 번에 한 번만 확인 -> 모든 스레드가 같은 카운터 하나를 두고 경쟁하지 않음
+ - 증가 횟수가 sampleSize(width * 10)에 이르면 모든 카운터를 절반으로(감쇠)
+ -> 예전에 많이 조회된 상품보다 최근에 많이 조회된 상품이 앞서고, 카운터가 넘치지 않음
+ - 감쇠는 한 스레드만 실행, 감쇠 중에 들어온 증가는 절반이 될 수도 아닐 수도 있음(추정값이므로 허용)
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int CHECK_INTERVAL = 64;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int width;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicIntegerArray counters;
+    private final LongAdder additions = new LongAdder();
+    private final AtomicBoolean decaying = new AtomicBoolean();
+    private final LongAdder decays = new LongAdder();
+    private final Runnable onDecay;
+
+    /**
+     * @param width   행마다 카운터 수(2의 거듭제곱으로 올림) -> 추적할 상품 수보다 충분히 크게
+     * @param onDecay 감쇠 후 호출(감쇠한 스레드에서)
+     */
+    public FrequencySketch(int width, Runnable onDecay) {
+        this.width = Integer.highestOneBit((Math.max(16, width) - 1) << 1);
+        this.mask = this.width - 1;
+        this.sampleSize = this.width * 10;
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+        this.onDecay = onDecay;
+    }
+
+    /**
+     * @return 증가 후 추정값
+     */
+    public int increment(long id) {
+        return add(id, 1);
+    }
+
+    public int add(long id, int count) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(id, row), count));
+        }
+        additions.add(count);
+        if ((count > 1 || ThreadLocalRandom.current().nextInt(CHECK_INTERVAL) == 0) && additions.sum() >= sampleSize) {
+            decay();
+        }
+        return estimate;
+    }
+
+    public int estimate(long id) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(id, row)));
+        }
+        return estimate;
+    }
+
+    private void decay() {
+        if (!decaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (additions.sum() < sampleSize) {
+                return;     //다른 스레드가 이미 감쇠
+            }
+            for (int i = 0; i < counters.length(); i++) {
+                int value;
+                do {
+                    value = counters.get(i);
+                } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+            }
+            additions.add(-sampleSize / 2);
+            decays.increment();
+            onDecay.run();
+        } finally {
+            decaying.set(false);
+        }
+    }
+
+    private int index(long id, int row) {
+        long hash = (id + SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 31;
+        hash *= 0x94D049BB133111EBL;
+        hash ^= hash >>> 29;
+        return row * width + ((int) hash & mask);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public long decays() {
+        return decays.sum();
+    }
+}
@@ -0,0 +1,158 @@
+package hello.itemservice.cache;
+
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 상위 K 상품(HotItemTracker)을 파일에 저장하고, 시작할 때 읽어서 순위를 이어받고 캐시를 미리 채움(prewarm)
+ - 파일 : 한 줄에 "id,추정값", 임시 파일에 쓰고 바꿔치기 -> 쓰는 중에 종료되어도 이전 파일이 남음
+ - saveIntervalMillis 마다, 그리고 종료할 때 저장
+ - 시작(ApplicationReadyEvent) 후 별도 스레드에서 미리 읽기 -> 요청 처리 시작을 늦추지 않음
+ - ItemCache 가 있으면 첫 동기화(ItemChangePoller)를 기다렸다가 한 번에 조회(findByIds)해서 보관
+ - 없으면 상품마다 findById -> 저장소 쪽 캐시(MyBatis 2차 캐시), 데이터베이스 버퍼를 채움
+ */
+@Slf4j
+public class HotItemSnapshot {
+
+    private static final long PREWARM_WAIT_MILLIS = 30_000;
+
+    private final HotItemTracker tracker;
+    private final ItemService itemService;
+    private final ObjectProvider<ItemCache> itemCache;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, Object> lastPrewarm = Map.of();
+
+    public HotItemSnapshot(HotItemTracker tracker, ItemService itemService, ObjectProvider<ItemCache> itemCache,
+                           Path file, long saveIntervalMillis) {
+        this.tracker = tracker;
+        this.itemService = itemService;
+        this.itemCache = itemCache;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-item-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::saveQuietly, saveIntervalMillis, saveIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        List<HotItemTracker.HotItem> saved = load();
+        if (saved.isEmpty()) {
+            return;
+        }
+        tracker.seed(saved);
+        List<Long> ids = saved.stream().map(HotItemTracker.HotItem::getId).collect(Collectors.toList());
+        scheduler.execute(() -> warm(ids));
+    }
+
+    private void warm(List<Long> ids) {
+        long start = System.nanoTime();
+        int loaded = 0;
+        try {
+            ItemCache cache = itemCache.getIfAvailable();
+            if (cache != null) {
+                long deadline = System.currentTimeMillis() + PREWARM_WAIT_MILLIS;
+                while (!cache.isFresh() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                loaded = cache.load(ids, itemService::findByIds);
+            } else {
+                for (Long id : ids) {
+                    loaded += itemService.findById(id).isPresent() ? 1 : 0;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("hot item prewarm failed", e);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requested", ids.size());
+        result.put("loaded", loaded);
+        result.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastPrewarm = result;
+        log.info("hot item prewarm {}", result);
+    }
+
+    List<HotItemTracker.HotItem> load() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<HotItemTracker.HotItem> items = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int comma = line.indexOf(',');
+                if (comma > 0) {
+                    items.add(new HotItemTracker.HotItem(Long.parseLong(line.substring(0, comma).trim()),
+                            Long.parseLong(line.substring(comma + 1).trim())));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("hot item snapshot 읽기 실패 file = {}", file, e);
+            return List.of();
+        }
+        return items;
+    }
+
+    public void save() throws IOException {
+        List<HotItemTracker.HotItem> top = tracker.topK();
+        if (top.isEmpty()) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "hot-items", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (HotItemTracker.HotItem item : top) {
+                writer.write(item.getId() + "," + item.getEstimate());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.warn("hot item snapshot 저장 실패 file = {}", file, e);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("file", file.toAbsolutePath().toString());
+        snapshot.put("lastPrewarm", lastPrewarm);
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        saveQuietly();
+    }
+}
@@ -0,0 +1,112 @@
+package hello.itemservice.cache;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 자주 조회되는 상품(heavy hitters) 상위 K 개 추적 -> 캐시 크기 결정, 시작 시 미리 읽기(HotItemSnapshot)
+ - 조회마다 FrequencySketch 로 빈도를 추정하고, 추정값이 현재 K 번째 값(threshold) 이상이면 후보에 등록
+ - 후보가 2K 개를 넘으면 추정값 순으로 K 개만 남기고 threshold 갱신 -> tryLock 으로 한 스레드만 정리, 다른 스레드는 기다리지 않음
+ - 상위 K 조회(topK)는 후보를 현재 추정값으로 다시 정렬 -> 감쇠(FrequencySketch)가 반영됨, 감쇠하면 threshold 도 절반
+ - 이미 후보인 상품은 조회(contains)만 하고 쓰지 않음 -> 인기 상품 조회가 몰려도 후보 집합에서 경쟁하지 않음
+ */
+public class HotItemTracker {
+
+    private final int k;
+    private final FrequencySketch sketch;
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock pruning = new ReentrantLock();
+    private final LongAdder recorded = new LongAdder();
+
+    private volatile int threshold;
+
+    public HotItemTracker(int k, int sketchWidth) {
+        this.k = k;
+        this.sketch = new FrequencySketch(sketchWidth, () -> threshold >>>= 1);
+    }
+
+    public void record(long id) {
+        recorded.increment();
+        int estimate = sketch.increment(id);
+        if (estimate >= threshold && !candidates.contains(id)) {
+            candidates.add(id);
+            if (candidates.size() > 2 * k) {
+                prune();
+            }
+        }
+    }
+
+    /**
+     * 저장해 둔 상위 K 로 시작(재시작 후에도 인기 상품 순위 유지)
+     */
+    public void seed(List<HotItem> items) {
+        for (HotItem item : items) {
+            sketch.add(item.getId(), (int) Math.min(item.getEstimate(), Integer.MAX_VALUE / 4));
+            candidates.add(item.getId());
+        }
+        if (candidates.size() > k) {
+            prune();
+        }
+    }
+
+    public List<HotItem> topK() {
+        List<HotItem> ranked = rank();
+        return ranked.size() > k ? new ArrayList<>(ranked.subList(0, k)) : ranked;
+    }
+
+    private void prune() {
+        if (!pruning.tryLock()) {
+            return;
+        }
+        try {
+            List<HotItem> ranked = rank();
+            for (int i = k; i < ranked.size(); i++) {
+                candidates.remove(ranked.get(i).getId());
+            }
+            threshold = ranked.size() >= k ? (int) ranked.get(k - 1).getEstimate() : 0;
+        } finally {
+            pruning.unlock();
+        }
+    }
+
+    private List<HotItem> rank() {
+        List<HotItem> ranked = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            ranked.add(new HotItem(id, sketch.estimate(id)));
+        }
+        ranked.sort(Comparator.comparingLong(HotItem::getEstimate).reversed());
+        return ranked;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public Map<String, Object> snapshot(int limit) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("k", k);
+        snapshot.put("recorded", recorded.sum());
+        snapshot.put("candidates", candidates.size());
+        snapshot.put("threshold", threshold);
+        snapshot.put("sketchWidth", sketch.width());
+        snapshot.put("decays", sketch.decays());
+        List<HotItem> top = topK();
+        snapshot.put("top", top.size() > limit ? top.subList(0, limit) : top);
+        return snapshot;
+    }
+
+    @Value
+    public static class HotItem {
+        long id;
+        long estimate;
+    }
+}
@@ -0,0 +1,173 @@
+package hello.itemservice.cache;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.ItemChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * 상품 상세 조회 캐시(인스턴스마다 따로 보관)
+ - 이 인스턴스의 변경은 커밋 후 바로 제거(ItemChangedEvent), 다른 인스턴스의 변경은 ItemChangePoller 가 바뀐 id 만 제거
+ - 마지막 동기화(성공한 변경 조회의 시작 시점)가 maxStaleness 보다 오래되면 캐시를 비우고 매번 조회
+ -> 다른 인스턴스의 변경이 보이기까지의 시간 상한, 데이터베이스 장애로 변경 조회가 멈춰도 오래된 값을 계속 반환하지 않음
+ - 조회하는 동안 무효화가 있었으면 결과를 보관하지 않음 -> 무효화 전에 읽은 값이 남지 않도록
+ - 최대 maxSize 개, 넘으면 일부(1/8)를 임의로 제거
+ - 캐시에서 반환한 조회는 ItemService 를 거치지 않으므로 onHit 으로 따로 알림(HotItemTracker)
+
+ * 여러 요청이 같은 Item 객체를 공유 -> 화면 출력처럼 읽기만 하는 곳에서만 사용
+ */
+public class ItemCache {
+
+    private final int maxSize;
+    private final long maxStalenessNanos;
+    private final LongConsumer onHit;
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();     //무효화마다 증가
+
+    private volatile boolean synchronizedOnce;
+    private volatile long synchronizedAt;   //System.nanoTime()
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    public ItemCache(int maxSize, long maxStalenessMillis, LongConsumer onHit) {
+        this.maxSize = maxSize;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.onHit = onHit;
+    }
+
+    public Optional<Item> findById(Long id, Function<Long, Optional<Item>> loader) {
+        if (!isFresh()) {
+            bypassed.increment();
+            if (!items.isEmpty()) {
+                invalidateAll();
+            }
+            return loader.apply(id);
+        }
+
+        Item cached = items.get(id);
+        if (cached != null) {
+            hits.increment();
+            onHit.accept(id);
+            return Optional.of(cached);
+        }
+        misses.increment();
+        long before = generation.get();
+        Optional<Item> item = loader.apply(id);
+        if (item.isPresent() && generation.get() == before) {
+            if (items.size() >= maxSize) {
+                evict();
+            }
+            items.put(id, item.get());
+            if (generation.get() != before) {
+                items.remove(id, item.get());   //보관하는 사이에 무효화됨
+            }
+        }
+        return item;
+    }
+
+    /**
+     * ids 를 한 번에 조회해서 보관(미리 읽기, HotItemSnapshot) -> 동기화 전이거나 조회하는 동안 무효화가 있었으면 보관하지 않음
+     * @return 보관한 상품 수
+     */
+    public int load(Collection<Long> ids, Function<Collection<Long>, List<Item>> loader) {
+        if (!isFresh()) {
+            return 0;
+        }
+        long before = generation.get();
+        List<Item> found = loader.apply(ids);
+        int stored = 0;
+        for (Item item : found) {
+            if (generation.get() != before || items.size() >= maxSize) {
+                break;
+            }
+            items.put(item.getId(), item);
+            stored++;
+        }
+        if (generation.get() != before) {
+            found.forEach(item -> items.remove(item.getId(), item));
+            return 0;
+        }
+        return stored;
+    }
+
+    /**
+     * 커밋 후 호출(트랜잭션 밖 변경은 바로)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangedEvent.Type.RESET) {
+            invalidateAll();
+            return;
+        }
+        invalidate(List.of(event.getItemId()));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        generation.incrementAndGet();
+        for (Long id : ids) {
+            if (items.remove(id) != null) {
+                invalidated.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidated.add(items.size());
+        items.clear();
+    }
+
+    /**
+     * @param startedAt 변경 조회를 시작한 시점(System.nanoTime()) -> 그 전에 커밋된 변경은 모두 반영됨
+     */
+    void markSynchronized(long startedAt) {
+        synchronizedAt = startedAt;
+        synchronizedOnce = true;
+    }
+
+    public boolean isFresh() {
+        return synchronizedOnce && System.nanoTime() - synchronizedAt <= maxStalenessNanos;
+    }
+
+    private void evict() {
+        int toRemove = Math.max(1, maxSize / 8);
+        Iterator<Long> iterator = items.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", items.size());
+        snapshot.put("maxSize", maxSize);
+        snapshot.put("fresh", isFresh());
+        snapshot.put("stalenessMs", synchronizedOnce ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - synchronizedAt) : null);
+        snapshot.put("maxStalenessMs", TimeUnit.NANOSECONDS.toMillis(maxStalenessNanos));
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        snapshot.put("bypassed", bypassed.sum());
+        snapshot.put("invalidated", invalidated.sum());
+        return snapshot;
+    }
+}
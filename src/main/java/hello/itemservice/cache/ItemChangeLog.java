@@ -0,0 +1,73 @@
+package hello.itemservice.cache;
+
+import hello.itemservice.service.ItemChangedEvent;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 상품 변경 버전 테이블(sql/item-change-log.sql) 기록, 조회
+ - 변경마다 item_change_version 의 버전을 1 올리고 item_change_log 에 (상품 id, 버전) 기록 -> 상품마다 한 행, 이미 있으면 버전만 변경
+ - 버전 행의 잠금은 커밋까지 유지 -> 버전 순서와 커밋 순서가 같으므로 조회 쪽은 마지막으로 본 버전 이후만 읽으면 누락이 없음
+ - 변경 트랜잭션 안에서는 커밋 직전에 같은 트랜잭션으로 기록(함께 커밋/롤백), 트랜잭션 밖 변경(ItemServiceV1)은 기록만 별도 트랜잭션
+ - ALL_ITEMS(0) : 가져오기처럼 바뀐 id 를 모르는 변경 -> 캐시 전체 무효화
+ */
+public class ItemChangeLog {
+
+    public static final long ALL_ITEMS = 0L;
+
+    private final JdbcTemplate template;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemChangeLog(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.template = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangedEvent.Type.RESET) {
+            recordAll();
+            return;
+        }
+        record(event.getItemId());
+    }
+
+    public long record(long itemId) {
+        Long version = transactionTemplate.execute(status -> {
+            template.update("update item_change_version set version = version + 1 where id = 1");
+            Long next = template.queryForObject("select version from item_change_version where id = 1", Long.class);
+            template.update("merge into item_change_log (item_id, version) key (item_id) values (?, ?)", itemId, next);
+            return next;
+        });
+        return version;
+    }
+
+    public long recordAll() {
+        return record(ALL_ITEMS);
+    }
+
+    public long currentVersion() {
+        return template.queryForObject("select version from item_change_version where id = 1", Long.class);
+    }
+
+    /**
+     * version 이후 변경을 버전 순서로 최대 limit 개 -> 버전 인덱스 범위 조회 한 번
+     */
+    public List<Change> changesAfter(long version, int limit) {
+        String sql = "select item_id, version from item_change_log where version > ? order by version limit ?";
+        return template.query(sql, (rs, rowNum) -> new Change(rs.getLong(1), rs.getLong(2)), version, limit);
+    }
+
+    @Value
+    public static class Change {
+        long itemId;
+        long version;
+    }
+}
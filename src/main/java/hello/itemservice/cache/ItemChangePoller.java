@@ -0,0 +1,108 @@
+package hello.itemservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 변경 버전 테이블을 주기적으로 조회해서 다른 인스턴스가 바꾼 상품만 캐시에서 제거(외부 메시지 브로커 없이)
+ - 마지막으로 본 버전 이후만 조회(버전 인덱스 범위 조회 한 번) -> 변경이 없으면 빈 결과
+ - 한 번에 maxChanges 개 이상이면 하나씩 제거하지 않고 전체 무효화 후 최신 버전으로 이동
+ - 시작 시점의 최신 버전부터 조회 -> 캐시는 비어 있는 상태로 시작하므로 그 전 변경은 필요 없음
+ - 조회에 실패하면 버전을 그대로 두고 다음 주기에 다시 시도, 실패가 길어지면 ItemCache 가 캐시를 사용하지 않음
+ - 변경을 발견하면 onChange 작업도 실행(MyBatis 매퍼 2차 캐시 비우기 등)
+ */
+@Slf4j
+public class ItemChangePoller {
+
+    private final ItemChangeLog changeLog;
+    private final ItemCache itemCache;
+    private final int maxChanges;
+    private final List<Runnable> onChange = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lastVersion = -1;     //poller 스레드에서만 변경
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+
+    public ItemChangePoller(ItemChangeLog changeLog, ItemCache itemCache, long pollIntervalMillis, int maxChanges,
+                            List<Runnable> onChange) {
+        this.changeLog = changeLog;
+        this.itemCache = itemCache;
+        this.maxChanges = maxChanges;
+        this.onChange.addAll(onChange);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        long startedAt = System.nanoTime();
+        try {
+            polls.increment();
+            if (lastVersion < 0) {
+                lastVersion = changeLog.currentVersion();
+                itemCache.invalidateAll();
+            } else {
+                apply(changeLog.changesAfter(lastVersion, maxChanges));
+            }
+            itemCache.markSynchronized(startedAt);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("상품 변경 버전 조회 실패 lastVersion = {}", lastVersion, e);
+        }
+    }
+
+    private void apply(List<ItemChangeLog.Change> found) {
+        if (found.isEmpty()) {
+            return;
+        }
+        changes.add(found.size());
+        if (found.size() >= maxChanges) {
+            //최신 버전을 먼저 읽고 비움 -> 그 사이에 커밋된 변경도 함께 무효화됨
+            lastVersion = changeLog.currentVersion();
+            itemCache.invalidateAll();
+        } else {
+            List<Long> ids = new ArrayList<>(found.size());
+            boolean all = false;
+            for (ItemChangeLog.Change change : found) {
+                all |= change.getItemId() == ItemChangeLog.ALL_ITEMS;
+                ids.add(change.getItemId());
+            }
+            if (all) {
+                itemCache.invalidateAll();
+            } else {
+                itemCache.invalidate(ids);
+            }
+            lastVersion = found.get(found.size() - 1).getVersion();
+        }
+        onChange.forEach(Runnable::run);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("lastVersion", lastVersion);
+        snapshot.put("polls", polls.sum());
+        snapshot.put("failures", failures.sum());
+        snapshot.put("changes", changes.sum());
+        snapshot.put("cache", itemCache.snapshot());
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
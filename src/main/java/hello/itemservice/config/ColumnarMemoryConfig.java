@@ -0,0 +1,36 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 컬럼 기반 메모리 저장소
+ - off-heap : true 이면 컬럼을 힙 밖(direct buffer)에 할당
+ - initial-capacity : 처음 할당할 행 수, 부족하면 두 배씩 증가
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "memory-columnar")
+public class ColumnarMemoryConfig {
+
+    @Value("${itemservice.memory.columnar.off-heap:false}")
+    private boolean offHeap;
+
+    @Value("${itemservice.memory.columnar.initial-capacity:1024}")
+    private int initialCapacity;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean
+    public ItemRepository itemRepository() {
+        return new ColumnarItemRepository(offHeap, initialCapacity);
+    }
+}
@@ -0,0 +1,39 @@
+package hello.itemservice.config;
+
+import hello.itemservice.web.ConcurrencyLimitInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * ItemController 요청 종류별 동시 처리 한도(ConcurrencyLimitInterceptor)
+ - itemservice.limiter.enabled=true 이면 활성화
+ - initial-limit : 시작 한도, min-limit, max-limit : 응답 시간에 따라 조정되는 한도의 범위(요청 종류마다 같은 설정)
+ - 현재 한도, 거절 수는 /admin/limits 에서 확인
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.limiter.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    @Value("${itemservice.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${itemservice.limiter.min-limit:4}")
+    private int minLimit;
+
+    @Value("${itemservice.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        return new ConcurrencyLimitInterceptor(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor()).addPathPatterns("/items/**");
+    }
+}
@@ -0,0 +1,46 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.DurableMemoryItemRepository;
+import hello.itemservice.repository.memory.ItemWriteAheadLog.FsyncPolicy;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * WAL + 스냅샷으로 재시작 후에도 데이터가 유지되는 메모리 저장소
+ - directory : WAL 세그먼트와 스냅샷 파일 위치
+ - fsync : ALWAYS(레코드마다), INTERVAL(fsync-interval-ms 주기), NEVER(OS 에 맡김)
+ - snapshot-interval-ms : 스냅샷 주기, 0 이면 자동 스냅샷 없음
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "memory-durable")
+public class DurableMemoryConfig {
+
+    @Value("${itemservice.memory.durable.directory:./data/items}")
+    private String directory;
+
+    @Value("${itemservice.memory.durable.fsync:INTERVAL}")
+    private FsyncPolicy fsync;
+
+    @Value("${itemservice.memory.durable.fsync-interval-ms:100}")
+    private long fsyncIntervalMillis;
+
+    @Value("${itemservice.memory.durable.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMillis;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean
+    public ItemRepository itemRepository() {
+        return new DurableMemoryItemRepository(Paths.get(directory), fsync, fsyncIntervalMillis, snapshotIntervalMillis);
+    }
+}
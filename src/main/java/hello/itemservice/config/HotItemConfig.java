@@ -0,0 +1,72 @@
+package hello.itemservice.config;
+
+import hello.itemservice.cache.HotItemSnapshot;
+import hello.itemservice.cache.HotItemTracker;
+import hello.itemservice.cache.ItemCache;
+import hello.itemservice.service.HotItemTrackingItemService;
+import hello.itemservice.service.ItemService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Path;
+
+/**
+ * 자주 조회되는 상품 추적(HotItemTracker)과 상위 K 저장, 시작 시 미리 읽기(HotItemSnapshot)
+ - itemservice.hot.enabled=true 이면 활성화, 결과는 /admin/hot 에서 확인
+ - 저장소 구현 설정이 등록한 itemService 빈을 HotItemTrackingItemService 로 감쌈 -> 섀도 모드(ShadowConfig)는 감싼 빈을 primary 로 사용
+ - top-k : 추적할 상품 수, sketch-width : 빈도 추정 카운터 수(행마다, 상품 수보다 충분히 크게)
+ - search-limit : 검색 결과 중 기록할 앞쪽 상품 수
+ - snapshot-file, snapshot-interval-ms : 상위 K 저장 위치와 주기(종료할 때도 저장)
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.hot.enabled", havingValue = "true")
+public class HotItemConfig {
+
+    @Value("${itemservice.hot.top-k:100}")
+    private int topK;
+
+    @Value("${itemservice.hot.sketch-width:16384}")
+    private int sketchWidth;
+
+    @Value("${itemservice.hot.snapshot-file:./data/hot-items.csv}")
+    private Path snapshotFile;
+
+    @Value("${itemservice.hot.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMillis;
+
+    /**
+     * BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static, 설정 값과 추적기는 감쌀 때 가져옴
+     */
+    @Bean
+    public static BeanPostProcessor hotItemTrackingPostProcessor(ObjectProvider<HotItemTracker> hotItemTracker,
+                                                                 @Value("${itemservice.hot.search-limit:100}") int searchLimit) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("itemService".equals(beanName) && bean instanceof ItemService) {
+                    return new HotItemTrackingItemService((ItemService) bean, hotItemTracker.getObject(), searchLimit);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HotItemTracker hotItemTracker() {
+        return new HotItemTracker(topK, sketchWidth);
+    }
+
+    /**
+     * 저장 주기가 시작부터 동작하도록 지연 생성하지 않음(spring.main.lazy-initialization)
+     */
+    @Bean
+    @Lazy(false)
+    public HotItemSnapshot hotItemSnapshot(ItemService itemService, ObjectProvider<ItemCache> itemCache) {
+        return new HotItemSnapshot(hotItemTracker(), itemService, itemCache, snapshotFile, snapshotIntervalMillis);
+    }
+}
@@ -0,0 +1,26 @@
+package hello.itemservice.config;
+
+import hello.itemservice.web.ItemBinaryHttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 상품 목록 이진 형식(application/x-item-binary) 응답
+ - 기본 활성화, itemservice.binary.enabled=false 이면 비활성화
+ - 변환기를 빈으로 등록하면 스프링 부트가 변환기 목록 맨 앞에 두므로 Accept 를 지정하지 않은 요청도 이진 형식이 됨
+ -> 빈으로 등록하지 않고 목록 맨 뒤에 추가, Accept: application/x-item-binary 로 요청한 경우만 선택
+ - 내보내기(/items/export)는 변환기를 거치지 않고 ItemExporter 가 직접 기록(format=binary 또는 같은 Accept)
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.binary.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBinaryConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ItemBinaryHttpMessageConverter());
+    }
+}
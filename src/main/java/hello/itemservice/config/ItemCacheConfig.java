@@ -0,0 +1,82 @@
+package hello.itemservice.config;
+
+import hello.itemservice.cache.HotItemTracker;
+import hello.itemservice.cache.ItemCache;
+import hello.itemservice.cache.ItemChangeLog;
+import hello.itemservice.cache.ItemChangePoller;
+import hello.itemservice.repository.mybatis.ItemMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 여러 인스턴스가 같은 데이터베이스를 사용할 때 상품 상세 조회 캐시(ItemCache)를 변경 버전 테이블로 맞춤
+ - itemservice.cache.enabled=true 이면 활성화, 데이터베이스 저장소와 함께 사용(memory 계열은 인스턴스마다 데이터가 따로라 대상이 아님)
+ - init-schema : 시작시 sql/item-change-log.sql 실행(테이블이 있으면 그대로 사용)
+ - poll-interval-ms : 변경 버전 조회 주기, max-staleness-ms : 마지막 동기화가 이보다 오래되면 캐시를 사용하지 않음
+ - max-size : 보관할 최대 상품 수, max-changes : 한 번에 조회할 최대 변경 수(넘으면 전체 무효화)
+ - 상품 추적(HotItemConfig)을 사용하면 캐시에서 반환한 조회도 기록
+ - MyBatis 를 사용하면 다른 인스턴스의 변경을 발견할 때 매퍼 2차 캐시도 비움(flushInterval 을 기다리지 않음)
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.cache.enabled", havingValue = "true")
+public class ItemCacheConfig {
+
+    @Value("${itemservice.cache.init-schema:true}")
+    private boolean initSchema;
+
+    @Value("${itemservice.cache.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${itemservice.cache.max-staleness-ms:5000}")
+    private long maxStalenessMillis;
+
+    @Value("${itemservice.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${itemservice.cache.max-changes:1000}")
+    private int maxChanges;
+
+    @Bean
+    public ItemChangeLog itemChangeLog(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        if (initSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("sql/item-change-log.sql")).execute(dataSource);
+        }
+        return new ItemChangeLog(dataSource, transactionManager);
+    }
+
+    @Bean
+    public ItemCache itemCache(ObjectProvider<HotItemTracker> hotItemTracker) {
+        HotItemTracker tracker = hotItemTracker.getIfAvailable();
+        return new ItemCache(maxSize, maxStalenessMillis, tracker != null ? tracker::record : id -> {
+        });
+    }
+
+    /**
+     * 시작하자마자 조회를 시작하도록 지연 생성하지 않음(spring.main.lazy-initialization)
+     */
+    @Bean
+    @Lazy(false)
+    public ItemChangePoller itemChangePoller(ItemChangeLog itemChangeLog, ItemCache itemCache,
+                                             ObjectProvider<SqlSessionFactory> sqlSessionFactory) {
+        List<Runnable> onChange = new ArrayList<>();
+        sqlSessionFactory.ifAvailable(factory -> onChange.add(() -> {
+            String namespace = ItemMapper.class.getName();
+            if (factory.getConfiguration().hasCache(namespace)) {
+                factory.getConfiguration().getCache(namespace).clear();
+            }
+        }));
+        return new ItemChangePoller(itemChangeLog, itemCache, pollIntervalMillis, maxChanges, onChange);
+    }
+}
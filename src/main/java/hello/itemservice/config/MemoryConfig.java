@@ -4,12 +4,22 @@ import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.memory.MemoryItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "memory")
 public class MemoryConfig {
 
+    //상품 수가 parallel-threshold 이상이면 findAll 을 parallelism 개 스레드로 병렬 검색(0 이하 : CPU 코어 수)
+    @Value("${itemservice.memory.parallel-threshold:" + MemoryItemRepository.DEFAULT_PARALLEL_THRESHOLD + "}")
+    private int parallelThreshold;
+
+    @Value("${itemservice.memory.parallelism:0}")
+    private int parallelism;
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV1(itemRepository());
@@ -17,7 +27,7 @@ public class MemoryConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new MemoryItemRepository();
+        return new MemoryItemRepository(parallelThreshold, parallelism);
     }
 
 }
@@ -6,14 +6,18 @@ import hello.itemservice.repository.mybatis.MyBatisItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "mybatis")
 @RequiredArgsConstructor
 public class MyBatisConfig {
 
     private final ItemMapper itemMapper;
+    private final SqlSessionFactory sqlSessionFactory;
 
     @Bean
     public ItemService itemService() {
@@ -22,6 +26,6 @@ public class MyBatisConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new MyBatisItemRepository(itemMapper);
+        return new MyBatisItemRepository(itemMapper, sqlSessionFactory);
     }
 }
@@ -0,0 +1,65 @@
+package hello.itemservice.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.*;
+
+/**
+ * 사용하지 않는 데이터 접근 기술의 자동 구성 제외
+ - 스프링 부트는 라이브러리가 클래스패스에 있으면 사용 여부와 관계없이 MyBatis(XML 매퍼 파싱), JPA(엔티티 스캔), 스프링 데이터 JPA(리포지토리 프록시)를 모두 초기화
+ - itemservice.repository(섀도 모드라면 itemservice.shadow.repository 포함)에 필요한 기술만 남기고 나머지는 spring.autoconfigure.exclude 에 추가
+ - 사용자가 직접 지정한 spring.autoconfigure.exclude 값은 유지
+ - itemservice.stack-exclusion.enabled=false 로 끌 수 있음
+
+ * 구현별 필요한 기술
+ - memory, jdbc-template-v1~v3 : DataSource 만 사용(@Transactional 테스트를 위해 DataSource 와 트랜잭션 매니저는 유지)
+ - mybatis : MyBatis
+ - jpa, querydsl, spring-data-jpa, v2 : JPA + 스프링 데이터 JPA
+   -> jpa, querydsl 구성(JpaConfig, QuerydslConfig)은 EntityManager 를 생성자로 주입받음
+   -> 공유 EntityManager 를 주입 가능한 빈으로 등록하는 것은 스프링 데이터 JPA 자동 구성이므로 함께 유지
+ */
+public class PersistenceStackEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+    private static final List<String> MYBATIS = List.of(
+            "org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration",
+            "org.mybatis.spring.boot.autoconfigure.MybatisLanguageDriverAutoConfiguration");
+    private static final List<String> JPA = List.of(
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+    private static final List<String> SPRING_DATA_JPA = List.of(
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("itemservice.stack-exclusion.enabled", Boolean.class, true)) {
+            return;
+        }
+
+        Set<String> repositories = new HashSet<>();
+        repositories.add(environment.getProperty("itemservice.repository", "v2"));
+        String shadow = environment.getProperty("itemservice.shadow.repository");
+        if (shadow != null) {
+            repositories.add(shadow);
+        }
+
+        Set<String> excludes = new LinkedHashSet<>(Binder.get(environment)
+                .bind(EXCLUDE, Bindable.listOf(String.class))
+                .orElse(Collections.emptyList()));
+        if (!repositories.contains("mybatis")) {
+            excludes.addAll(MYBATIS);
+        }
+        if (Collections.disjoint(repositories, Set.of("jpa", "querydsl", "spring-data-jpa", "v2"))) {
+            excludes.addAll(JPA);
+            excludes.addAll(SPRING_DATA_JPA);
+        }
+
+        environment.getPropertySources().addFirst(new MapPropertySource("itemserviceStackExclusion",
+                Map.of(EXCLUDE, String.join(",", excludes))));
+    }
+}
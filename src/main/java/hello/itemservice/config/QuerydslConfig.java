@@ -5,12 +5,14 @@ import hello.itemservice.repository.jpa.JpaItemRepositoryV3;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.persistence.EntityManager;
 
 @Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "querydsl")
 @RequiredArgsConstructor
 public class QuerydslConfig {
 
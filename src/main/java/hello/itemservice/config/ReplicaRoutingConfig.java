@@ -0,0 +1,94 @@
+package hello.itemservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.datasource.ReadWriteRoutingDataSource;
+import hello.itemservice.datasource.ReplicaSelector;
+import hello.itemservice.web.ReadYourWritesInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조회를 복제본 데이터베이스로 보내는 DataSource(ReadWriteRoutingDataSource)
+ - itemservice.replica.urls 를 지정하면 활성화, 저장소 구현(itemservice.repository)과 함께 사용
+ - primary 는 spring.datasource.* 설정, 복제본은 urls(쉼표로 구분) -> 복제는 데이터베이스가 담당
+ - selection : ROUND_ROBIN(기본값), LEAST_LATENCY / probe-interval-ms : 복제본 상태, 응답 시간 확인 주기
+ - sticky-seconds : 변경 요청 후 같은 사용자의 조회를 primary 로 처리하는 시간(ReadYourWritesInterceptor)
+ - 읽기 전용 트랜잭션만 복제본으로 보냄 -> ItemServiceV1, ItemServiceV2 의 조회 메서드, JPA 저장소 조회 메서드, ItemQueryRepositoryV2
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.replica.urls")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Value("${itemservice.replica.urls}")
+    private List<String> urls;
+
+    @Value("${itemservice.replica.username:${spring.datasource.username:sa}}")
+    private String username;
+
+    @Value("${itemservice.replica.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${itemservice.replica.selection:ROUND_ROBIN}")
+    private ReplicaSelector.Strategy selection;
+
+    @Value("${itemservice.replica.probe-interval-ms:1000}")
+    private long probeIntervalMillis;
+
+    @Value("${itemservice.replica.sticky-seconds:5}")
+    private int stickySeconds;
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    @Bean
+    public ReplicaSelector replicaSelector() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("item-replica-" + i);
+            dataSources.add(replica);
+            replicas.put("replica-" + i, replica);
+        }
+        return new ReplicaSelector(replicas, selection, probeIntervalMillis);
+    }
+
+    /**
+     * 스프링 부트 기본 DataSource 대신 등록 -> JdbcTemplate, MyBatis, JPA, 트랜잭션 매니저가 모두 사용
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("item-primary");
+        dataSources.add(primary);
+        return ReadWriteRoutingDataSource.lazy(primary, replicaSelector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(stickySeconds)).addPathPatterns("/items/**");
+    }
+
+    @PreDestroy
+    public void closeDataSources() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
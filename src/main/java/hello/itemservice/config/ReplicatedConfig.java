@@ -0,0 +1,56 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.jdbctemplate.ReplicatedItemRepository;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 데이터베이스 + 메모리 복제본 저장소(ReplicatedItemRepository), 상태는 /admin/replicated 에서 확인
+ - load-threads, load-chunk-size : 시작할 때 상품 테이블을 읽는 스레드 수와 한 번에 읽는 id 범위
+ - load-retry-ms : 읽기에 실패했을 때 다시 시도할 때까지의 시간
+ - check-interval-ms : 데이터베이스와 복제본 비교 주기(0 이면 끔), repair : 다른 값을 찾으면 복제본을 데이터베이스 값으로 고침
+ - 복제본 데이터베이스로 조회를 보내는 itemservice.replica.*(ReplicaRoutingConfig)와는 별개
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "replicated")
+@RequiredArgsConstructor
+public class ReplicatedConfig {
+
+    @Value("${itemservice.replicated.load-threads:4}")
+    private int loadThreads;
+
+    @Value("${itemservice.replicated.load-chunk-size:10000}")
+    private int loadChunkSize;
+
+    @Value("${itemservice.replicated.load-retry-ms:5000}")
+    private long loadRetryMillis;
+
+    @Value("${itemservice.replicated.check-interval-ms:300000}")
+    private long checkIntervalMillis;
+
+    @Value("${itemservice.replicated.repair:true}")
+    private boolean repair;
+
+    private final DataSource dataSource;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    /**
+     * 종료할 때 close() 호출(스프링이 추론하는 destroy 메서드)
+     */
+    @Bean
+    public ItemRepository itemRepository() {
+        return new ReplicatedItemRepository(dataSource, loadThreads, loadChunkSize, loadRetryMillis, checkIntervalMillis, repair);
+    }
+}
@@ -0,0 +1,79 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.jpa.JpaRequestDeadline;
+import hello.itemservice.repository.mybatis.DeadlineStatementInterceptor;
+import hello.itemservice.web.EndpointClass;
+import hello.itemservice.web.RequestDeadlineInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ItemController 요청 마감 시간(RequestDeadlineInterceptor) -> 저장소 쿼리 타임아웃
+ - itemservice.deadline.enabled=true 이면 활성화
+ - search-timeout-ms, detail-timeout-ms, write-timeout-ms : 요청 종류(EndpointClass)별 제한 시간(0 이면 해당 종류는 제한 없음)
+ - JdbcTemplate 저장소는 항상 DeadlineJdbcTemplate 을 사용(마감 시간이 없으면 기존과 같음)
+ - MyBatis : DeadlineStatementInterceptor 빈 -> MyBatis 자동 구성이 플러그인으로 등록
+ - JPA : EntityManager 생성시 JpaRequestDeadline 적용
+ - 가장 먼저 실행되는 인터셉터로 등록(@Order) -> OSIV 가 EntityManager 를 만들기 전에 마감 시간 설정
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.deadline.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestDeadlineConfig implements WebMvcConfigurer {
+
+    @Value("${itemservice.deadline.search-timeout-ms:3000}")
+    private long searchTimeoutMillis;
+
+    @Value("${itemservice.deadline.detail-timeout-ms:1000}")
+    private long detailTimeoutMillis;
+
+    @Value("${itemservice.deadline.write-timeout-ms:3000}")
+    private long writeTimeoutMillis;
+
+    @Bean
+    public RequestDeadlineInterceptor requestDeadlineInterceptor() {
+        Map<EndpointClass, Long> timeouts = new EnumMap<>(EndpointClass.class);
+        timeouts.put(EndpointClass.SEARCH, searchTimeoutMillis);
+        timeouts.put(EndpointClass.DETAIL, detailTimeoutMillis);
+        timeouts.put(EndpointClass.WRITE, writeTimeoutMillis);
+        return new RequestDeadlineInterceptor(timeouts);
+    }
+
+    @Bean
+    public DeadlineStatementInterceptor deadlineStatementInterceptor() {
+        return new DeadlineStatementInterceptor();
+    }
+
+    /**
+     * EntityManagerFactory 초기화 전에 EntityManager 생성 콜백 등록
+     - static -> 다른 빈보다 먼저 만들어지는 BeanPostProcessor 가 이 설정 클래스를 일찍 만들지 않도록
+     */
+    @Bean
+    public static BeanPostProcessor jpaRequestDeadlinePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setEntityManagerInitializer(JpaRequestDeadline::apply);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestDeadlineInterceptor()).addPathPatterns("/items/**");
+    }
+}
@@ -0,0 +1,96 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV1;
+import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV2;
+import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV3;
+import hello.itemservice.repository.jpa.JpaItemRepositoryV1;
+import hello.itemservice.repository.jpa.JpaItemRepositoryV2;
+import hello.itemservice.repository.jpa.JpaItemRepositoryV3;
+import hello.itemservice.repository.jpa.SpringDataJpaItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.repository.mybatis.ItemMapper;
+import hello.itemservice.repository.mybatis.MyBatisItemRepository;
+import hello.itemservice.repository.v2.ItemQueryRepositoryV2;
+import hello.itemservice.repository.v2.ItemRepositoryV2;
+import hello.itemservice.service.*;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 섀도 모드 설정
+ - itemservice.shadow.repository 가 있을 때만 활성화
+ - 선택된 구현의 itemService 를 감싼 ShadowItemService 를 @Primary 로 등록 -> 컨트롤러는 ShadowItemService 를 주입 받음
+ - 섀도 구현은 빈으로 등록하지 않고 직접 생성 -> ItemRepository 빈이 둘이 되어 주입이 모호해지는 문제 방지
+ */
+@Configuration
+@ConditionalOnProperty("itemservice.shadow.repository")
+@RequiredArgsConstructor
+public class ShadowConfig {
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final ObjectProvider<EntityManager> em;
+    private final ObjectProvider<ItemMapper> itemMapper;
+    private final ObjectProvider<SqlSessionFactory> sqlSessionFactory;
+    private final ObjectProvider<SpringDataJpaItemRepository> springDataJpaItemRepository;
+    private final ObjectProvider<ItemRepositoryV2> itemRepositoryV2;
+
+    @Value("${itemservice.shadow.repository}")
+    private String shadowRepository;
+
+    @Value("${itemservice.shadow.threads:2}")
+    private int threads;
+
+    @Value("${itemservice.shadow.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Bean
+    public ShadowMetrics shadowMetrics() {
+        return new ShadowMetrics();
+    }
+
+    @Bean
+    @Primary
+    public ItemService shadowItemService(@Qualifier("itemService") ItemService itemService) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        return new ShadowItemService(itemService, createShadow(shadowRepository), executor, shadowMetrics());
+    }
+
+    private ItemService createShadow(String repository) {
+        switch (repository) {
+            case "memory":
+                return new ItemServiceV1(new MemoryItemRepository());
+            case "jdbc-template-v1":
+                return new ItemServiceV1(new JdbcTemplateItemRepositoryV1(dataSource.getObject()));
+            case "jdbc-template-v2":
+                return new ItemServiceV1(new JdbcTemplateItemRepositoryV2(dataSource.getObject()));
+            case "jdbc-template-v3":
+                return new ItemServiceV1(new JdbcTemplateItemRepositoryV3(dataSource.getObject()));
+            case "mybatis":
+                return new ItemServiceV1(new MyBatisItemRepository(itemMapper.getObject(), sqlSessionFactory.getObject()));
+            case "jpa":
+                return new ItemServiceV1(new JpaItemRepositoryV1(em.getObject()));
+            case "spring-data-jpa":
+                return new ItemServiceV1(new JpaItemRepositoryV2(springDataJpaItemRepository.getObject(), em.getObject()));
+            case "querydsl":
+                return new ItemServiceV1(new JpaItemRepositoryV3(em.getObject()));
+            case "v2":
+                return new ItemServiceV2(itemRepositoryV2.getObject(), new ItemQueryRepositoryV2(em.getObject()));
+            default:
+                throw new IllegalArgumentException("지원하지 않는 shadow repository = " + repository);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package hello.itemservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.jdbctemplate.ShardedItemRepository;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * id 해시로 여러 데이터베이스에 나누어 저장하는 저장소(ShardedItemRepository)
+ - urls : 샤드 데이터베이스 주소(쉼표로 구분), 순서가 샤드 번호 -> 순서나 개수를 바꾸면 기존 데이터를 다시 나누어야 함
+ - init-schema : 시작시 샤드마다 sql/item-shard.sql 실행(테이블이 있으면 그대로 사용)
+ - id-block-size : id 발급 블록 크기(ItemIdAllocator), timeout-ms : 전체 샤드 조회 응답 시간 제한
+ - 샤드 데이터소스는 빈으로 등록하지 않음 -> 스프링 부트 기본 DataSource 와 섞이지 않도록
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "sharded")
+public class ShardedConfig {
+
+    @Value("${itemservice.sharded.urls:jdbc:h2:mem:item-shard-0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:item-shard-1;DB_CLOSE_DELAY=-1}")
+    private List<String> urls;
+
+    @Value("${itemservice.sharded.username:sa}")
+    private String username;
+
+    @Value("${itemservice.sharded.password:}")
+    private String password;
+
+    @Value("${itemservice.sharded.init-schema:true}")
+    private boolean initSchema;
+
+    @Value("${itemservice.sharded.id-block-size:1000}")
+    private int idBlockSize;
+
+    @Value("${itemservice.sharded.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean
+    public ItemRepository itemRepository() {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSources.add(dataSource);
+            if (initSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource("sql/item-shard.sql")).execute(dataSource);
+            }
+            shards.add(dataSource);
+        }
+        //샤드마다 동시에 조회할 수 있도록 샤드 수 * 4 개 스레드
+        return new ShardedItemRepository(shards, idBlockSize, timeoutMillis, shards.size() * 4);
+    }
+
+    @PreDestroy
+    public void closeDataSources() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
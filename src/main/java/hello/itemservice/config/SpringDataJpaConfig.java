@@ -6,15 +6,20 @@ import hello.itemservice.repository.jpa.SpringDataJpaItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.persistence.EntityManager;
+
 @Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "spring-data-jpa")
 @RequiredArgsConstructor
 public class SpringDataJpaConfig {
 
     //스프링 데이터 JPA 가 프록시 기술로 만들어주고 스프링 빈으로 등록해 줌
     private final SpringDataJpaItemRepository springDataJpaItemRepository;
+    private final EntityManager em;
 
     @Bean
     public ItemService itemService() {
@@ -23,6 +28,6 @@ public class SpringDataJpaConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JpaItemRepositoryV2(springDataJpaItemRepository);
+        return new JpaItemRepositoryV2(springDataJpaItemRepository, em);
     }
 }
@@ -7,12 +7,14 @@ import hello.itemservice.repository.v2.ItemRepositoryV2;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV2;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.persistence.EntityManager;
 
 @Configuration
+@ConditionalOnProperty(name = "itemservice.repository", havingValue = "v2", matchIfMissing = true)
 @RequiredArgsConstructor
 public class V2Config {
 
@@ -0,0 +1,50 @@
+package hello.itemservice.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))의 커넥션은 복제본, 나머지는 primary 에서 가져옴
+ - 트랜잭션 밖의 조회, 쓰기 트랜잭션 -> primary
+ - ReadYourWrites.requirePrimary() 가 설정된 스레드 -> 읽기 전용 트랜잭션도 primary
+ - 정상 복제본이 없으면 primary
+
+ * 트랜잭션 매니저는 트랜잭션을 시작할 때(읽기 전용 여부를 등록하기 전에) 커넥션을 가져옴
+ -> LazyConnectionDataSourceProxy 로 감싸서 실제 커넥션은 첫 쿼리 실행 시점에 선택(lazy)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaSelector replicaSelector;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSelector replicaSelector) {
+        this.replicaSelector = replicaSelector;
+        Map<Object, Object> targets = new HashMap<>(replicaSelector.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 트랜잭션 매니저, JdbcTemplate, MyBatis, JPA 에 등록할 데이터소스
+     */
+    public static DataSource lazy(DataSource primary, ReplicaSelector replicaSelector) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaSelector));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        String replica = replicaSelector.select();
+        return replica == null ? PRIMARY : replica;
+    }
+}
@@ -0,0 +1,23 @@
+package hello.itemservice.datasource;
+
+/**
+ * 현재 스레드의 조회를 primary 로 고정(read-your-writes)
+ - 자신이 방금 변경한 데이터는 복제 지연과 관계없이 바로 보여야 함 -> 변경 직후 일정 시간 동안의 조회는 복제본 대신 primary 에서 처리
+ - 요청 단위로 ReadYourWritesInterceptor 가 설정하고 요청이 끝나면 해제
+ */
+public abstract class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,163 @@
+package hello.itemservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 조회를 보낼 복제본 선택
+ - ROUND_ROBIN : 정상 복제본을 차례대로 선택
+ - LEAST_LATENCY : 주기적으로 측정한 응답 시간(지수 이동 평균)이 가장 짧은 복제본 선택
+
+ * 상태 확인(probe)
+ - probeIntervalMillis 마다 복제본마다 select 1 을 실행해서 응답 시간을 기록
+ - 실패한 복제본은 다음 확인에서 성공할 때까지 선택하지 않음
+ - 정상 복제본이 없으면 null -> ReadWriteRoutingDataSource 가 primary 로 조회
+ */
+@Slf4j
+public class ReplicaSelector implements Closeable {
+
+    public enum Strategy {ROUND_ROBIN, LEAST_LATENCY}
+
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param replicas 조회 키 -> 복제본 데이터소스(순서 유지)
+     * @param probeIntervalMillis 0 이하면 주기적으로 확인하지 않음(probe 를 직접 호출)
+     */
+    public ReplicaSelector(Map<String, DataSource> replicas, Strategy strategy, long probeIntervalMillis) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("복제본 데이터소스가 없음");
+        }
+        List<Replica> list = new ArrayList<>();
+        replicas.forEach((key, dataSource) -> list.add(new Replica(key, dataSource)));
+        this.replicas = List.copyOf(list);
+        this.strategy = strategy;
+
+        if (probeIntervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-replica-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::probe, 0, probeIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach(replica -> dataSources.put(replica.key, replica.dataSource));
+        return dataSources;
+    }
+
+    /**
+     * @return 선택한 복제본의 조회 키, 정상 복제본이 없으면 null
+     */
+    public String select() {
+        return strategy == Strategy.LEAST_LATENCY ? leastLatency() : roundRobin();
+    }
+
+    private String roundRobin() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return null;
+    }
+
+    private String leastLatency() {
+        Replica selected = null;
+        for (Replica replica : replicas) {
+            if (replica.healthy && (selected == null || replica.latencyNanos < selected.latencyNanos)) {
+                selected = replica;
+            }
+        }
+        return selected == null ? null : selected.key;
+    }
+
+    /**
+     * 복제본마다 select 1 응답 시간을 측정해서 상태와 평균 응답 시간 갱신
+     */
+    public void probe() {
+        for (Replica replica : replicas) {
+            long start = System.nanoTime();
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("select 1");
+                replica.record(System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy) {
+                    log.warn("replica {} unavailable: {}", replica.key, e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    /**
+     * 복제본별 상태, 평균 응답 시간(ms)
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("key", replica.key);
+            state.put("healthy", replica.healthy);
+            state.put("latencyMs", replica.latencyNanos / 1_000_000.0);
+            snapshot.add(state);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long latencyNanos;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        //probe 스레드 하나에서만 갱신
+        private void record(long sampleNanos) {
+            latencyNanos = latencyNanos == 0 ? sampleNanos
+                    : (long) (latencyNanos * (1 - EWMA_WEIGHT) + sampleNanos * EWMA_WEIGHT);
+            if (!healthy) {
+                log.info("replica {} recovered", key);
+            }
+            healthy = true;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package hello.itemservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import javax.persistence.*;
+import java.io.Serializable;
 
 @Data
 @Entity     //JPA 가 사용하는 객체 -> 엔티티
-public class Item {
+public class Item implements Serializable {    //MyBatis 2차 캐시(readOnly=false)는 직렬화로 복사본을 만듦
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY) //PK 생성 값을 데이터베이스에서 생성하는 방식
     private Long id;
@@ -19,6 +23,11 @@ public class Item {
     private Integer price;
     private Integer quantity;
 
+    //대소문자 구분 없는 검색용 컬럼(lower(item_name)), 데이터베이스가 생성하므로 조회 전용 -> MatchMode.IGNORE_CASE
+    @JsonIgnore @EqualsAndHashCode.Exclude @ToString.Exclude
+    @Column(name = "item_name_lower", length = 10, insertable = false, updatable = false)
+    private String itemNameLower;
+
     public Item() { //JPA 는 public 또는 protected 기본 생성자가 필수
     }
 
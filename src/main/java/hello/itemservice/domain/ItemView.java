@@ -0,0 +1,28 @@
+package hello.itemservice.domain;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * 상품 목록 화면용 읽기 전용 모델
+ - 모든 필드가 final 이고 기본형(long, int) -> Long, Integer 박싱 객체를 만들지 않고, JPA 영속성 컨텍스트에서 관리되지 않음
+ - 각 저장소의 findAllViews 가 조회 결과에서 바로 생성(생성자 프로젝션) -> Item 엔티티를 거치지 않음
+ - 가격, 수량이 없는(null) 상품은 0 으로 조회
+ - MyBatis 2차 캐시(readOnly=false)가 직렬화로 복사본을 만들므로 Serializable
+ */
+@Value
+public class ItemView implements Serializable {
+
+    long id;
+    String itemName;
+    int price;
+    int quantity;
+
+    public static ItemView of(Item item) {
+        return new ItemView(item.getId(),
+                item.getItemName(),
+                item.getPrice() == null ? 0 : item.getPrice(),
+                item.getQuantity() == null ? 0 : item.getQuantity());
+    }
+}
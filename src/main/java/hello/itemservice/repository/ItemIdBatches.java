@@ -0,0 +1,77 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 id 조회(findAllById)용 IN 목록 나누기
+ - 한 번에 조회하는 id 수를 MAX_BATCH_SIZE 로 제한 -> SQL 길이, 바인딩 파라미터 수가 한없이 커지지 않도록
+ - 묶음 크기를 2의 거듭제곱(최대 MAX_BATCH_SIZE)으로 맞추고 남는 자리는 마지막 id 를 반복해서 채움
+ -> id 수마다 다른 SQL 이 만들어지지 않고 몇 가지 형태만 사용되므로 PreparedStatement 캐시를 재사용할 수 있음
+ -> IN 목록에 같은 id 가 반복되어도 결과는 같음
+ */
+public class ItemIdBatches {
+
+    public static final int MAX_BATCH_SIZE = 128;
+
+    private ItemIdBatches() {
+    }
+
+    /**
+     * null, 중복을 제거한 id(요청 순서 유지)
+     */
+    public static List<Long> distinct(Collection<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return new ArrayList<>(distinct);
+    }
+
+    public static List<List<Long>> split(Collection<Long> ids) {
+        List<Long> distinct = distinct(ids);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_BATCH_SIZE) {
+            List<Long> batch = new ArrayList<>(distinct.subList(from, Math.min(from + MAX_BATCH_SIZE, distinct.size())));
+            Long last = batch.get(batch.size() - 1);
+            for (int i = batch.size(); i < paddedSize(batch.size()); i++) {
+                batch.add(last);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * size 이상인 가장 작은 2의 거듭제곱, 최대 MAX_BATCH_SIZE
+     */
+    public static int paddedSize(int size) {
+        int padded = Integer.highestOneBit(Math.max(1, size));
+        if (padded < size) {
+            padded <<= 1;
+        }
+        return Math.min(padded, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * 조회 결과를 요청한 id 순서로 정렬, 없는 id 는 제외
+     */
+    public static List<Item> inRequestedOrder(Collection<Long> ids, Collection<Item> items) {
+        Map<Long, Item> byId = new HashMap<>();
+        for (Item item : items) {
+            byId.put(item.getId(), item);
+        }
+        List<Item> ordered = new ArrayList<>(byId.size());
+        for (Long id : distinct(ids)) {
+            Item item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
+            }
+        }
+        return ordered;
+    }
+}
@@ -1,12 +1,20 @@
 package hello.itemservice.repository;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public interface ItemRepository {
 
+    int SCAN_PAGE_SIZE = 1000;
+
     Item save(Item item);
 
     void update(Long itemId, ItemUpdateDto updateParam);
@@ -15,4 +23,88 @@ public interface ItemRepository {
 
     List<Item> findAll(ItemSearchCond cond);
 
+    /**
+     * 목록 화면용 읽기 전용 조회(findAll 과 같은 조건)
+     - 기본 구현은 findAll 결과를 변환, 데이터베이스 저장소는 조회 결과에서 바로 ItemView 생성(생성자 프로젝션)
+     */
+    default List<ItemView> findAllViews(ItemSearchCond cond) {
+        return findAll(cond).stream()
+                .map(ItemView::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 검색 조건에 맞는 상품 중 id 가 afterId 보다 큰 상품을 id 순으로 최대 limit 개 조회(keyset 페이지)
+     - afterId 가 null 이면 처음부터, 다음 페이지는 마지막 상품의 id 로 조회 -> offset 처럼 앞의 행을 건너뛰며 읽지 않음
+     - 기본 구현은 findAll 결과에서 고름 -> 데이터베이스 저장소는 where id > ? order by id limit ? 쿼리로 조회
+     */
+    default List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        return findAll(cond).stream()
+                .filter(item -> afterId == null || item.getId() > afterId)
+                .sorted(Comparator.comparing(Item::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 검색 조건에 맞는 상품을 id 순으로 한 건씩 consumer 에 전달(내보내기용)
+     - 결과를 목록으로 모으지 않음 -> 메모리 사용량이 전체 상품 수와 무관
+     - 기본 구현은 findPage 로 SCAN_PAGE_SIZE 개씩 이어서 조회
+     - JdbcTemplateItemRepositoryV3, MyBatis, JPA(V1) 저장소는 하나의 쿼리 결과를 커서로 읽음(fetchSize 단위로 가져옴)
+     */
+    default void scan(ItemSearchCond cond, Consumer<Item> consumer) {
+        Long afterId = null;
+        List<Item> page;
+        do {
+            page = findPage(cond, afterId, SCAN_PAGE_SIZE);
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == SCAN_PAGE_SIZE);
+    }
+
+    /**
+     * 상품명(item_name)을 키로 저장하거나 수정(upsert) -> 가져오기(ItemImporter)용
+     - 같은 이름의 상품이 있으면 가격, 수량을 수정하고 없으면 새로 저장
+     - items 안에 같은 이름이 여러 번 있으면 마지막 값이 남음
+     - 기본 구현은 상품마다 이름으로 조회(EXACT) 후 update 또는 save
+     - 데이터베이스 저장소는 묶어서 처리(JDBC 배치 MERGE, MyBatis BATCH 실행기, JPA 변경 감지 + flush)
+     * @return 처리한 상품 수
+     */
+    default int upsertAll(Collection<Item> items) {
+        for (Item item : items) {
+            List<Item> found = findAll(new ItemSearchCond(item.getItemName(), null, MatchMode.EXACT));
+            if (found.isEmpty()) {
+                save(new Item(item.getItemName(), item.getPrice(), item.getQuantity()));
+            }
+            for (Item existing : found) {
+                update(existing.getId(), new ItemUpdateDto(item.getItemName(), item.getPrice(), item.getQuantity()));
+            }
+        }
+        return items.size();
+    }
+
+    /**
+     * 여러 id 를 한 번에 조회, 결과는 요청한 id 순서(없는 id 는 제외, 중복 id 는 한 번)
+     - 기본 구현은 findById 반복 -> 메모리 저장소는 맵 조회이므로 그대로 사용
+     - 데이터베이스 저장소는 IN 목록으로 묶어서 조회(ItemIdBatches)
+     */
+    default List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>();
+        for (Long id : ItemIdBatches.distinct(ids)) {
+            findById(id).ifPresent(items::add);
+        }
+        return items;
+    }
+
+    /**
+     * 검색 조건에 맞는 상품 집계
+     - 기본 구현은 findAll 로 상품을 모두 조회한 뒤 계산
+     - 데이터베이스 저장소는 집계 쿼리로, 메모리 저장소는 저장/수정시 갱신한 값으로 계산 -> 상품을 메모리로 가져오지 않음
+     */
+    default ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return ItemStats.of(findAll(cond), bucketSize);
+    }
+
 }
@@ -1,12 +1,14 @@
 package hello.itemservice.repository;
 
 import lombok.Data;
+import org.springframework.util.StringUtils;
 
 @Data
 public class ItemSearchCond {
 
     private String itemName;
     private Integer maxPrice;
+    private MatchMode matchMode = MatchMode.CONTAINS;
 
     public ItemSearchCond() {
     }
@@ -15,4 +17,24 @@ public class ItemSearchCond {
         this.itemName = itemName;
         this.maxPrice = maxPrice;
     }
+
+    public ItemSearchCond(String itemName, Integer maxPrice, MatchMode matchMode) {
+        this.itemName = itemName;
+        this.maxPrice = maxPrice;
+        this.matchMode = matchMode;
+    }
+
+    /**
+     * 검색 화면에서 선택하지 않으면(null) 기존과 같이 CONTAINS
+     */
+    public MatchMode getMatchMode() {
+        return matchMode == null ? MatchMode.CONTAINS : matchMode;
+    }
+
+    /**
+     * matchMode 에 맞춘 LIKE 패턴 -> JdbcTemplate, MyBatis 에서 파라미터로 사용
+     */
+    public String getItemNamePattern() {
+        return StringUtils.hasText(itemName) ? getMatchMode().pattern(itemName) : null;
+    }
 }
@@ -0,0 +1,102 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 상품 집계 결과
+ - count : 상품 수
+ - totalValue : 재고 금액 합계(sum(price * quantity)), long 으로 계산해서 int 범위를 넘어도 됨
+ - minPrice, maxPrice : 가격이 있는 상품이 없으면 null
+ - histogram : 가격 구간 시작값(price / bucketSize * bucketSize) -> 상품 수, 가격이 없는 상품은 제외
+ */
+@Getter
+@ToString
+public class ItemStats {
+
+    private final long count;
+    private final long totalValue;
+    private final Integer minPrice;
+    private final Integer maxPrice;
+    private final int bucketSize;
+    private final SortedMap<Integer, Long> histogram;
+
+    public ItemStats(long count, long totalValue, Integer minPrice, Integer maxPrice, int bucketSize, Map<Integer, Long> histogram) {
+        this.count = count;
+        this.totalValue = totalValue;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.bucketSize = bucketSize;
+        this.histogram = new TreeMap<>(histogram);
+    }
+
+    /**
+     * 조회한 상품으로 직접 계산 -> 집계 쿼리를 지원하지 않는 저장소의 기본 구현
+     */
+    public static ItemStats of(Collection<Item> items, int bucketSize) {
+        checkBucketSize(bucketSize);
+        long totalValue = 0;
+        Integer minPrice = null;
+        Integer maxPrice = null;
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (Item item : items) {
+            Integer price = item.getPrice();
+            if (price == null) {
+                continue;
+            }
+            if (item.getQuantity() != null) {
+                totalValue += (long) price * item.getQuantity();
+            }
+            minPrice = minPrice == null ? price : Math.min(minPrice, price);
+            maxPrice = maxPrice == null ? price : Math.max(maxPrice, price);
+            histogram.merge(bucketOf(price, bucketSize), 1L, Long::sum);
+        }
+        return new ItemStats(items.size(), totalValue, minPrice, maxPrice, bucketSize, histogram);
+    }
+
+    /**
+     * 나누어 계산한 집계를 합침(샤드별 집계 등) -> 같은 bucketSize 로 계산한 집계만 합칠 수 있음
+     */
+    public static ItemStats merge(Collection<ItemStats> parts, int bucketSize) {
+        checkBucketSize(bucketSize);
+        long count = 0;
+        long totalValue = 0;
+        Integer minPrice = null;
+        Integer maxPrice = null;
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (ItemStats part : parts) {
+            if (part.bucketSize != bucketSize) {
+                throw new IllegalArgumentException("bucketSize 가 다른 집계 bucketSize = " + part.bucketSize + ", expected = " + bucketSize);
+            }
+            count += part.count;
+            totalValue += part.totalValue;
+            if (part.minPrice != null) {
+                minPrice = minPrice == null ? part.minPrice : Math.min(minPrice, part.minPrice);
+            }
+            if (part.maxPrice != null) {
+                maxPrice = maxPrice == null ? part.maxPrice : Math.max(maxPrice, part.maxPrice);
+            }
+            part.histogram.forEach((bucket, bucketCount) -> histogram.merge(bucket, bucketCount, Long::sum));
+        }
+        return new ItemStats(count, totalValue, minPrice, maxPrice, bucketSize, histogram);
+    }
+
+    /**
+     * 가격 구간 시작값 -> SQL 의 price / bucketSize * bucketSize 와 같은 값(정수 나눗셈)
+     */
+    public static int bucketOf(int price, int bucketSize) {
+        return price / bucketSize * bucketSize;
+    }
+
+    public static void checkBucketSize(int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("bucketSize 는 1 이상이어야 함 bucketSize = " + bucketSize);
+        }
+    }
+}
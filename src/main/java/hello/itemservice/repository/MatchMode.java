@@ -0,0 +1,74 @@
+package hello.itemservice.repository;
+
+import java.util.Locale;
+
+/**
+ * 상품명 검색 방식
+ - EXACT : 이름이 같은 상품 -> item_name = ? (인덱스 동등 조회)
+ - PREFIX : 이름이 검색어로 시작하는 상품 -> item_name like '검색어%' (인덱스 범위 조회)
+ - CONTAINS : 이름에 검색어가 포함된 상품(기본값) -> item_name like '%검색어%' (앞이 '%' 이므로 인덱스를 쓰지 못하고 전체 조회)
+ - IGNORE_CASE : 대소문자 구분 없이 검색어로 시작하는 상품 -> 소문자로 저장해 둔 item_name_lower 컬럼에 like '검색어%' (인덱스 범위 조회)
+ -> lower(item_name) like ? 처럼 컬럼에 함수를 적용하면 인덱스를 쓰지 못하므로 정규화한 컬럼을 따로 둠
+
+ * LIKE 패턴의 '%', '_' 는 '\' 로 이스케이프 -> 검색어에 포함된 특수 문자를 글자 그대로 비교
+ */
+public enum MatchMode {
+
+    EXACT, PREFIX, CONTAINS, IGNORE_CASE;
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * 검색어를 LIKE 패턴으로 변환(EXACT 는 검색어 그대로)
+     */
+    public String pattern(String keyword) {
+        switch (this) {
+            case EXACT:
+                return keyword;
+            case PREFIX:
+                return escape(keyword) + "%";
+            case IGNORE_CASE:
+                return escape(normalize(keyword)) + "%";
+            default:
+                return "%" + escape(keyword) + "%";
+        }
+    }
+
+    /**
+     * 메모리 저장소에서 사용하는 비교 -> pattern() 으로 만든 LIKE 조건과 같은 결과
+     */
+    public boolean matches(String itemName, String keyword) {
+        if (itemName == null) {
+            return false;
+        }
+        switch (this) {
+            case EXACT:
+                return itemName.equals(keyword);
+            case PREFIX:
+                return itemName.startsWith(keyword);
+            case IGNORE_CASE:
+                return normalize(itemName).startsWith(normalize(keyword));
+            default:
+                return itemName.contains(keyword);
+        }
+    }
+
+    /**
+     * item_name_lower 컬럼과 같은 정규화(소문자)
+     */
+    public static String normalize(String itemName) {
+        return itemName == null ? null : itemName.toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String keyword) {
+        StringBuilder escaped = new StringBuilder(keyword.length() + 4);
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package hello.itemservice.repository;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 현재 스레드 요청의 마감 시간(System.nanoTime() 기준)
+ - 요청 단위로 RequestDeadlineInterceptor 가 설정하고 핸들러 실행이 끝나면 해제(ReadYourWrites 와 같은 방식)
+ - 저장소는 남은 시간을 쿼리 타임아웃으로 사용 -> 데이터베이스가 쿼리를 취소하고 연결을 돌려줌
+ - JdbcTemplate : DeadlineJdbcTemplate, MyBatis : DeadlineStatementInterceptor, JPA : javax.persistence.query.timeout(RequestDeadlineConfig)
+ - 메모리 저장소 : 검색 중 일정 행마다 check() -> 지나면 중단
+ - 다른 스레드에서 실행하는 조회(샤드 동시 조회)는 propagate 로 같은 마감 시간을 넘겨줌
+ - 마감 시간이 지나면 QueryTimeoutException(스프링 데이터 접근 예외) -> 504 응답(QueryTimeoutAdvice)
+
+ * JDBC 쿼리 타임아웃은 초 단위 -> 남은 시간을 올림해서 사용(남은 시간이 300ms 이면 1초)
+ */
+public abstract class RequestDeadline {
+
+    //메모리 검색에서 마감 시간을 확인하는 간격(행 수) -> System.nanoTime() 호출 비용을 나눔
+    public static final int CHECK_ROWS = 4096;
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    /**
+     * 이미 마감 시간이 있으면 더 이른 쪽 유지
+     */
+    public static void start(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Long current = DEADLINE.get();
+        if (current == null || deadline - current < 0) {
+            DEADLINE.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * @return 마감 시간(System.nanoTime() 기준), 없으면 null
+     */
+    public static Long get() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * @return 남은 시간(밀리초), 마감 시간이 없으면 -1
+     * @throws QueryTimeoutException 마감 시간이 지남
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return -1;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw expired();
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    /**
+     * 설정된 쿼리 타임아웃(초, 0 이하면 없음)과 남은 시간 중 짧은 쪽
+     * @return 쿼리 타임아웃(초), 둘 다 없으면 configuredSeconds 그대로
+     */
+    public static int queryTimeoutSeconds(int configuredSeconds) {
+        long remainingMillis = remainingMillis();
+        if (remainingMillis < 0) {
+            return configuredSeconds;
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000);
+        return configuredSeconds > 0 ? Math.min(configuredSeconds, seconds) : seconds;
+    }
+
+    /**
+     * 마감 시간이 지났으면 QueryTimeoutException(메모리 검색 등 협조적 취소)
+     */
+    public static void check() {
+        check(DEADLINE.get());
+    }
+
+    /**
+     * 다른 스레드(병렬 검색)에서 요청 스레드의 마감 시간으로 확인
+     */
+    public static void check(Long deadline) {
+        if (deadline != null && deadline - System.nanoTime() <= 0) {
+            throw expired();
+        }
+    }
+
+    /**
+     * 현재 스레드의 마감 시간을 실행할 스레드에 넘겨줌, 실행이 끝나면 실행한 스레드의 원래 값으로 되돌림
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Long previous = DEADLINE.get();
+            DEADLINE.set(deadline);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    DEADLINE.remove();
+                } else {
+                    DEADLINE.set(previous);
+                }
+            }
+        };
+    }
+
+    private static QueryTimeoutException expired() {
+        return new QueryTimeoutException("요청 처리 시간 초과(request deadline)");
+    }
+}
@@ -0,0 +1,29 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.repository.RequestDeadline;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 요청 마감 시간(RequestDeadline)을 쿼리 타임아웃으로 적용하는 JdbcTemplate
+ - setQueryTimeout 으로 지정한 값(또는 트랜잭션 타임아웃)과 남은 시간 중 짧은 쪽 사용
+ - 마감 시간이 이미 지났으면 쿼리를 보내지 않고 QueryTimeoutException
+ - 마감 시간이 없으면 JdbcTemplate 과 같음
+ */
+public class DeadlineJdbcTemplate extends JdbcTemplate {
+
+    public DeadlineJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        if (RequestDeadline.get() != null) {
+            stmt.setQueryTimeout(RequestDeadline.queryTimeoutSeconds(stmt.getQueryTimeout()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 여러 샤드에서 겹치지 않는 상품 id 발급(hi/lo)
+ - 데이터베이스 시퀀스(item_id_block_seq)에서 블록 번호를 받고, 블록 안의 id(block * blockSize ~ + blockSize - 1)는 메모리에서 발급
+ -> id 마다 데이터베이스에 가지 않고, 애플리케이션이 여러 대여도 서로 다른 블록을 받으므로 겹치지 않음
+ - 재시작하면 쓰지 않은 블록의 나머지 id 는 버려짐 -> id 는 증가하지만 연속이 아님
+ */
+public class ItemIdAllocator {
+
+    private final JdbcTemplate template;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public ItemIdAllocator(DataSource dataSource, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize 는 1 이상이어야 함 blockSize = " + blockSize);
+        }
+        this.template = new JdbcTemplate(dataSource);
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long nextId() {
+        if (next == limit) {
+            Long block = template.queryForObject("select next value for item_id_block_seq", Long.class);
+            next = block * blockSize;
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+}
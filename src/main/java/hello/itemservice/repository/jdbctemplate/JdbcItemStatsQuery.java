@@ -0,0 +1,57 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JdbcTemplate 저장소(V1 ~ V3) 공통 집계 쿼리
+ - count, sum, min, max 를 한 번, 가격 구간별 상품 수를 group by 로 한 번 조회 -> 상품 row 를 애플리케이션으로 가져오지 않음
+ - price * quantity 는 bigint 로 변환 후 계산 -> int 범위를 넘는 재고 금액도 계산 가능
+ */
+class JdbcItemStatsQuery {
+
+    private JdbcItemStatsQuery() {
+    }
+
+    static ItemStats aggregate(NamedParameterJdbcTemplate template, ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+
+        MapSqlParameterSource param = new MapSqlParameterSource();
+        String where = "";
+        if (StringUtils.hasText(cond.getItemName())) {
+            where += " where" + JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
+            param.addValue("itemNamePattern", cond.getItemNamePattern());
+        }
+        if (cond.getMaxPrice() != null) {
+            where += (where.isEmpty() ? " where" : " and") + " price <= :maxPrice";
+            param.addValue("maxPrice", cond.getMaxPrice());
+        }
+
+        String sql = "select count(*) as cnt, sum(cast(price as bigint) * quantity) as total_value," +
+                     " min(price) as min_price, max(price) as max_price from item" + where;
+        ItemStats totals = template.queryForObject(sql, param, (rs, rowNum) -> new ItemStats(
+                rs.getLong("cnt"),
+                rs.getLong("total_value"),     //null(조건에 맞는 상품 없음) -> 0
+                rs.getObject("min_price", Integer.class),
+                rs.getObject("max_price", Integer.class),
+                bucketSize, Map.of()));
+
+        //구간 식은 select, group by 에 같은 식으로 들어가야 하므로 파라미터 대신 검증된 숫자를 직접 작성
+        String bucket = "price / " + bucketSize + " * " + bucketSize;
+        String histogramSql = "select " + bucket + " as bucket, count(*) as cnt from item" + where +
+                              (where.isEmpty() ? " where" : " and") + " price is not null group by " + bucket;
+        Map<Integer, Long> histogram = new TreeMap<>();
+        template.query(histogramSql, param, rs -> {
+            histogram.put(rs.getInt("bucket"), rs.getLong("cnt"));
+        });
+
+        return new ItemStats(totals.getCount(), totals.getTotalValue(), totals.getMinPrice(), totals.getMaxPrice(),
+                bucketSize, histogram);
+    }
+}
@@ -0,0 +1,35 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JdbcTemplate 저장소(V1 ~ V3) 공통 upsert
+ - 상품명(item_name)으로 MERGE -> 같은 이름의 상품은 가격, 수량 수정, 없으면 새로 저장
+ - 상품마다 같은 SQL 을 JDBC 배치(addBatch/executeBatch)로 한 번에 실행
+ - 대상 행이 여러 개여도 되도록 MERGE INTO ... USING 사용(MERGE ... KEY 는 키가 같은 행이 둘 이상이면 오류)
+ */
+class JdbcItemUpsert {
+
+    static final String MERGE_SQL = "merge into item t" +
+            " using (select cast(? as varchar(10)) as item_name, cast(? as integer) as price, cast(? as integer) as quantity) s" +
+            " on (t.item_name = s.item_name)" +
+            " when matched then update set price = s.price, quantity = s.quantity" +
+            " when not matched then insert (item_name, price, quantity) values (s.item_name, s.price, s.quantity)";
+
+    private JdbcItemUpsert() {
+    }
+
+    static int upsertAll(JdbcTemplate template, Collection<Item> items) {
+        List<Object[]> batch = new ArrayList<>(items.size());
+        for (Item item : items) {
+            batch.add(new Object[]{item.getItemName(), item.getPrice(), item.getQuantity()});
+        }
+        template.batchUpdate(MERGE_SQL, batch);
+        return batch.size();
+    }
+}
@@ -1,13 +1,18 @@
 package hello.itemservice.repository.jdbctemplate;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -16,6 +21,8 @@ import org.springframework.util.StringUtils;
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,7 +41,7 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
      -> 물론 jdbcTemplate 을 스프링 빈으로 직접 등록하고 주입받아도 됨
      */
     public JdbcTemplateItemRepositoryV1(DataSource dataSource) {
-        this.template = new JdbcTemplate(dataSource);
+        this.template = new DeadlineJdbcTemplate(dataSource);   //요청 마감 시간을 쿼리 타임아웃으로 적용
     }
 
     /**
@@ -83,7 +90,51 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         }
     }
 
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        String sql = "select id, item_name, price, quantity from item where id > ?";
+        List<Object> param = new ArrayList<>();
+        param.add(afterId == null ? 0L : afterId);
+        if(StringUtils.hasText(cond.getItemName())) {
+            sql += " and" + itemNameCondition(cond.getMatchMode(), "?");
+            param.add(cond.getItemNamePattern());
+        }
+        if(cond.getMaxPrice() != null) {
+            sql += " and price <= ?";
+            param.add(cond.getMaxPrice());
+        }
+        sql += " order by id limit ?";
+        param.add(limit);
+        return template.query(sql, itemRowMapper(), param.toArray());
+    }
+
+    /**
+     * IN 목록으로 묶어서 조회, 묶음 크기는 ItemIdBatches 로 맞춤 -> 같은 개수의 '?' 를 가진 SQL 만 사용
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>();
+        for (List<Long> batch : ItemIdBatches.split(ids)) {
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            String sql = "select id, item_name, price, quantity from item where id in (" + placeholders + ")";
+            items.addAll(template.query(sql, itemRowMapper(), batch.toArray()));
+        }
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
     public List<Item> findAll(ItemSearchCond cond) {
+        return findAll(cond, itemRowMapper());
+    }
+
+    /**
+     * 목록 화면용 -> 컬럼 순서(index)로 바로 ItemView 생성(JdbcTemplateItemRepositoryV1.itemViewRowMapper)
+     */
+    @Override
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return findAll(cond, itemViewRowMapper());
+    }
+
+    private <T> List<T> findAll(ItemSearchCond cond, RowMapper<T> rowMapper) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
 
@@ -96,8 +147,8 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         boolean andFlag = false;
         List<Object> param = new ArrayList<>();
         if(StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%', ?, '%')";
-            param.add(itemName);
+            sql += itemNameCondition(cond.getMatchMode(), "?");
+            param.add(cond.getItemNamePattern());
             andFlag = true;
         }
 
@@ -110,7 +161,43 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         }
 
         log.info("sql = {}", sql);
-        return template.query(sql, itemRowMapper(), param.toArray());
+        return template.query(sql, rowMapper, param.toArray());
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JdbcItemUpsert.upsertAll(template, items);
+    }
+
+    /**
+     * 집계는 count, sum 등 집계 쿼리로 처리(JdbcItemStatsQuery)
+     */
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return JdbcItemStatsQuery.aggregate(new NamedParameterJdbcTemplate(template), cond, bucketSize);
+    }
+
+    /**
+     * 검색 방식별 상품명 조건
+     - EXACT, PREFIX, IGNORE_CASE 는 인덱스(item_name, item_name_lower)를 사용할 수 있는 형태로 작성
+     */
+    static String itemNameCondition(MatchMode matchMode, String param) {
+        switch (matchMode) {
+            case EXACT:
+                return " item_name = " + param;
+            case IGNORE_CASE:
+                return " item_name_lower like " + param + " escape '" + MatchMode.LIKE_ESCAPE + "'";
+            default:
+                return " item_name like " + param + " escape '" + MatchMode.LIKE_ESCAPE + "'";
+        }
+    }
+
+    /**
+     * select id, item_name, price, quantity 순서의 결과 -> 컬럼 이름으로 찾지 않고 index 로 읽음
+     - getLong, getInt 는 null 을 0 으로 반환 -> 박싱 객체를 만들지 않음
+     */
+    static RowMapper<ItemView> itemViewRowMapper() {
+        return (rs, rowNum) -> new ItemView(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4));
     }
 
     private RowMapper<Item> itemRowMapper() {
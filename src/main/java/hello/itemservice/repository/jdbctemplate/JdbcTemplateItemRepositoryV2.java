@@ -1,8 +1,11 @@
 package hello.itemservice.repository.jdbctemplate;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -18,6 +21,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -59,7 +64,7 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
      -> 물론 NamedParameterJdbcTemplate 을 스프링 빈으로 직접 등록하고 주입받아도 됨
      */
     public JdbcTemplateItemRepositoryV2(DataSource dataSource) {
-        this.template = new NamedParameterJdbcTemplate(dataSource);
+        this.template = new NamedParameterJdbcTemplate(new DeadlineJdbcTemplate(dataSource));  //요청 마감 시간을 쿼리 타임아웃으로 적용
     }
 
     /**
@@ -71,7 +76,7 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
 
         SqlParameterSource param = new BeanPropertySqlParameterSource(item);
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        template.update(sql, param, keyHolder);
+        template.update(sql, param, keyHolder, new String[]{"id"});   //생성 컬럼(item_name_lower)은 키에서 제외
 
         long key = keyHolder.getKey().longValue();
         item.setId(key);
@@ -108,11 +113,56 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         }
     }
 
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("afterId", afterId == null ? 0L : afterId)
+                .addValue("itemNamePattern", cond.getItemNamePattern())
+                .addValue("maxPrice", cond.getMaxPrice())
+                .addValue("limit", limit);
+
+        String sql = "select id, item_name, price, quantity from item where id > :afterId";
+        if(StringUtils.hasText(cond.getItemName())) {
+            sql += " and" + JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
+        }
+        if(cond.getMaxPrice() != null) {
+            sql += " and price <= :maxPrice";
+        }
+        sql += " order by id limit :limit";
+        return template.query(sql, param, itemRowMapper());
+    }
+
+    /**
+     * 컬렉션 파라미터는 NamedParameterJdbcTemplate 이 IN 목록(?, ?, ...)으로 펼침
+     - 묶음 크기는 ItemIdBatches 로 맞춤 -> 같은 개수의 '?' 를 가진 SQL 만 사용
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        String sql = "select id, item_name, price, quantity from item where id in (:ids)";
+        List<Item> items = new ArrayList<>();
+        for (List<Long> batch : ItemIdBatches.split(ids)) {
+            items.addAll(template.query(sql, Map.of("ids", batch), itemRowMapper()));
+        }
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
     public List<Item> findAll(ItemSearchCond cond) {
+        return findAll(cond, itemRowMapper());
+    }
+
+    /**
+     * 목록 화면용 -> 컬럼 순서(index)로 바로 ItemView 생성(JdbcTemplateItemRepositoryV1.itemViewRowMapper)
+     */
+    @Override
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return findAll(cond, JdbcTemplateItemRepositoryV1.itemViewRowMapper());
+    }
+
+    private <T> List<T> findAll(ItemSearchCond cond, RowMapper<T> rowMapper) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
 
-        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
+        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);    //itemNamePattern -> cond.getItemNamePattern()
 
         String sql = "select id, item_name, price, quantity from item";
         //동적쿼리
@@ -122,7 +172,7 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
 
         boolean andFlag = false;
         if(StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%', :itemName, '%')";
+            sql += JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
             andFlag = true;
         }
 
@@ -134,7 +184,20 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         }
 
         log.info("sql = {}", sql);
-        return template.query(sql, param, itemRowMapper());
+        return template.query(sql, param, rowMapper);
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JdbcItemUpsert.upsertAll(template.getJdbcTemplate(), items);
+    }
+
+    /**
+     * 집계는 count, sum 등 집계 쿼리로 처리(JdbcItemStatsQuery)
+     */
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return JdbcItemStatsQuery.aggregate(template, cond, bucketSize);
     }
 
     private RowMapper<Item> itemRowMapper() {
@@ -1,12 +1,16 @@
 package hello.itemservice.repository.jdbctemplate;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -17,9 +21,12 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * SimpleJdbcInsert
@@ -28,7 +35,10 @@ import java.util.Optional;
 @Repository
 public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
 
+    private static final int SCAN_FETCH_SIZE = 500;
+
     private final NamedParameterJdbcTemplate template;
+    private final NamedParameterJdbcTemplate scanTemplate;
     private final SimpleJdbcInsert jdbcInsert;
 
     /**
@@ -37,8 +47,11 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
      -> 물론 SimpleJdbcInsert 을 스프링 빈으로 직접 등록하고 주입받아도 됨
      */
     public JdbcTemplateItemRepositoryV3(DataSource dataSource) {
-        this.template = new NamedParameterJdbcTemplate(dataSource);
-        this.jdbcInsert = new SimpleJdbcInsert(dataSource)
+        this.template = new NamedParameterJdbcTemplate(new DeadlineJdbcTemplate(dataSource));  //요청 마감 시간을 쿼리 타임아웃으로 적용
+        JdbcTemplate scanJdbcTemplate = new DeadlineJdbcTemplate(dataSource);
+        scanJdbcTemplate.setFetchSize(SCAN_FETCH_SIZE);    //scan 전용 -> 다른 쿼리의 fetchSize 는 드라이버 기본값 유지
+        this.scanTemplate = new NamedParameterJdbcTemplate(scanJdbcTemplate);
+        this.jdbcInsert = new SimpleJdbcInsert(template.getJdbcTemplate())   //저장도 같은 쿼리 타임아웃 적용
                 .withTableName("item")                                          //데이터를 저장할 테이블 명을 지정
                 .usingGeneratedKeyColumns("id")                   //key 를 생성하는 PK 컬럼 명을 지정
                 .usingColumns("item_name", "price", "quantity");  //INSERT SQL 에 사용할 특정 컬럼 지정, 생략 가능
@@ -78,11 +91,81 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
         }
     }
 
+    /**
+     * 하나의 쿼리 결과를 커서로 읽으면서 행마다 consumer 호출(RowCallbackHandler)
+     - 드라이버는 fetchSize 개씩 가져오고, 결과를 목록으로 모으지 않음
+     */
+    @Override
+    public void scan(ItemSearchCond cond, Consumer<Item> consumer) {
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("itemNamePattern", cond.getItemNamePattern())
+                .addValue("maxPrice", cond.getMaxPrice());
+
+        String sql = "select id, item_name, price, quantity from item where 1 = 1";
+        if(StringUtils.hasText(cond.getItemName())) {
+            sql += " and" + JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
+        }
+        if(cond.getMaxPrice() != null) {
+            sql += " and price <= :maxPrice";
+        }
+        sql += " order by id";
+
+        RowMapper<Item> rowMapper = itemRowMapper();
+        scanTemplate.query(sql, param, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("afterId", afterId == null ? 0L : afterId)
+                .addValue("itemNamePattern", cond.getItemNamePattern())
+                .addValue("maxPrice", cond.getMaxPrice())
+                .addValue("limit", limit);
+
+        String sql = "select id, item_name, price, quantity from item where id > :afterId";
+        if(StringUtils.hasText(cond.getItemName())) {
+            sql += " and" + JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
+        }
+        if(cond.getMaxPrice() != null) {
+            sql += " and price <= :maxPrice";
+        }
+        sql += " order by id limit :limit";
+        return template.query(sql, param, itemRowMapper());
+    }
+
+    /**
+     * 컬렉션 파라미터는 NamedParameterJdbcTemplate 이 IN 목록(?, ?, ...)으로 펼침
+     - 묶음 크기는 ItemIdBatches 로 맞춤 -> 같은 개수의 '?' 를 가진 SQL 만 사용
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        String sql = "select id, item_name, price, quantity from item where id in (:ids)";
+        List<Item> items = new ArrayList<>();
+        for (List<Long> batch : ItemIdBatches.split(ids)) {
+            items.addAll(template.query(sql, Map.of("ids", batch), itemRowMapper()));
+        }
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
     public List<Item> findAll(ItemSearchCond cond) {
+        return findAll(cond, itemRowMapper());
+    }
+
+    /**
+     * 목록 화면용 -> 컬럼 순서(index)로 바로 ItemView 생성(JdbcTemplateItemRepositoryV1.itemViewRowMapper)
+     */
+    @Override
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return findAll(cond, JdbcTemplateItemRepositoryV1.itemViewRowMapper());
+    }
+
+    private <T> List<T> findAll(ItemSearchCond cond, RowMapper<T> rowMapper) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
 
-        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
+        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);    //itemNamePattern -> cond.getItemNamePattern()
 
         String sql = "select id, item_name, price, quantity from item";
         //동적쿼리
@@ -92,7 +175,7 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
 
         boolean andFlag = false;
         if(StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%', :itemName, '%')";
+            sql += JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
             andFlag = true;
         }
 
@@ -104,7 +187,20 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
         }
 
         log.info("sql = {}", sql);
-        return template.query(sql, param, itemRowMapper());
+        return template.query(sql, param, rowMapper);
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JdbcItemUpsert.upsertAll(template.getJdbcTemplate(), items);
+    }
+
+    /**
+     * 집계는 count, sum 등 집계 쿼리로 처리(JdbcItemStatsQuery)
+     */
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return JdbcItemStatsQuery.aggregate(template, cond, bucketSize);
     }
 
     private RowMapper<Item> itemRowMapper() {
@@ -0,0 +1,351 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ItemReplica;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 데이터베이스 + 메모리 복제본 저장소
+ - 상품 테이블 전체를 메모리 복제본(ItemReplica)에 올리고 조회(findById, findAll, findAllViews, findPage, findAllById, 집계)는 복제본에서 처리
+ - 변경은 데이터베이스(JdbcTemplateItemRepositoryV3)에 먼저 반영하고 성공하면 복제본에도 반영(write-through)
+ - upsertAll 은 이름으로 MERGE 하므로 id 를 모름 -> 처리한 이름의 행을 다시 조회해서 반영
+ - 수정은 커밋된 행을 다시 조회해서 반영, 다시 조회하고 복제본에 넣는 동안 같은 id 의 반영은 잠금(id 별 stripe)으로 순서대로
+ -> 같은 상품을 동시에 수정해도 마지막으로 반영하는 쪽이 가장 최근에 커밋된 값을 읽음(커밋 순서와 반영 순서가 달라도 이전 값이 남지 않음)
+ -> upsertAll 의 반영은 모든 id 의 반영을 막고 실행(writeThrough 쓰기 잠금)
+
+ * 시작(warming)
+ - min(id) ~ max(id) 를 loadChunkSize 단위 범위로 나누어 loadThreads 개 스레드가 동시에 읽음
+ - 다 읽기 전에는 조회를 데이터베이스로 보냄 -> 시작 직후에도 결과가 빠지지 않음
+ - 읽는 중에 변경된 상품은 write-through 로 들어온 값을 유지(putAllIfAbsent)
+ - 읽기에 실패하면 복제본을 비우고 loadRetryMillis 후 다시 시도, 그동안은 데이터베이스로 조회
+
+ * 일관성 검사(checkIntervalMillis, 0 이면 끔)
+ - 데이터베이스를 id 순 페이지로 읽어서 같은 범위의 복제본과 비교 -> 값이 다르거나, 한쪽에만 있는 상품을 셈
+ - 다르면 데이터베이스에서 한 번 더 조회한 값과 비교 -> 비교하는 사이의 write-through 를 불일치로 세지 않음
+ - repair = true 이면 복제본을 데이터베이스 값으로 고침(compareAndSet -> 그 사이 들어온 write-through 를 되돌리지 않음)
+ - 데이터베이스를 다른 인스턴스나 SQL 로 직접 변경하면 복제본은 다음 검사까지 이전 값을 반환
+ -> 이 저장소를 통한 변경만 있는 경우(단일 쓰기 인스턴스)에 사용, 검사는 어긋남을 찾고 되돌리는 안전장치
+ */
+@Slf4j
+public class ReplicatedItemRepository implements ItemRepository, Closeable {
+
+    private static final String COLUMNS = "select id, item_name, price, quantity from item";
+    private static final int CHECK_PAGE_SIZE = 10_000;
+    private static final int NAME_BATCH_SIZE = 128;
+    private static final int ID_LOCKS = 64;     //2의 거듭제곱
+
+    private final JdbcTemplateItemRepositoryV3 database;
+    private final NamedParameterJdbcTemplate template;
+    private final ItemReplica replica = new ItemReplica();
+    private final ReentrantReadWriteLock writeThrough = new ReentrantReadWriteLock();
+    private final Object[] idLocks = new Object[ID_LOCKS];
+    private final int loadThreads;
+    private final int loadChunkSize;
+    private final long loadRetryMillis;
+    private final boolean repair;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean ready;
+    private volatile Map<String, Object> lastLoad = Map.of();
+    private volatile Map<String, Object> lastCheck = Map.of();
+
+    private final LongAdder memoryReads = new LongAdder();
+    private final LongAdder databaseReads = new LongAdder();
+
+    public ReplicatedItemRepository(DataSource dataSource, int loadThreads, int loadChunkSize,
+                                    long loadRetryMillis, long checkIntervalMillis, boolean repair) {
+        this.database = new JdbcTemplateItemRepositoryV3(dataSource);
+        this.template = new NamedParameterJdbcTemplate(new DeadlineJdbcTemplate(dataSource));
+        this.loadThreads = Math.max(1, loadThreads);
+        this.loadChunkSize = Math.max(1, loadChunkSize);
+        this.loadRetryMillis = loadRetryMillis;
+        this.repair = repair;
+        for (int i = 0; i < ID_LOCKS; i++) {
+            idLocks[i] = new Object();
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::load);
+        if (checkIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::checkQuietly, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item saved = database.save(item);
+        replica.put(saved);
+        return saved;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        database.update(itemId, updateParam);
+        //아직 읽지 않은 범위여도 보관 -> 수정 전 값을 읽어 둔 로더가 덮어쓰지 않음(putAllIfAbsent)
+        writeThrough.readLock().lock();
+        try {
+            synchronized (idLocks[(int) (itemId & (ID_LOCKS - 1))]) {
+                database.findById(itemId).ifPresent(replica::put);
+            }
+        } finally {
+            writeThrough.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        int count = database.upsertAll(items);
+        Set<String> itemNames = new LinkedHashSet<>();
+        for (Item item : items) {
+            itemNames.add(item.getItemName());
+        }
+        List<String> batch = new ArrayList<>(NAME_BATCH_SIZE);
+        for (String itemName : itemNames) {
+            batch.add(itemName);
+            if (batch.size() == NAME_BATCH_SIZE) {
+                refreshByNames(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            refreshByNames(batch);
+        }
+        return count;
+    }
+
+    private void refreshByNames(List<String> itemNames) {
+        String sql = COLUMNS + " where item_name in (:itemNames)";
+        writeThrough.writeLock().lock();
+        try {
+            for (Item item : template.query(sql, Map.of("itemNames", itemNames), itemRowMapper())) {
+                replica.put(item);
+            }
+        } finally {
+            writeThrough.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        if (!ready) {
+            databaseReads.increment();
+            return database.findById(id);
+        }
+        memoryReads.increment();
+        return replica.findById(id);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        if (!ready) {
+            databaseReads.increment();
+            return database.findAll(cond);
+        }
+        memoryReads.increment();
+        return replica.findAll(cond);
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        if (!ready) {
+            databaseReads.increment();
+            return database.findPage(cond, afterId, limit);
+        }
+        memoryReads.increment();
+        return replica.findPage(cond, afterId, limit);
+    }
+
+    /**
+     * 복제본은 기본 구현(findById 반복)으로 충분, 읽는 중에는 데이터베이스 IN 목록 조회
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        if (!ready) {
+            databaseReads.increment();
+            return database.findAllById(ids);
+        }
+        return ItemRepository.super.findAllById(ids);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 시작할 때 한 번 실행(scheduler 스레드), 실패하면 loadRetryMillis 후 다시 실행
+     */
+    private void load() {
+        long startedAt = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        ExecutorService loaders = Executors.newFixedThreadPool(loadThreads, loaderThreadFactory());
+        try {
+            Map<String, Object> bounds = template.getJdbcTemplate().queryForMap("select min(id) as min_id, max(id) as max_id from item");
+            Number minId = (Number) bounds.get("min_id");
+            Number maxId = (Number) bounds.get("max_id");
+
+            List<Future<Integer>> chunks = new ArrayList<>();
+            if (minId != null) {
+                for (long start = minId.longValue(); start <= maxId.longValue(); start += loadChunkSize) {
+                    Map<String, Long> range = Map.of("from", start, "to", start + loadChunkSize);
+                    chunks.add(loaders.submit(() -> replica.putAllIfAbsent(template.query(
+                            COLUMNS + " where id >= :from and id < :to", range, itemRowMapper()))));
+                }
+            }
+            int loaded = 0;
+            for (Future<Integer> chunk : chunks) {
+                loaded += chunk.get();
+            }
+            ready = true;
+
+            result.put("chunks", chunks.size());
+            result.put("loaded", loaded);
+            result.put("size", replica.size());
+            result.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            log.info("item replica loaded {}", result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            //일부만 읽은 복제본은 버림 -> 읽는 동안 들어온 write-through 도 다음 읽기에 데이터베이스에서 다시 가져옴
+            replica.clear();
+            result.put("failed", e.toString());
+            log.warn("item replica load failed, retry after {}ms", loadRetryMillis, e);
+            scheduler.schedule(this::load, loadRetryMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            loaders.shutdownNow();
+        }
+        lastLoad = result;
+    }
+
+    private ThreadFactory loaderThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "item-replica-load-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 데이터베이스와 복제본을 id 순으로 비교(읽는 중이면 건너뜀)
+     * @return 비교 결과(검사한 행 수, 불일치 수, 고친 수)
+     */
+    public Map<String, Object> check() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!ready) {
+            result.put("skipped", "loading");
+            return result;
+        }
+        long start = System.nanoTime();
+        long checked = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        long afterId = Long.MIN_VALUE;
+        String sql = COLUMNS + " where id > :afterId order by id limit :limit";
+        while (true) {
+            List<Item> page = template.query(sql, Map.of("afterId", afterId, "limit", CHECK_PAGE_SIZE), itemRowMapper());
+            long toId = page.size() < CHECK_PAGE_SIZE ? Long.MAX_VALUE : page.get(page.size() - 1).getId();
+            NavigableMap<Long, Item> replicated = replica.findRange(afterId, toId);
+            for (Item item : page) {
+                checked++;
+                if (!item.equals(replicated.remove(item.getId()))) {
+                    int fixed = verify(item.getId());
+                    mismatched += fixed >= 0 ? 1 : 0;
+                    repaired += Math.max(0, fixed);
+                }
+            }
+            for (Long id : replicated.keySet()) {     //복제본에만 있는 상품
+                int fixed = verify(id);
+                mismatched += fixed >= 0 ? 1 : 0;
+                repaired += Math.max(0, fixed);
+            }
+            if (toId == Long.MAX_VALUE) {
+                break;
+            }
+            afterId = toId;
+        }
+
+        result.put("checked", checked);
+        result.put("mismatched", mismatched);
+        result.put("repaired", repaired);
+        result.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastCheck = result;
+        if (mismatched > 0) {
+            log.warn("item replica mismatch {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * 데이터베이스와 복제본의 현재 값을 다시 비교
+     * @return -1 이면 같음(비교하는 사이 write-through 로 맞춰짐), 0 이면 다름, 1 이면 다름 + 고침
+     */
+    private int verify(Long id) {
+        Item current = replica.findById(id).orElse(null);
+        Item stored = database.findById(id).orElse(null);
+        if (Objects.equals(current, stored)) {
+            return -1;
+        }
+        log.warn("item replica mismatch id = {}, replica = {}, database = {}", id, current, stored);
+        return repair && replica.compareAndSet(id, current, stored) ? 1 : 0;
+    }
+
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            log.warn("item replica check failed", e);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("ready", ready);
+        snapshot.put("size", replica.size());
+        snapshot.put("memoryReads", memoryReads.sum());
+        snapshot.put("databaseReads", databaseReads.sum());
+        snapshot.put("lastLoad", lastLoad);
+        snapshot.put("lastCheck", lastCheck);
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private RowMapper<Item> itemRowMapper() {
+        return BeanPropertyRowMapper.newInstance(Item.class);
+    }
+}
@@ -0,0 +1,283 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIdBatches;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.RequestDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 상품을 id 해시로 여러 데이터베이스(샤드)에 나누어 저장하는 저장소
+ - save : ItemIdAllocator 로 전체 샤드에서 겹치지 않는 id 를 발급하고, id 해시로 정한 샤드에 저장
+ - update, findById : id 로 샤드를 계산해서 해당 샤드만 조회
+ - findAll, findPage, aggregate : 모든 샤드에 동시에 조회(scatter)하고 결과를 합침(gather)
+ - findAllById : id 를 샤드별로 나누어 해당 샤드에만 동시에 조회
+
+ * 샤드 응답 시간 제한(timeoutMillis)
+ - 동시에 보낸 조회는 모두 같은 마감 시간까지 기다리고, 하나라도 넘으면 나머지를 취소하고 QueryTimeoutException
+ - 요청 마감 시간(RequestDeadline)이 더 이르면 그 시간까지만 기다리고, 샤드 조회 스레드에도 넘겨서 쿼리 타임아웃으로 사용
+ - 데이터베이스에도 같은 제한으로 쿼리 타임아웃 설정 -> 취소된 쿼리가 샤드에 계속 남지 않도록
+ -> 일부 샤드만의 결과를 전체 결과처럼 반환하지 않음
+
+ * 샤드 수를 바꾸면 id 와 샤드의 대응이 바뀌므로 기존 데이터를 다시 나누어 옮겨야 함
+ */
+@Slf4j
+public class ShardedItemRepository implements ItemRepository, Closeable {
+
+    private static final String COLUMNS = "select id, item_name, price, quantity from item";
+
+    private final List<NamedParameterJdbcTemplate> shards;
+    private final ItemIdAllocator idAllocator;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public ShardedItemRepository(List<DataSource> dataSources, int idBlockSize, long timeoutMillis, int threads) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("샤드 데이터소스가 없음");
+        }
+        int queryTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999));
+        List<NamedParameterJdbcTemplate> templates = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            NamedParameterJdbcTemplate template = new NamedParameterJdbcTemplate(new DeadlineJdbcTemplate(dataSource));
+            template.getJdbcTemplate().setQueryTimeout(queryTimeoutSeconds);     //요청 마감 시간이 더 이르면 그 시간 사용
+            templates.add(template);
+        }
+        this.shards = List.copyOf(templates);
+        this.idAllocator = new ItemIdAllocator(dataSources.get(0), idBlockSize);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "item-shard-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * id 를 섞은(murmur3 fmix64) 값으로 샤드 선택 -> 블록 단위로 연속된 id 도 샤드에 고르게 나뉨
+     */
+    public int shardOf(long id) {
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shards.size());
+    }
+
+    @Override
+    public Item save(Item item) {
+        long id = idAllocator.nextId();
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("itemName", item.getItemName())
+                .addValue("price", item.getPrice())
+                .addValue("quantity", item.getQuantity());
+        shards.get(shardOf(id)).update(
+                "insert into item (id, item_name, price, quantity) values (:id, :itemName, :price, :quantity)", param);
+        item.setId(id);
+        return item;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("id", itemId)
+                .addValue("itemName", updateParam.getItemName())
+                .addValue("price", updateParam.getPrice())
+                .addValue("quantity", updateParam.getQuantity());
+        shards.get(shardOf(itemId)).update(
+                "update item set item_name = :itemName, price = :price, quantity = :quantity where id = :id", param);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        List<Item> items = shards.get(shardOf(id)).query(COLUMNS + " where id = :id", Map.of("id", id), itemRowMapper());
+        return items.stream().findFirst();
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : ItemIdBatches.distinct(ids)) {
+            idsByShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<Callable<List<Item>>> queries = new ArrayList<>();
+        idsByShard.forEach((shard, shardIds) -> queries.add(() -> {
+            List<Item> items = new ArrayList<>();
+            for (List<Long> batch : ItemIdBatches.split(shardIds)) {
+                items.addAll(shards.get(shard).query(COLUMNS + " where id in (:ids)", Map.of("ids", batch), itemRowMapper()));
+            }
+            return items;
+        }));
+        List<Item> items = new ArrayList<>();
+        scatter(queries).forEach(items::addAll);
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
+    /**
+     * 샤드마다 결과 순서가 다르므로 합친 뒤 id 순으로 정렬
+     */
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        MapSqlParameterSource param = searchParameters(cond);
+        String sql = COLUMNS + " where 1 = 1" + searchCondition(cond);
+        return scatter(eachShard(template -> template.query(sql, param, itemRowMapper()))).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 샤드마다 limit 개씩 조회한 뒤 합쳐서 id 순으로 앞의 limit 개
+     */
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        MapSqlParameterSource param = searchParameters(cond)
+                .addValue("afterId", afterId == null ? Long.MIN_VALUE : afterId)
+                .addValue("limit", limit);
+        String sql = COLUMNS + " where id > :afterId" + searchCondition(cond) + " order by id limit :limit";
+        return scatter(eachShard(template -> template.query(sql, param, itemRowMapper()))).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Item::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        return ItemStats.merge(scatter(eachShard(template -> JdbcItemStatsQuery.aggregate(template, cond, bucketSize))), bucketSize);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> List<Callable<T>> eachShard(ShardQuery<T> query) {
+        List<Callable<T>> queries = new ArrayList<>(shards.size());
+        for (NamedParameterJdbcTemplate shard : shards) {
+            queries.add(() -> query.execute(shard));
+        }
+        return queries;
+    }
+
+    /**
+     * 조회를 동시에 실행하고 모든 결과를 모음(순서는 queries 순서)
+     - 모든 조회가 같은 마감 시간(timeoutMillis)을 사용, 하나라도 실패하거나 시간을 넘으면 나머지를 취소
+     */
+    private <T> List<T> scatter(List<Callable<T>> queries) {
+        if (queries.size() == 1) {
+            return List.of(call(queries.get(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(queries.size());
+        for (Callable<T> query : queries) {
+            futures.add(executor.submit(RequestDeadline.propagate(query)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Long requestDeadline = RequestDeadline.get();
+        if (requestDeadline != null && requestDeadline - deadline < 0) {
+            deadline = requestDeadline;
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("샤드 응답 시간 초과 timeout = " + timeoutMillis + "ms, 완료 = "
+                    + results.size() + "/" + futures.size());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샤드 조회 대기 중 인터럽트", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    //조회 대상 샤드가 하나면 호출한 스레드에서 바로 실행(데이터베이스 쿼리 타임아웃은 그대로 적용)
+    private static <T> T call(Callable<T> query) {
+        try {
+            return query.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String searchCondition(ItemSearchCond cond) {
+        String sql = "";
+        if (StringUtils.hasText(cond.getItemName())) {
+            sql += " and" + JdbcTemplateItemRepositoryV1.itemNameCondition(cond.getMatchMode(), ":itemNamePattern");
+        }
+        if (cond.getMaxPrice() != null) {
+            sql += " and price <= :maxPrice";
+        }
+        return sql;
+    }
+
+    private static MapSqlParameterSource searchParameters(ItemSearchCond cond) {
+        return new MapSqlParameterSource()
+                .addValue("itemNamePattern", cond.getItemNamePattern())
+                .addValue("maxPrice", cond.getMaxPrice());
+    }
+
+    private static RowMapper<Item> itemRowMapper() {
+        return (rs, rowNum) -> {
+            Item item = new Item();
+            item.setId(rs.getLong("id"));
+            item.setItemName(rs.getString("item_name"));
+            item.setPrice(rs.getObject("price", Integer.class));
+            item.setQuantity(rs.getObject("quantity", Integer.class));
+            return item;
+        };
+    }
+
+    @FunctionalInterface
+    private interface ShardQuery<T> {
+        T execute(NamedParameterJdbcTemplate shard);
+    }
+}
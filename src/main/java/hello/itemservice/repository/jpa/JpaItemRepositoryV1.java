@@ -1,18 +1,33 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @Repository 기능
@@ -27,6 +42,8 @@ import java.util.Optional;
 @Transactional  //JPA 의 모든 데이터 변경은 트랜잭션 안에서 이루어져야 함(조회는 트랜잭션 없이 가능)
 public class JpaItemRepositoryV1 implements ItemRepository {
 
+    private static final int SCAN_FETCH_SIZE = 500;
+
     private final EntityManager em;
 
     public JpaItemRepositoryV1(EntityManager em) {
@@ -45,13 +62,127 @@ public class JpaItemRepositoryV1 implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JpaItemUpsert.upsertAll(em, items);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         Item item = em.find(Item.class, id);
         return Optional.ofNullable(item);
     }
 
+    /**
+     * Hibernate multiLoad -> 영속성 컨텍스트에 이미 있는 엔티티는 제외하고 나머지를 IN 쿼리로 묶어서 조회
+     - withBatchSize : IN 목록 최대 크기, enableOrderedReturn : 요청한 id 순서대로 반환(없는 id 는 null)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = em.unwrap(Session.class)
+                .byMultipleIds(Item.class)
+                .enableSessionCheck(true)
+                .withBatchSize(ItemIdBatches.MAX_BATCH_SIZE)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(ItemIdBatches.distinct(ids)));
+        return items.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
     public List<Item> findAll(ItemSearchCond cond) {
-        String jpql = "select i from Item i";
+        String jpql = "select i from Item i" + searchCondition(cond);
+        log.info("jpql = {}", jpql);
+
+        TypedQuery<Item> query = em.createQuery(jpql, Item.class);
+        setSearchParameters(query, cond);
+        return query.getResultList();
+    }
+
+    /**
+     * 목록 화면용 -> JPQL 생성자 표현식(select new)으로 ItemView 를 바로 생성
+     - 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않음(스냅샷, 1차 캐시 없음)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        String jpql = "select new hello.itemservice.domain.ItemView(i.id, i.itemName, coalesce(i.price, 0), coalesce(i.quantity, 0))" +
+                " from Item i" + searchCondition(cond);
+        TypedQuery<ItemView> query = em.createQuery(jpql, ItemView.class);
+        setSearchParameters(query, cond);
+        return query.getResultList();
+    }
+
+    /**
+     * 페이지 단위로 나누어 읽는 쪽(화면 스트리밍)은 요청 동안 여러 페이지를 조회함
+     - OSIV 로 요청 동안 영속성 컨텍스트가 유지되므로 조회한 엔티티는 준영속 상태로 반환 -> 페이지를 넘길수록 쌓이지 않음
+     - 반환된 엔티티를 변경해도 데이터베이스에 반영되지 않음(수정은 update 사용)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        String where = searchCondition(cond);
+        String jpql = "select i from Item i" + where + (where.isEmpty() ? " where" : " and") + " i.id > :afterId order by i.id";
+
+        TypedQuery<Item> query = em.createQuery(jpql, Item.class);
+        setSearchParameters(query, cond);
+        query.setParameter("afterId", afterId == null ? 0L : afterId);
+        query.setMaxResults(limit);
+        List<Item> items = query.getResultList();
+        items.forEach(em::detach);
+        return items;
+    }
+
+    /**
+     * getResultStream -> 하이버네이트가 ScrollableResults(커서)로 fetchSize 개씩 읽음
+     - 읽기 전용 힌트로 변경 감지용 스냅샷을 만들지 않고, 전달한 엔티티는 바로 준영속 상태로 만들어서 영속성 컨텍스트에 쌓이지 않음
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void scan(ItemSearchCond cond, Consumer<Item> consumer) {
+        TypedQuery<Item> query = em.createQuery("select i from Item i" + searchCondition(cond) + " order by i.id", Item.class);
+        setSearchParameters(query, cond);
+        query.setHint(QueryHints.HINT_FETCH_SIZE, SCAN_FETCH_SIZE);
+        query.setHint(QueryHints.HINT_READONLY, true);
+        try (Stream<Item> items = query.getResultStream()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                em.detach(item);
+            });
+        }
+    }
+
+    /**
+     * 집계 쿼리(count, sum, min, max, group by) -> 엔티티를 조회하지 않음
+     - 구간 식은 select, group by 에 같은 식으로 들어가야 하므로 파라미터 대신 검증된 숫자를 직접 작성
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        String where = searchCondition(cond);
+
+        TypedQuery<Object[]> totalsQuery = em.createQuery("select count(i), sum(cast(i.price as long) * i.quantity), " +
+                "min(i.price), max(i.price) from Item i" + where, Object[].class);
+        setSearchParameters(totalsQuery, cond);
+        Object[] totals = totalsQuery.getSingleResult();
+
+        String bucket = "i.price / " + bucketSize + " * " + bucketSize;
+        TypedQuery<Object[]> histogramQuery = em.createQuery("select " + bucket + ", count(i) from Item i" + where +
+                (where.isEmpty() ? " where" : " and") + " i.price is not null group by " + bucket, Object[].class);
+        setSearchParameters(histogramQuery, cond);
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (Object[] row : histogramQuery.getResultList()) {
+            histogram.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+
+        return new ItemStats(((Number) totals[0]).longValue(),
+                totals[1] == null ? 0 : ((Number) totals[1]).longValue(),
+                (Integer) totals[2], (Integer) totals[3], bucketSize, histogram);
+    }
+
+    private String searchCondition(ItemSearchCond cond) {
+        String jpql = "";
 
         Integer maxPrice = cond.getMaxPrice();
         String itemName = cond.getItemName();
@@ -61,8 +192,15 @@ public class JpaItemRepositoryV1 implements ItemRepository {
         }
 
         boolean andFlag = false;
+        MatchMode matchMode = cond.getMatchMode();
         if(StringUtils.hasText(itemName)) {
-            jpql += " i.itemName like concat('%', :itemName, '%')";
+            if(matchMode == MatchMode.EXACT) {
+                jpql += " i.itemName = :itemName";
+            } else if(matchMode == MatchMode.IGNORE_CASE) {
+                jpql += " i.itemNameLower like :itemName escape '" + MatchMode.LIKE_ESCAPE + "'";
+            } else {
+                jpql += " i.itemName like :itemName escape '" + MatchMode.LIKE_ESCAPE + "'";
+            }
             andFlag = true;
         }
 
@@ -72,17 +210,15 @@ public class JpaItemRepositoryV1 implements ItemRepository {
             }
             jpql += " i.price <= :maxPrice";
         }
+        return jpql;
+    }
 
-        log.info("jpql = {}", jpql);
-
-        TypedQuery<Item> query = em.createQuery(jpql, Item.class);
-        if(StringUtils.hasText(itemName)) {
-            query.setParameter("itemName", itemName);
+    private void setSearchParameters(Query query, ItemSearchCond cond) {
+        if(StringUtils.hasText(cond.getItemName())) {
+            query.setParameter("itemName", cond.getItemNamePattern());
         }
-        if(maxPrice != null) {
-            query.setParameter("maxPrice", maxPrice);
+        if(cond.getMaxPrice() != null) {
+            query.setParameter("maxPrice", cond.getMaxPrice());
         }
-
-        return query.getResultList();
     }
 }
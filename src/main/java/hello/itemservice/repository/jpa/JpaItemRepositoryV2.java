@@ -1,16 +1,32 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * 의존 관계로 인한 문제
@@ -28,6 +44,7 @@ import java.util.Optional;
 public class JpaItemRepositoryV2 implements ItemRepository {
 
     private final SpringDataJpaItemRepository repository;
+    private final EntityManager em;
 
     public Item save(Item item) {
         return repository.save(item);
@@ -40,23 +57,163 @@ public class JpaItemRepositoryV2 implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JpaItemUpsert.upsertAll(em, items);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return repository.findById(id);
     }
 
+    /**
+     * 스프링 데이터 JPA findAllById -> where id in (...) 쿼리, 반환 순서는 보장하지 않음
+     - 묶음 크기를 ItemIdBatches 로 맞추고 요청한 순서로 다시 정렬
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>();
+        for (List<Long> batch : ItemIdBatches.split(ids)) {
+            items.addAll(repository.findAllById(batch));
+        }
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
+    @Transactional(readOnly = true)
     public List<Item> findAll(ItemSearchCond cond) {
         Integer maxPrice = cond.getMaxPrice();
         String itemName = cond.getItemName();
 
-        if(StringUtils.hasText(itemName) && maxPrice != null) {
-            //return repository.findByItemNameLikeAndPriceLessThanEqual(itemName, maxPrice);
-            return repository.findItems("%" + itemName + "%", maxPrice);
-        } else if(StringUtils.hasText(itemName)) {
-            return repository.findByItemNameLike("%" + itemName + "%");
+        if(StringUtils.hasText(itemName)) {
+            return findByMatchMode(itemName, cond.getMatchMode(), maxPrice);
         } else if(maxPrice != null) {
             return repository.findByPriceLessThanEqual(maxPrice);
         } else {
             return repository.findAll();
         }
     }
+
+    /**
+     * 집계(count, sum, min, max)와 가격별 상품 수 -> 구간으로 묶는 것은 여기서 처리, 결과 row 수는 서로 다른 가격 수
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> totalsQuery = cb.createTupleQuery();
+        Root<Item> item = totalsQuery.from(Item.class);
+        Expression<Integer> price = item.get("price");
+        Expression<Long> count = cb.count(item);
+        Expression<Long> totalValue = cb.sum(cb.prod(price.as(Long.class), item.<Integer>get("quantity").as(Long.class)));
+        Expression<Integer> minPrice = cb.min(price);
+        Expression<Integer> maxPrice = cb.max(price);
+        totalsQuery.multiselect(count, totalValue, minPrice, maxPrice)
+                .where(conditions(cb, item, cond).toArray(new Predicate[0]));
+        Tuple totals = bind(em.createQuery(totalsQuery), cond).getSingleResult();
+
+        CriteriaQuery<Tuple> countsQuery = cb.createTupleQuery();
+        Root<Item> counted = countsQuery.from(Item.class);
+        Expression<Integer> countedPrice = counted.get("price");
+        Expression<Long> itemCount = cb.count(counted);
+        List<Predicate> where = conditions(cb, counted, cond);
+        where.add(cb.isNotNull(countedPrice));
+        countsQuery.multiselect(countedPrice, itemCount)
+                .where(where.toArray(new Predicate[0]))
+                .groupBy(countedPrice);
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (Tuple row : bind(em.createQuery(countsQuery), cond).getResultList()) {
+            histogram.merge(ItemStats.bucketOf(row.get(countedPrice), bucketSize), row.get(itemCount), Long::sum);
+        }
+
+        Long total = totals.get(totalValue);
+        return new ItemStats(totals.get(count), total == null ? 0 : total,
+                totals.get(minPrice), totals.get(maxPrice), bucketSize, histogram);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Item> query = cb.createQuery(Item.class);
+        Root<Item> item = query.from(Item.class);
+        List<Predicate> where = conditions(cb, item, cond);
+        where.add(cb.gt(item.get("id"), cb.parameter(Long.class, "afterId")));
+        query.select(item)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.asc(item.get("id")));
+        List<Item> items = bind(em.createQuery(query), cond)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        items.forEach(em::detach);     //준영속 상태로 반환(JpaItemRepositoryV1.findPage 참고)
+        return items;
+    }
+
+    /**
+     * 목록 화면용 읽기 모델 -> 생성자 표현식, 기본형 생성자이므로 null 은 0 으로
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ItemView> query = cb.createQuery(ItemView.class);
+        Root<Item> item = query.from(Item.class);
+        query.select(cb.construct(ItemView.class, item.get("id"), item.get("itemName"),
+                        cb.coalesce(item.<Integer>get("price"), 0), cb.coalesce(item.<Integer>get("quantity"), 0)))
+                .where(conditions(cb, item, cond).toArray(new Predicate[0]));
+        return bind(em.createQuery(query), cond).getResultList();
+    }
+
+    /**
+     * 목록, 집계, 페이지 쿼리 공통 검색 조건 -> 사용하는 조건만 추가(Criteria API)
+     - ':param is null or ...' 처럼 모든 조건을 넣은 고정 JPQL 은 H2 가 item_name, item_name_lower 인덱스 범위 조회를 하지 못함
+     - 검색 방식별 조건은 findByMatchMode 의 쿼리 메서드와 같음(LIKE 패턴은 이스케이프된 값)
+     - 숫자 값은 파라미터(bind)로 전달 -> 값을 SQL 에 직접 쓰면 값마다 다른 SQL 이 만들어짐
+     */
+    private static List<Predicate> conditions(CriteriaBuilder cb, Root<Item> item, ItemSearchCond cond) {
+        List<Predicate> conditions = new ArrayList<>();
+        if(StringUtils.hasText(cond.getItemName())) {
+            MatchMode matchMode = cond.getMatchMode();
+            if(matchMode == MatchMode.EXACT) {
+                conditions.add(cb.equal(item.get("itemName"), cond.getItemName()));
+            } else if(matchMode == MatchMode.IGNORE_CASE) {
+                conditions.add(cb.like(item.get("itemNameLower"), cond.getItemNamePattern(), MatchMode.LIKE_ESCAPE));
+            } else {
+                conditions.add(cb.like(item.get("itemName"), cond.getItemNamePattern(), MatchMode.LIKE_ESCAPE));
+            }
+        }
+        if(cond.getMaxPrice() != null) {
+            conditions.add(cb.le(item.get("price"), cb.parameter(Integer.class, "maxPrice")));
+        }
+        return conditions;
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, ItemSearchCond cond) {
+        if(cond.getMaxPrice() != null) {
+            query.setParameter("maxPrice", cond.getMaxPrice());
+        }
+        return query;
+    }
+
+    private List<Item> findByMatchMode(String itemName, MatchMode matchMode, Integer maxPrice) {
+        switch (matchMode) {
+            case EXACT:
+                return maxPrice == null ? repository.findByItemName(itemName)
+                        : repository.findByItemNameAndPriceLessThanEqual(itemName, maxPrice);
+            case IGNORE_CASE:
+                String itemNameLower = MatchMode.normalize(itemName);
+                return maxPrice == null ? repository.findByItemNameLowerStartingWith(itemNameLower)
+                        : repository.findByItemNameLowerStartingWithAndPriceLessThanEqual(itemNameLower, maxPrice);
+            case CONTAINS:
+                return maxPrice == null ? repository.findByItemNameContaining(itemName)
+                        : repository.findByItemNameContainingAndPriceLessThanEqual(itemName, maxPrice);
+            default:
+                return maxPrice == null ? repository.findByItemNameStartingWith(itemName)
+                        : repository.findByItemNameStartingWithAndPriceLessThanEqual(itemName, maxPrice);
+        }
+    }
 }
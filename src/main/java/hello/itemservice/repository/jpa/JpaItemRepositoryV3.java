@@ -1,18 +1,33 @@
 package hello.itemservice.repository.jpa;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import static hello.itemservice.domain.QItem.item;
 
@@ -40,11 +55,34 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JpaItemUpsert.upsertAll(em, items);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         Item item = em.find(Item.class, id);
         return Optional.ofNullable(item);
     }
 
+    /**
+     * Hibernate multiLoad -> 영속성 컨텍스트에 이미 있는 엔티티는 제외하고 나머지를 IN 쿼리로 묶어서 조회
+     - withBatchSize : IN 목록 최대 크기, enableOrderedReturn : 요청한 id 순서대로 반환(없는 id 는 null)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = em.unwrap(Session.class)
+                .byMultipleIds(Item.class)
+                .enableSessionCheck(true)
+                .withBatchSize(ItemIdBatches.MAX_BATCH_SIZE)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(ItemIdBatches.distinct(ids)));
+        return items.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
@@ -52,15 +90,94 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return query
                 .select(item)
                 .from(item)
-                .where(likeItemName(itemName), maxPrice(maxPrice))
+                .where(likeItemName(itemName, cond.getMatchMode()), maxPrice(maxPrice))
+                .fetch();
+    }
+
+    /**
+     * 목록 화면용 -> Projections.constructor 로 ItemView(long, String, int, int) 생성자 호출
+     - 엔티티를 조회하지 않으므로 영속성 컨텍스트에 올라가지 않음, null 가격/수량은 coalesce 로 0
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return query
+                .select(Projections.constructor(ItemView.class,
+                        item.id, item.itemName, item.price.coalesce(0), item.quantity.coalesce(0)))
+                .from(item)
+                .where(likeItemName(cond.getItemName(), cond.getMatchMode()), maxPrice(cond.getMaxPrice()))
                 .fetch();
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if(StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    /**
+     * 페이지 단위로 나누어 읽는 쪽(화면 스트리밍)은 요청 동안 여러 페이지를 조회함
+     - OSIV 로 요청 동안 영속성 컨텍스트가 유지되므로 조회한 엔티티는 준영속 상태로 반환 -> 페이지를 넘길수록 쌓이지 않음
+     - 반환된 엔티티를 변경해도 데이터베이스에 반영되지 않음(수정은 update 사용)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        List<Item> items = query
+                .select(item)
+                .from(item)
+                .where(item.id.gt(afterId == null ? 0L : afterId),
+                        likeItemName(cond.getItemName(), cond.getMatchMode()), maxPrice(cond.getMaxPrice()))
+                .orderBy(item.id.asc())
+                .limit(limit)
+                .fetch();
+        items.forEach(em::detach);
+        return items;
+    }
+
+    /**
+     * 집계 쿼리(count, sum, min, max, group by) -> 엔티티를 조회하지 않음
+     - 구간 식은 select, group by 에 같은 식으로 들어가야 하므로 파라미터 대신 검증된 숫자를 템플릿에 직접 작성
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        BooleanExpression nameCondition = likeItemName(cond.getItemName(), cond.getMatchMode());
+        BooleanExpression priceCondition = maxPrice(cond.getMaxPrice());
+
+        NumberExpression<Long> count = item.count();
+        NumberExpression<Long> totalValue = item.price.castToNum(Long.class).multiply(item.quantity).sum();
+        NumberExpression<Integer> lowestPrice = item.price.min();
+        NumberExpression<Integer> highestPrice = item.price.max();
+        Tuple totals = query
+                .select(count, totalValue, lowestPrice, highestPrice)
+                .from(item)
+                .where(nameCondition, priceCondition)
+                .fetchOne();
+
+        NumberExpression<Integer> bucket = Expressions.numberTemplate(Integer.class,
+                "{0} / " + bucketSize + " * " + bucketSize, item.price);
+        Map<Integer, Long> histogram = new TreeMap<>();
+        query
+                .select(bucket, count)
+                .from(item)
+                .where(nameCondition, priceCondition, item.price.isNotNull())
+                .groupBy(bucket)
+                .fetch()
+                .forEach(row -> histogram.put(row.get(bucket), row.get(count)));
+
+        Long total = totals.get(totalValue);
+        return new ItemStats(totals.get(count), total == null ? 0 : total,
+                totals.get(lowestPrice), totals.get(highestPrice), bucketSize, histogram);
+    }
+
+    private BooleanExpression likeItemName(String itemName, MatchMode matchMode) {
+        if(!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        switch (matchMode) {
+            case EXACT:
+                return item.itemName.eq(itemName);
+            case IGNORE_CASE:
+                return item.itemNameLower.like(matchMode.pattern(itemName), MatchMode.LIKE_ESCAPE);
+            default:
+                return item.itemName.like(matchMode.pattern(itemName), MatchMode.LIKE_ESCAPE);
         }
-        return null;
     }
 
     private BooleanExpression maxPrice(Integer maxPrice) {
@@ -0,0 +1,57 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.domain.Item;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA 저장소(V1 ~ V3, ItemRepositoryV2) 공통 upsert
+ - 이름으로 기존 상품을 한 번에 조회(IN)해서 변경 감지로 수정하고, 없는 이름은 persist
+ - flush 시점에 모아서 실행 -> hibernate.jdbc.batch_size 를 설정하면 UPDATE 는 JDBC 배치로 실행
+ - IDENTITY 전략은 persist 시점에 INSERT 를 실행해야 id 를 알 수 있으므로 INSERT 는 배치로 묶이지 않음
+ - 처리한 엔티티는 flush 후 준영속 상태로 만듦 -> 큰 가져오기에서도 영속성 컨텍스트가 쌓이지 않음
+ - 같은 이름의 상품이 여러 개면 모두 수정(JDBC 저장소의 MERGE 와 같음)
+ */
+public abstract class JpaItemUpsert {
+
+    public static int upsertAll(EntityManager em, Collection<Item> items) {
+        Map<String, Item> byName = new LinkedHashMap<>();
+        for (Item item : items) {
+            byName.put(item.getItemName(), item);    //같은 이름은 마지막 값
+        }
+        if (byName.isEmpty()) {
+            return 0;
+        }
+
+        List<Item> touched = new ArrayList<>(byName.size());
+        List<Item> existing = em.createQuery("select i from Item i where i.itemName in :names", Item.class)
+                .setParameter("names", byName.keySet())
+                .getResultList();
+        Set<String> existingNames = new HashSet<>();
+        for (Item found : existing) {
+            existingNames.add(found.getItemName());
+            Item source = byName.get(found.getItemName());
+            found.setPrice(source.getPrice());
+            found.setQuantity(source.getQuantity());
+            touched.add(found);
+        }
+
+        for (Item source : byName.values()) {
+            if (!existingNames.contains(source.getItemName())) {
+                Item created = new Item(source.getItemName(), source.getPrice(), source.getQuantity());
+                em.persist(created);
+                touched.add(created);
+            }
+        }
+        em.flush();
+        touched.forEach(em::detach);
+        return items.size();
+    }
+}
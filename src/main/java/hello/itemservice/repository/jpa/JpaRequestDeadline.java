@@ -0,0 +1,32 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.repository.RequestDeadline;
+import org.springframework.dao.QueryTimeoutException;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 요청 마감 시간(RequestDeadline)을 JPA 쿼리 타임아웃으로 적용(RequestDeadlineConfig 가 EntityManager 생성시 호출)
+ - EntityManager 속성 javax.persistence.query.timeout 을 남은 시간으로 설정
+ -> 하이버네이트가 이 EntityManager 로 만드는 모든 쿼리(JPQL, Querydsl, 스프링 데이터 JPA 쿼리 메서드)에 힌트로 적용
+ - 트랜잭션 안에서는 트랜잭션을 시작할 때 만든 EntityManager 를 사용 -> 트랜잭션 시작 시점의 남은 시간
+ - 하이버네이트는 밀리초 값을 초로 반올림 -> 초 단위로 올림한 값을 넘김(반올림으로 0 이 되어 타임아웃이 없어지지 않도록)
+ - em.find(기본 키 조회)는 쿼리 힌트가 적용되지 않음
+ */
+public abstract class JpaRequestDeadline {
+
+    static final String QUERY_TIMEOUT = "javax.persistence.query.timeout";
+
+    public static void apply(EntityManager em) {
+        if (RequestDeadline.get() == null) {
+            return;
+        }
+        int seconds;
+        try {
+            seconds = RequestDeadline.queryTimeoutSeconds(0);
+        } catch (QueryTimeoutException e) {
+            seconds = 1;    //이미 지남 -> EntityManager 생성(트랜잭션 시작)은 실패시키지 않고 가장 짧은 타임아웃
+        }
+        em.setProperty(QUERY_TIMEOUT, seconds * 1000);
+    }
+}
@@ -23,6 +23,23 @@ public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
     //쿼리 메서드(아래 메서드와 같은 기능 수행)
     List<Item> findByItemNameLikeAndPriceLessThanEqual(String itemName, Integer price);
 
+    //검색 방식별 쿼리 메서드(MatchMode) -> StartingWith, Containing 은 검색어의 '%', '_' 를 스프링 데이터 JPA 가 이스케이프
+    List<Item> findByItemName(String itemName);
+
+    List<Item> findByItemNameAndPriceLessThanEqual(String itemName, Integer price);
+
+    List<Item> findByItemNameStartingWith(String itemName);
+
+    List<Item> findByItemNameStartingWithAndPriceLessThanEqual(String itemName, Integer price);
+
+    List<Item> findByItemNameLowerStartingWith(String itemNameLower);
+
+    List<Item> findByItemNameLowerStartingWithAndPriceLessThanEqual(String itemNameLower, Integer price);
+
+    List<Item> findByItemNameContaining(String itemName);
+
+    List<Item> findByItemNameContainingAndPriceLessThanEqual(String itemName, Integer price);
+
     //쿼리 직접 실행
     @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
     List<Item> findItems(@Param("itemName") String itemName, @Param("price") Integer price);
@@ -0,0 +1,325 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.RequestDeadline;
+import org.springframework.util.ObjectUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 컬럼 기반 메모리 저장소
+ - MemoryItemRepository 는 상품마다 Item, Long, Integer, String 객체를 만들어서 HashMap 에 보관 -> 객체 헤더, 포인터 비용이 크고 검색시 포인터를 따라다님
+ - 상품의 필드를 컬럼별 기본형 버퍼(price, quantity)에 나누어 저장하고, 검색은 컬럼을 순서대로 훑어서 조건에 맞는 행만 Item 으로 만듦
+ - id 는 순차 증가하므로 별도 컬럼 없이 행 번호로 사용(row = id - 1)
+ - 이름은 UTF-8 바이트로 이름 영역(names)에 이어서 기록하고 행마다 시작 위치, 길이만 보관
+ - 수정으로 버려진 이름 바이트가 절반을 넘으면 이름 영역을 다시 채움(compaction)
+ - offHeap = true 이면 컬럼을 ByteBuffer.allocateDirect 로 힙 밖에 할당 -> GC 대상 힙 크기와 무관
+
+ * 동시성
+ - 조회는 읽기 잠금, 저장/수정은 쓰기 잠금(ReentrantReadWriteLock)
+ - 반환하는 Item 은 조회 시점의 복사본 -> 변경해도 저장소에 반영되지 않음
+ - 검색은 RequestDeadline.CHECK_ROWS 행마다 요청 마감 시간 확인 -> 지나면 중단하고 읽기 잠금 해제
+ */
+public class ColumnarItemRepository implements ItemRepository {
+
+    private static final byte NULL_NAME = 1;
+    private static final byte NULL_PRICE = 2;
+    private static final byte NULL_QUANTITY = 4;
+
+    private final boolean offHeap;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private ByteBuffer flags;
+    private IntBuffer prices;
+    private IntBuffer quantities;
+    private IntBuffer nameOffsets;
+    private IntBuffer nameLengths;
+    private ByteBuffer names;
+    private int garbageBytes;
+
+    public ColumnarItemRepository(boolean offHeap, int initialCapacity) {
+        this.offHeap = offHeap;
+        int capacity = Math.max(16, initialCapacity);
+        flags = allocate(capacity);
+        prices = allocate(capacity * 4).asIntBuffer();
+        quantities = allocate(capacity * 4).asIntBuffer();
+        nameOffsets = allocate(capacity * 4).asIntBuffer();
+        nameLengths = allocate(capacity * 4).asIntBuffer();
+        names = allocate(capacity * 8);
+    }
+
+    @Override
+    public Item save(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (size == flags.capacity()) {
+                growRows(size * 2);
+            }
+            int row = size++;
+            write(row, item.getItemName(), item.getPrice(), item.getQuantity());
+            item.setId(row + 1L);
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(itemId);
+            if (row < 0) {
+                throw new NoSuchElementException("No value present");
+            }
+            garbageBytes += nameLengths.get(row);
+            write(row, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            if (garbageBytes > names.position() / 2) {
+                compactNames();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        String keyword = cond.getItemName();
+        byte[] itemName = ObjectUtils.isEmpty(keyword) ? null : keyword.getBytes(StandardCharsets.UTF_8);
+        Integer maxPrice = cond.getMaxPrice();
+        MatchMode matchMode = cond.getMatchMode();
+
+        Long deadline = RequestDeadline.get();
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (row % RequestDeadline.CHECK_ROWS == RequestDeadline.CHECK_ROWS - 1) {
+                    RequestDeadline.check(deadline);
+                }
+                //비교 비용이 작은 가격 컬럼부터 확인
+                if (maxPrice != null && ((flags.get(row) & NULL_PRICE) != 0 || prices.get(row) > maxPrice)) {
+                    continue;
+                }
+                if (itemName != null && ((flags.get(row) & NULL_NAME) != 0 || !nameMatches(row, itemName, matchMode, keyword))) {
+                    continue;
+                }
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 행 번호가 id 순서이므로 afterId 다음 행부터 limit 개를 채울 때까지만 훑음
+     */
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        String keyword = cond.getItemName();
+        byte[] itemName = ObjectUtils.isEmpty(keyword) ? null : keyword.getBytes(StandardCharsets.UTF_8);
+        Integer maxPrice = cond.getMaxPrice();
+        MatchMode matchMode = cond.getMatchMode();
+        Long deadline = RequestDeadline.get();
+
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            long start = afterId == null ? 0 : Math.max(0, afterId);
+            for (long row = start; row < size && result.size() < limit; row++) {
+                int r = (int) row;
+                if ((row - start) % RequestDeadline.CHECK_ROWS == RequestDeadline.CHECK_ROWS - 1) {
+                    RequestDeadline.check(deadline);
+                }
+                if (maxPrice != null && ((flags.get(r) & NULL_PRICE) != 0 || prices.get(r) > maxPrice)) {
+                    continue;
+                }
+                if (itemName != null && ((flags.get(r) & NULL_NAME) != 0 || !nameMatches(r, itemName, matchMode, keyword))) {
+                    continue;
+                }
+                result.add(materialize(r));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int rowOf(Long id) {
+        if (id == null || id < 1 || id > size) {
+            return -1;
+        }
+        return (int) (id - 1);
+    }
+
+    private void write(int row, String itemName, Integer price, Integer quantity) {
+        byte flag = 0;
+        if (itemName == null) {
+            flag |= NULL_NAME;
+        }
+        if (price == null) {
+            flag |= NULL_PRICE;
+        }
+        if (quantity == null) {
+            flag |= NULL_QUANTITY;
+        }
+        flags.put(row, flag);
+        prices.put(row, price == null ? 0 : price);
+        quantities.put(row, quantity == null ? 0 : quantity);
+
+        byte[] bytes = itemName == null ? new byte[0] : itemName.getBytes(StandardCharsets.UTF_8);
+        if (names.remaining() < bytes.length) {
+            growNames(Math.max(names.capacity() * 2, names.position() + bytes.length));
+        }
+        nameOffsets.put(row, names.position());
+        nameLengths.put(row, bytes.length);
+        names.put(bytes);
+    }
+
+    private Item materialize(int row) {
+        byte flag = flags.get(row);
+        String itemName = (flag & NULL_NAME) != 0 ? null : decodeName(row);
+        Item item = new Item(itemName,
+                (flag & NULL_PRICE) != 0 ? null : prices.get(row),
+                (flag & NULL_QUANTITY) != 0 ? null : quantities.get(row));
+        item.setId(row + 1L);
+        return item;
+    }
+
+    private String decodeName(int row) {
+        byte[] bytes = new byte[nameLengths.get(row)];
+        int offset = nameOffsets.get(row);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = names.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 검색 방식별 이름 비교
+     - EXACT, PREFIX, CONTAINS 는 바이트 단위로 비교하고, IGNORE_CASE 만 문자열로 디코딩해서 비교
+     */
+    private boolean nameMatches(int row, byte[] pattern, MatchMode matchMode, String keyword) {
+        switch (matchMode) {
+            case EXACT:
+                return nameLengths.get(row) == pattern.length && nameRegionEquals(nameOffsets.get(row), pattern);
+            case PREFIX:
+                return nameLengths.get(row) >= pattern.length && nameRegionEquals(nameOffsets.get(row), pattern);
+            case IGNORE_CASE:
+                return matchMode.matches(decodeName(row), keyword);
+            default:
+                return nameContains(row, pattern);
+        }
+    }
+
+    private boolean nameRegionEquals(int start, byte[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (names.get(start + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * UTF-8 바이트 단위 부분 일치 -> 문자열로 디코딩하지 않고 비교
+     - 올바른 UTF-8 끼리는 바이트 부분 일치와 문자 부분 일치가 같음
+     */
+    private boolean nameContains(int row, byte[] pattern) {
+        int offset = nameOffsets.get(row);
+        int length = nameLengths.get(row);
+        outer:
+        for (int start = offset; start <= offset + length - pattern.length; start++) {
+            for (int i = 0; i < pattern.length; i++) {
+                if (names.get(start + i) != pattern[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void growRows(int capacity) {
+        flags = copy(flags, capacity);
+        prices = copy(prices, capacity);
+        quantities = copy(quantities, capacity);
+        nameOffsets = copy(nameOffsets, capacity);
+        nameLengths = copy(nameLengths, capacity);
+    }
+
+    private void growNames(int capacity) {
+        ByteBuffer grown = allocate(capacity);
+        names.flip();
+        grown.put(names);
+        names = grown;
+    }
+
+    private void compactNames() {
+        ByteBuffer compacted = allocate(names.capacity());
+        for (int row = 0; row < size; row++) {
+            int offset = nameOffsets.get(row);
+            int length = nameLengths.get(row);
+            nameOffsets.put(row, compacted.position());
+            for (int i = 0; i < length; i++) {
+                compacted.put(names.get(offset + i));
+            }
+        }
+        names = compacted;
+        garbageBytes = 0;
+    }
+
+    private ByteBuffer copy(ByteBuffer source, int capacity) {
+        ByteBuffer target = allocate(capacity);
+        ByteBuffer view = source.duplicate();
+        view.clear();
+        target.put(view);
+        return target.clear();
+    }
+
+    private IntBuffer copy(IntBuffer source, int capacity) {
+        IntBuffer target = allocate(capacity * 4).asIntBuffer();
+        IntBuffer view = source.duplicate();
+        view.clear();
+        target.put(view);
+        return target.clear();
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -0,0 +1,198 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.RequestDeadline;
+import hello.itemservice.repository.memory.ItemWriteAheadLog.FsyncPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ObjectUtils;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시작해도 데이터가 유지되는 메모리 저장소
+ - 조회는 MemoryItemRepository 와 같이 메모리(id 순 ConcurrentSkipListMap)에서 처리 -> findPage 는 afterId 다음 id 부터 훑음
+ - 저장, 수정은 메모리에 반영하기 전에 Write-Ahead Log 에 기록(ItemWriteAheadLog)
+ - 주기적으로 전체 상태를 스냅샷으로 기록하고, 스냅샷에 반영된 WAL 세그먼트는 삭제
+ - 시작시 스냅샷 + 이후 WAL 레코드를 순서대로 적용해서 복구
+
+ * 저장된 Item 은 변경하지 않음
+ - 수정시 새 Item 으로 교체 -> 조회 중인 다른 스레드가 반쯤 수정된 상태를 보지 않음
+ - 반환된 Item 을 호출하는 쪽에서 변경하면 WAL 과 달라지므로 변경은 update 로만 해야 함
+ */
+@Slf4j
+public class DurableMemoryItemRepository implements ItemRepository, Closeable {
+
+    static final String SNAPSHOT_FILE = "items.snapshot";
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private final Object snapshotLock = new Object();
+    private final Path directory;
+    private final ItemWriteAheadLog wal;
+    private final ScheduledExecutorService scheduler;
+
+    private long sequence;
+    private long lsn;
+    private long snapshotLsn;
+
+    public DurableMemoryItemRepository(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, long snapshotIntervalMillis) {
+        this(directory, DEFAULT_SEGMENT_SIZE, fsyncPolicy, fsyncIntervalMillis, snapshotIntervalMillis);
+    }
+
+    DurableMemoryItemRepository(Path directory, int segmentSize, FsyncPolicy fsyncPolicy,
+                                long fsyncIntervalMillis, long snapshotIntervalMillis) {
+        this.directory = directory;
+        long lastGeneration = recover();
+        this.wal = new ItemWriteAheadLog(directory, segmentSize, fsyncPolicy, lastGeneration + 1);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "durable-memory-item-repository");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            scheduler.scheduleWithFixedDelay(wal::force, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        if (snapshotIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long recover() {
+        long start = System.nanoTime();
+        ItemSnapshot snapshot = ItemSnapshot.read(directory.resolve(SNAPSHOT_FILE));
+        if (snapshot != null) {
+            snapshot.getItems().forEach(item -> store.put(item.getId(), item));
+            snapshotLsn = snapshot.getLastLsn();
+        }
+
+        lsn = snapshotLsn;
+        long lastGeneration = ItemWriteAheadLog.replay(directory, snapshotLsn, (recordLsn, item) -> {
+            store.put(item.getId(), item);
+            lsn = Math.max(lsn, recordLsn);
+        });
+        sequence = store.keySet().stream().mapToLong(Long::longValue).max().orElse(0L);
+
+        log.info("recovered items = {}, lsn = {}, elapsed = {}ms", store.size(), lsn, (System.nanoTime() - start) / 1_000_000);
+        return lastGeneration;
+    }
+
+    @Override
+    public Item save(Item item) {
+        synchronized (writeLock) {
+            Item stored = copy(++sequence, item.getItemName(), item.getPrice(), item.getQuantity());
+            wal.append(++lsn, stored);
+            store.put(stored.getId(), stored);
+            item.setId(stored.getId());
+        }
+        return item;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        synchronized (writeLock) {
+            findById(itemId).orElseThrow();
+            Item updated = copy(itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            wal.append(++lsn, updated);
+            store.put(itemId, updated);
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return find(cond, store.values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        return find(cond, afterId == null ? store.values() : store.tailMap(afterId, false).values(), limit);
+    }
+
+    private static List<Item> find(ItemSearchCond cond, Collection<Item> items, int limit) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+        MatchMode matchMode = cond.getMatchMode();
+        Long deadline = RequestDeadline.get();
+        List<Item> result = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        for (Item item : items) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (++scanned % RequestDeadline.CHECK_ROWS == 0) {
+                RequestDeadline.check(deadline);    //요청 마감 시간이 지나면 검색 중단
+            }
+            if ((ObjectUtils.isEmpty(itemName) || matchMode.matches(item.getItemName(), itemName))
+                    && (maxPrice == null || (item.getPrice() != null && item.getPrice() <= maxPrice))) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 현재 상태를 스냅샷으로 기록하고 반영된 WAL 세그먼트 삭제
+     - 쓰기 잠금은 상태 복사와 세그먼트 교체 동안만 잡고, 파일 기록은 잠금 밖에서 수행
+     */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            List<Item> items;
+            long lastLsn;
+            long sealedGeneration;
+            synchronized (writeLock) {
+                if (lsn == snapshotLsn) {
+                    return;
+                }
+                items = new ArrayList<>(store.values());
+                lastLsn = lsn;
+                sealedGeneration = wal.rotate();
+            }
+
+            ItemSnapshot.write(directory.resolve(SNAPSHOT_FILE), lastLsn, items);
+            wal.deleteUpTo(sealedGeneration);
+            synchronized (writeLock) {
+                snapshotLsn = lastLsn;
+            }
+            log.info("snapshot items = {}, lsn = {}", items.size(), lastLsn);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("snapshot failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (writeLock) {
+            wal.close();
+        }
+    }
+
+    private static Item copy(Long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+}
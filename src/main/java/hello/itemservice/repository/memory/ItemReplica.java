@@ -0,0 +1,274 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.RequestDeadline;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품 테이블 전체를 메모리에 올린 복제본(ReplicatedItemRepository 가 사용)
+ - byId : id 순 TreeMap -> 단건 조회, id 순 페이지(findPage), id 범위 비교(일관성 검사)
+ - names : 상품명 -> id 목록 -> EXACT 는 같은 키, PREFIX 는 [검색어, 검색어 + Character.MAX_VALUE) 범위(item_name 인덱스 범위 조회와 같음)
+ - lowerNames : 소문자 상품명 -> id 목록 -> IGNORE_CASE 범위 조회(item_name_lower 컬럼과 같은 방식)
+ - prices : 가격 -> id 목록 -> 이름 조건 없이 maxPrice 만 있으면 headMap 범위
+ - CONTAINS 는 인덱스 없이 전체 확인(데이터베이스의 like '%검색어%' 와 같음)
+ - 이름과 가격 조건이 함께 있으면 이름 인덱스로 고른 뒤 가격 확인
+
+ * 동시성
+ - 조회는 읽기 잠금, 변경은 쓰기 잠금(ColumnarItemRepository 와 같음)
+ - 보관, 반환하는 Item 은 복사본 -> 호출한 쪽에서 변경해도 복제본에 반영되지 않음
+ - 검색은 RequestDeadline.CHECK_ROWS 개마다 요청 마감 시간 확인 -> 지나면 중단하고 읽기 잠금 해제
+ */
+public class ItemReplica {
+
+    private static final String PREFIX_END = String.valueOf(Character.MAX_VALUE);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Item> byId = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> names = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> lowerNames = new TreeMap<>();
+    private final NavigableMap<Integer, Set<Long>> prices = new TreeMap<>();
+
+    /**
+     * 저장, 수정(write-through) -> 같은 id 가 있으면 바꿈
+     */
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            replace(item.getId(), copy(item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 시작할 때 읽어 온 상품 보관 -> 그 사이 write-through 로 들어온 상품은 덮어쓰지 않음(더 최신 값)
+     * @return 보관한 상품 수
+     */
+    public int putAllIfAbsent(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            int stored = 0;
+            for (Item item : items) {
+                if (!byId.containsKey(item.getId())) {
+                    replace(item.getId(), copy(item));
+                    stored++;
+                }
+            }
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 현재 값이 expected 와 같을 때만 바꿈(일관성 검사의 복구)
+     - expected 가 null 이면 없을 때만 보관, item 이 null 이면 제거
+     -> 비교 후 복구하는 사이에 write-through 로 들어온 값을 되돌리지 않음
+     */
+    public boolean compareAndSet(Long id, Item expected, Item item) {
+        lock.writeLock().lock();
+        try {
+            if (!Objects.equals(byId.get(id), expected)) {
+                return false;
+            }
+            replace(id, item == null ? null : copy(item));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byId.get(id)).map(ItemReplica::copy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Item> findAll(ItemSearchCond cond) {
+        Long deadline = RequestDeadline.get();
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            int scanned = 0;
+            for (Item item : candidates(cond)) {
+                if (++scanned % RequestDeadline.CHECK_ROWS == 0) {
+                    RequestDeadline.check(deadline);
+                }
+                if (matches(item, cond)) {
+                    result.add(copy(item));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * id 가 afterId 보다 큰 상품 중 조건에 맞는 상품을 id 순으로 최대 limit 개
+     */
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        Long deadline = RequestDeadline.get();
+        lock.readLock().lock();
+        try {
+            Collection<Item> items = afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
+            List<Item> result = new ArrayList<>(Math.min(limit, 1024));
+            int scanned = 0;
+            for (Item item : items) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (++scanned % RequestDeadline.CHECK_ROWS == 0) {
+                    RequestDeadline.check(deadline);
+                }
+                if (matches(item, cond)) {
+                    result.add(copy(item));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * id 가 fromId 보다 크고 toId 이하인 상품(일관성 검사에서 데이터베이스 페이지와 비교)
+     */
+    public NavigableMap<Long, Item> findRange(long fromId, long toId) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, Item> result = new TreeMap<>();
+            for (Map.Entry<Long, Item> entry : byId.subMap(fromId, false, toId, true).entrySet()) {
+                result.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            names.clear();
+            lowerNames.clear();
+            prices.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 조건에 따라 확인할 상품을 인덱스로 고름(이름 인덱스 > 가격 인덱스 > 전체)
+     */
+    private Collection<Item> candidates(ItemSearchCond cond) {
+        String keyword = cond.getItemName();
+        if (StringUtils.hasText(keyword)) {
+            switch (cond.getMatchMode()) {
+                case EXACT:
+                    return items(names.get(keyword));
+                case PREFIX:
+                    return items(names.subMap(keyword, true, keyword + PREFIX_END, false).values());
+                case IGNORE_CASE:
+                    String normalized = MatchMode.normalize(keyword);
+                    return items(lowerNames.subMap(normalized, true, normalized + PREFIX_END, false).values());
+                default:
+                    break;
+            }
+        }
+        if (cond.getMaxPrice() != null) {
+            return items(prices.headMap(cond.getMaxPrice(), true).values());
+        }
+        return byId.values();
+    }
+
+    private List<Item> items(Set<Long> ids) {
+        return ids == null ? List.of() : items(List.of(ids));
+    }
+
+    //id 순으로 정렬 -> 인덱스 종류와 관계없이 결과 순서가 같음
+    private List<Item> items(Collection<Set<Long>> idSets) {
+        Set<Long> ids = new TreeSet<>();
+        idSets.forEach(ids::addAll);
+        List<Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            items.add(byId.get(id));
+        }
+        return items;
+    }
+
+    private static boolean matches(Item item, ItemSearchCond cond) {
+        if (StringUtils.hasText(cond.getItemName()) && !cond.getMatchMode().matches(item.getItemName(), cond.getItemName())) {
+            return false;
+        }
+        return cond.getMaxPrice() == null || (item.getPrice() != null && item.getPrice() <= cond.getMaxPrice());
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출, item 이 null 이면 제거
+     */
+    private void replace(Long id, Item item) {
+        Item previous = item == null ? byId.remove(id) : byId.put(id, item);
+        if (previous != null) {
+            unindex(names, previous.getItemName(), id);
+            unindex(lowerNames, MatchMode.normalize(previous.getItemName()), id);
+            unindex(prices, previous.getPrice(), id);
+        }
+        if (item != null) {
+            index(names, item.getItemName(), id);
+            index(lowerNames, MatchMode.normalize(item.getItemName()), id);
+            index(prices, item.getPrice(), id);
+        }
+    }
+
+    private static <K> void index(NavigableMap<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>(2)).add(id);
+        }
+    }
+
+    private static <K> void unindex(NavigableMap<K, Set<Long>> index, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,108 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 전체 상품 스냅샷 파일
+ - 형식 : [MAGIC(int)][lastLsn(long)][상품 수(int)][WAL 과 같은 형식의 레코드 ...]
+ - 임시 파일에 기록, fsync 후 이름 변경(ATOMIC_MOVE) -> 중간에 중단되어도 이전 스냅샷이 그대로 남음
+ - lastLsn : 스냅샷에 반영된 마지막 WAL 레코드 번호, 복구시 이후 레코드만 다시 적용
+ */
+public class ItemSnapshot {
+
+    private static final int MAGIC = 0x49544D53;    //"ITMS"
+    private static final int HEADER = 4 + 8 + 4;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final long lastLsn;
+    private final List<Item> items;
+
+    private ItemSnapshot(long lastLsn, List<Item> items) {
+        this.lastLsn = lastLsn;
+        this.items = items;
+    }
+
+    public long getLastLsn() {
+        return lastLsn;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public static void write(Path file, long lastLsn, Collection<Item> items) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            //레코드를 모아서 기록 -> 상품마다 write 호출하지 않도록
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            chunk.putInt(MAGIC).putLong(lastLsn).putInt(items.size());
+            for (Item item : items) {
+                ByteBuffer record = ItemWriteAheadLog.record(0, item);
+                if (chunk.remaining() < record.remaining()) {
+                    writeFully(channel, chunk.flip());
+                    chunk.clear();
+                }
+                if (chunk.remaining() < record.remaining()) {
+                    writeFully(channel, record);
+                } else {
+                    chunk.put(record);
+                }
+            }
+            writeFully(channel, chunk.flip());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 스냅샷 파일이 없으면 null
+     */
+    public static ItemSnapshot read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("스냅샷 형식이 아님 file = " + file);
+            }
+            long lastLsn = buffer.getLong();
+            int count = buffer.getInt();
+
+            List<Item> items = new ArrayList<>(count);
+            int read = ItemWriteAheadLog.readRecords(buffer, count, -1, (lsn, item) -> items.add(item));
+            if (read != count) {
+                throw new IllegalStateException("손상된 스냅샷 file = " + file + ", expected = " + count + ", read = " + read);
+            }
+            return new ItemSnapshot(lastLsn, items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵 기반 Write-Ahead Log
+ - 저장, 수정된 상품의 전체 상태를 레코드로 추가(append) -> 복구시 순서대로 다시 적용하면 마지막 상태가 됨
+ - 레코드 : [payload 길이(int)][CRC32(int)][payload]
+ - payload : lsn(long), id(long), null 플래그(byte), price(int), quantity(int), 이름 길이(int), 이름(UTF-8)
+ - 고정 크기 세그먼트 파일(wal-{세대}.log)을 미리 매핑해 두고, 가득 차면 다음 세대 파일로 교체
+ - 매핑된 메모리에 쓴 내용은 프로세스가 죽어도 OS 가 파일에 반영, OS 장애까지 대비하려면 force(fsync) 필요 -> FsyncPolicy
+
+ * 복구
+ - 세대 순서대로 세그먼트를 읽고, 길이가 0 이거나 CRC 가 맞지 않는 레코드를 만나면 그 세그먼트의 끝으로 판단(쓰는 중에 중단된 레코드)
+ - 복구 후에는 기존 세그먼트에 이어 쓰지 않고 새 세대 파일을 사용
+ */
+public class ItemWriteAheadLog implements Closeable {
+
+    public enum FsyncPolicy {
+        ALWAYS,     //레코드마다 force
+        INTERVAL,   //일정 주기로 force(DurableMemoryItemRepository 의 스케줄러)
+        NEVER       //OS 에 맡김
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void apply(long lsn, Item item);
+    }
+
+    static final int RECORD_HEADER = 8;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private static final byte NULL_NAME = 1;
+    private static final byte NULL_PRICE = 2;
+    private static final byte NULL_QUANTITY = 4;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final CRC32 crc = new CRC32();
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private ByteBuffer payload = ByteBuffer.allocate(256);
+    private boolean dirty;
+
+    public ItemWriteAheadLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long generation) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        open(generation);
+    }
+
+    public synchronized void append(long lsn, Item item) {
+        payload = encode(payload, lsn, item);
+        int length = payload.remaining();
+        if (RECORD_HEADER + length > segmentSize) {
+            throw new IllegalArgumentException("레코드가 세그먼트보다 큼 length = " + length);
+        }
+        if (buffer.remaining() < RECORD_HEADER + length) {
+            rotate();
+        }
+
+        crc.reset();
+        crc.update(payload.duplicate());
+        int position = buffer.position();
+        buffer.position(position + 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        //길이는 마지막에 기록 -> 길이가 보이면 payload 까지 쓰여진 레코드
+        buffer.putInt(position, length);
+        dirty = true;
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            force();
+        }
+    }
+
+    public synchronized void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 다음 세대 세그먼트로 교체
+     * @return 닫은 세그먼트의 세대 -> 스냅샷 이후 deleteUpTo 로 삭제
+     */
+    public synchronized long rotate() {
+        long sealed = generation;
+        closeSegment();
+        open(sealed + 1);
+        return sealed;
+    }
+
+    /**
+     * 스냅샷에 반영된 세그먼트 삭제
+     */
+    public void deleteUpTo(long lastGeneration) {
+        for (Path segment : segments(directory)) {
+            if (generationOf(segment) <= lastGeneration) {
+                try {
+                    Files.deleteIfExists(segment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeSegment();
+    }
+
+    /**
+     * 디렉토리의 세그먼트를 세대 순서대로 읽어서 afterLsn 이후의 레코드를 handler 에 전달
+     * @return 마지막 세그먼트의 세대, 세그먼트가 없으면 0
+     */
+    public static long replay(Path directory, long afterLsn, RecordHandler handler) {
+        long lastGeneration = 0;
+        for (Path segment : segments(directory)) {
+            lastGeneration = generationOf(segment);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                readRecords(buffer, Integer.MAX_VALUE, afterLsn, handler);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return lastGeneration;
+    }
+
+    /**
+     * 유효한 레코드를 최대 limit 개 읽음(스냅샷 파일도 같은 레코드 형식을 사용)
+     * @return 읽은 레코드 수
+     */
+    static int readRecords(ByteBuffer buffer, int limit, long afterLsn, RecordHandler handler) {
+        CRC32 crc = new CRC32();
+        int count = 0;
+        while (count < limit && buffer.remaining() >= RECORD_HEADER) {
+            int position = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(position);
+                break;
+            }
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(position);
+                break;
+            }
+            buffer.position(buffer.position() + length);
+
+            long lsn = record.getLong();
+            Item item = decode(record);
+            if (lsn > afterLsn) {
+                handler.apply(lsn, item);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 레코드 하나를 [길이][CRC][payload] 형식으로 반환(스냅샷 기록용)
+     */
+    static ByteBuffer record(long lsn, Item item) {
+        ByteBuffer payload = encode(ByteBuffer.allocate(64), lsn, item);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.remaining());
+        record.putInt(payload.remaining());
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        return record.flip();
+    }
+
+    /**
+     * payload 를 기록, 용량이 부족하면 더 큰 버퍼를 새로 만들어서 반환
+     */
+    private static ByteBuffer encode(ByteBuffer payload, long lsn, Item item) {
+        byte[] name = item.getItemName() == null ? new byte[0] : item.getItemName().getBytes(StandardCharsets.UTF_8);
+        int length = 8 + 8 + 1 + 4 + 4 + 4 + name.length;
+        if (payload.capacity() < length) {
+            payload = ByteBuffer.allocate(Math.max(length, payload.capacity() * 2));
+        }
+
+        byte flags = 0;
+        if (item.getItemName() == null) {
+            flags |= NULL_NAME;
+        }
+        if (item.getPrice() == null) {
+            flags |= NULL_PRICE;
+        }
+        if (item.getQuantity() == null) {
+            flags |= NULL_QUANTITY;
+        }
+
+        payload.clear();
+        payload.putLong(lsn);
+        payload.putLong(item.getId());
+        payload.put(flags);
+        payload.putInt(item.getPrice() == null ? 0 : item.getPrice());
+        payload.putInt(item.getQuantity() == null ? 0 : item.getQuantity());
+        payload.putInt(name.length);
+        payload.put(name);
+        return payload.flip();
+    }
+
+    private static Item decode(ByteBuffer record) {
+        long id = record.getLong();
+        byte flags = record.get();
+        int price = record.getInt();
+        int quantity = record.getInt();
+        byte[] name = new byte[record.getInt()];
+        record.get(name);
+
+        Item item = new Item(
+                (flags & NULL_NAME) != 0 ? null : new String(name, StandardCharsets.UTF_8),
+                (flags & NULL_PRICE) != 0 ? null : price,
+                (flags & NULL_QUANTITY) != 0 ? null : quantity);
+        item.setId(id);
+        return item;
+    }
+
+    private void open(long generation) {
+        this.generation = generation;
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(PREFIX + generation + SUFFIX),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSegment() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> segments(Path directory) {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.sort((a, b) -> Long.compare(generationOf(a), generationOf(b)));
+        return segments;
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -3,32 +3,78 @@ package hello.itemservice.repository.memory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.RequestDeadline;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PreDestroy;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
+/**
+ * 병렬 검색
+ - 저장된 상품 수가 parallelThreshold 이상이면 findAll 을 전용 ForkJoinPool 에서 구간을 나누어 병렬로 검색
+ - 기준 미만이면 기존처럼 순차 검색(작은 데이터는 작업 분할 비용이 더 큼)
+ - 구간별 결과를 원래 순서대로 이어 붙이므로 순차 검색과 결과 순서가 같음
+ - 공용 풀(ForkJoinPool.commonPool)을 쓰지 않음 -> parallel stream 등 다른 작업과 스레드를 나누지 않도록
+ - 요청 마감 시간(RequestDeadline)을 RequestDeadline.CHECK_ROWS 개마다 확인, 지나면 검색 중단(병렬 검색은 구간마다 요청 스레드의 마감 시간으로 확인)
+ - 저장소는 id 순 ConcurrentSkipListMap -> 요청 스레드가 저장, 수정하는 중에도 검색(상품 배열 복사)이 예외 없이 진행
+ - findPage 는 afterId 다음 id 부터 limit 개를 채울 때까지만 훑음(keyset 페이지)
+ */
 @Repository
 public class MemoryItemRepository implements ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+    private static final int MIN_CHUNK_SIZE = 4_096;
+
+    private static final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>(); //static
+    private static final AtomicLong sequence = new AtomicLong(); //static
+
+    //가격별 [상품 수, 재고 금액 합계] -> 저장/수정시 갱신, 이름 조건이 없는 집계는 상품을 훑지 않고 계산
+    private static final NavigableMap<Integer, long[]> priceTotals = new TreeMap<>(); //static
+
+    private final int parallelThreshold;
+    private final int parallelism;
+    private volatile ForkJoinPool pool;
+
+    public MemoryItemRepository() {
+        this(DEFAULT_PARALLEL_THRESHOLD, 0);
+    }
+
+    /**
+     * @param parallelism 병렬 검색 스레드 수, 0 이하이면 CPU 코어 수, 1 이면 항상 순차 검색
+     */
+    public MemoryItemRepository(int parallelThreshold, int parallelism) {
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
 
     @Override
     public Item save(Item item) {
-        item.setId(++sequence);
+        item.setId(sequence.incrementAndGet());
         store.put(item.getId(), item);
+        addPriceTotal(item.getPrice(), item.getQuantity(), 1);
         return item;
     }
 
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         Item findItem = findById(itemId).orElseThrow();
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        synchronized (findItem) {   //같은 상품을 동시에 수정해도 가격별 합계가 맞도록
+            addPriceTotal(findItem.getPrice(), findItem.getQuantity(), -1);
+            findItem.setItemName(updateParam.getItemName());
+            findItem.setPrice(updateParam.getPrice());
+            findItem.setQuantity(updateParam.getQuantity());
+            addPriceTotal(findItem.getPrice(), findItem.getQuantity(), 1);
+        }
     }
 
     @Override
@@ -38,25 +84,191 @@ public class MemoryItemRepository implements ItemRepository {
 
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
+        Predicate<Item> filter = filter(cond);
+        Long deadline = RequestDeadline.get();
+        if (parallelism > 1 && store.size() >= parallelThreshold) {
+            return parallelFindAll(filter, deadline);
+        }
+        List<Item> result = new ArrayList<>();
+        int scanned = 0;
+        for (Item item : store.values()) {
+            if (++scanned % RequestDeadline.CHECK_ROWS == 0) {
+                RequestDeadline.check(deadline);
+            }
+            if (filter.test(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        Predicate<Item> filter = filter(cond);
+        Long deadline = RequestDeadline.get();
+        Collection<Item> items = afterId == null ? store.values() : store.tailMap(afterId, false).values();
+        List<Item> result = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        for (Item item : items) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (++scanned % RequestDeadline.CHECK_ROWS == 0) {
+                RequestDeadline.check(deadline);
+            }
+            if (filter.test(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private static Predicate<Item> filter(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
-        return store.values().stream()
-                .filter(item -> {
-                    if (ObjectUtils.isEmpty(itemName)) {
-                        return true;
-                    }
-                    return item.getItemName().contains(itemName);
-                }).filter(item -> {
-                    if (maxPrice == null) {
-                        return true;
-                    }
-                    return item.getPrice() <= maxPrice;
-                })
-                .collect(Collectors.toList());
+        MatchMode matchMode = cond.getMatchMode();
+        return item -> {
+            if (!ObjectUtils.isEmpty(itemName) && !matchMode.matches(item.getItemName(), itemName)) {
+                return false;
+            }
+            return maxPrice == null || item.getPrice() <= maxPrice;
+        };
+    }
+
+    /**
+     * 이름 조건이 없으면 가격별 합계(priceTotals)로 계산 -> 상품 수가 아니라 서로 다른 가격 수에 비례
+     - 이름 조건이 있으면 상품을 확인해야 하므로 기본 구현(findAll 후 계산) 사용
+     - 저장된 Item 을 update 를 거치지 않고 직접 변경하면 합계가 맞지 않음
+     */
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        if (!ObjectUtils.isEmpty(cond.getItemName())) {
+            return ItemRepository.super.aggregate(cond, bucketSize);
+        }
+        ItemStats.checkBucketSize(bucketSize);
+
+        Integer maxPrice = cond.getMaxPrice();
+        synchronized (priceTotals) {
+            NavigableMap<Integer, long[]> prices = maxPrice == null ? priceTotals : priceTotals.headMap(maxPrice, true);
+            long count = 0;
+            long totalValue = 0;
+            Map<Integer, Long> histogram = new TreeMap<>();
+            for (Map.Entry<Integer, long[]> entry : prices.entrySet()) {
+                count += entry.getValue()[0];
+                totalValue += entry.getValue()[1];
+                histogram.merge(ItemStats.bucketOf(entry.getKey(), bucketSize), entry.getValue()[0], Long::sum);
+            }
+            if (maxPrice == null) {
+                count = store.size();   //가격이 없는 상품 포함
+            }
+            return new ItemStats(count, totalValue,
+                    prices.isEmpty() ? null : prices.firstKey(),
+                    prices.isEmpty() ? null : prices.lastKey(),
+                    bucketSize, histogram);
+        }
+    }
+
+    private static void addPriceTotal(Integer price, Integer quantity, int sign) {
+        if (price == null) {
+            return;
+        }
+        long value = quantity == null ? 0 : (long) price * quantity;
+        synchronized (priceTotals) {
+            long[] totals = priceTotals.computeIfAbsent(price, key -> new long[2]);
+            totals[0] += sign;
+            totals[1] += sign * value;
+            if (totals[0] == 0) {
+                priceTotals.remove(price);
+            }
+        }
+    }
+
+    private List<Item> parallelFindAll(Predicate<Item> filter, Long deadline) {
+        Item[] items = store.values().toArray(new Item[0]);
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, items.length / (parallelism * 4));
+        return pool().invoke(new ScanTask(items, 0, items.length, chunkSize, filter, deadline));
+    }
+
+    /**
+     * 풀은 처음 병렬 검색할 때 생성
+     */
+    private ForkJoinPool pool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallelism);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 병렬 검색을 한 번이라도 했으면 풀 스레드 종료
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
     }
 
     public void clearStore() {
         store.clear();
+        synchronized (priceTotals) {
+            priceTotals.clear();
+        }
+    }
+
+    /**
+     * [from, to) 구간을 chunkSize 이하가 될 때까지 반으로 나누어 검색
+     - 왼쪽 구간은 fork, 오른쪽 구간은 현재 스레드에서 처리한 뒤 왼쪽 결과 뒤에 붙임 -> 배열 순서 유지
+     */
+    private static class ScanTask extends RecursiveTask<List<Item>> {
+
+        private final Item[] items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Predicate<Item> filter;
+        private final Long deadline;
+
+        ScanTask(Item[] items, int from, int to, int chunkSize, Predicate<Item> filter, Long deadline) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.filter = filter;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected List<Item> compute() {
+            if (to - from <= chunkSize) {
+                RequestDeadline.check(deadline);
+                List<Item> result = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if ((i - from) % RequestDeadline.CHECK_ROWS == RequestDeadline.CHECK_ROWS - 1) {
+                        RequestDeadline.check(deadline);
+                    }
+                    if (filter.test(items[i])) {
+                        result.add(items[i]);
+                    }
+                }
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(items, from, mid, chunkSize, filter, deadline);
+            left.fork();
+            List<Item> right = new ScanTask(items, mid, to, chunkSize, filter, deadline).compute();
+            List<Item> result = left.join();
+            result.addAll(right);
+            return result;
+        }
     }
 
 }
@@ -0,0 +1,37 @@
+package hello.itemservice.repository.mybatis;
+
+import hello.itemservice.repository.RequestDeadline;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * 요청 마감 시간(RequestDeadline)을 MyBatis 쿼리 타임아웃으로 적용하는 플러그인(RequestDeadlineConfig 가 빈으로 등록)
+ - StatementHandler.prepare 가 매퍼 timeout, defaultStatementTimeout, 트랜잭션 타임아웃을 적용한 뒤 남은 시간과 비교해서 짧은 쪽 사용
+ - 마감 시간이 이미 지났으면 Statement 를 닫고 SQLTimeoutException -> MyBatisExceptionTranslator 가 QueryTimeoutException 으로 변환
+ -> 플러그인에서 런타임 예외를 던지면 MyBatis 가 PersistenceException 으로 감싸서 변환되지 않음
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class DeadlineStatementInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Statement statement = (Statement) invocation.proceed();
+        if (RequestDeadline.get() != null) {
+            try {
+                statement.setQueryTimeout(RequestDeadline.queryTimeoutSeconds(statement.getQueryTimeout()));
+            } catch (QueryTimeoutException e) {
+                statement.close();
+                throw new SQLTimeoutException(e.getMessage());
+            }
+        }
+        return statement;
+    }
+}
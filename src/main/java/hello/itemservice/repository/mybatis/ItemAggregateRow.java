@@ -0,0 +1,21 @@
+package hello.itemservice.repository.mybatis;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 집계 쿼리 결과(ItemMapper.aggregate, priceHistogram)
+ - aggregate : itemCount, totalValue, minPrice, maxPrice
+ - priceHistogram : bucket, itemCount
+ - 매퍼 2차 캐시에 보관되므로 Serializable
+ */
+@Data
+public class ItemAggregateRow implements Serializable {
+
+    private Integer bucket;
+    private Long itemCount;
+    private Long totalValue;
+    private Integer minPrice;
+    private Integer maxPrice;
+}
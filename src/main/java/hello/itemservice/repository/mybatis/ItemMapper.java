@@ -1,10 +1,12 @@
 package hello.itemservice.repository.mybatis;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
 import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,7 +19,24 @@ public interface ItemMapper {
     //파라미터가 2개인 경우 @Param 을 사용하여 파라미터 구분
     void update(@Param("id") Long id, @Param("updateParam")ItemUpdateDto updateParam);
 
+    //상품명으로 upsert, 생성 키는 받지 않음
+    void upsert(Item item);
+
     Optional<Item> findById(Long id);
 
+    List<Item> findAllById(@Param("ids") List<Long> ids);
+
     List<Item> findAll(ItemSearchCond itemSearch);
+
+    //목록 화면용 읽기 모델(생성자 매핑)
+    List<ItemView> findAllViews(ItemSearchCond itemSearch);
+
+    //결과를 한 건씩 읽는 커서 -> SqlSession 이 열려 있는 동안만 사용 가능
+    Cursor<Item> scan(ItemSearchCond itemSearch);
+
+    List<Item> findPage(@Param("cond") ItemSearchCond itemSearch, @Param("afterId") Long afterId, @Param("limit") int limit);
+
+    ItemAggregateRow aggregate(ItemSearchCond itemSearch);
+
+    List<ItemAggregateRow> priceHistogram(@Param("cond") ItemSearchCond itemSearch, @Param("bucketSize") int bucketSize);
 }
@@ -1,28 +1,55 @@
 package hello.itemservice.repository.mybatis;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.MyBatisExceptionTranslator;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * ItemMapper 구현체가 없는데 어떻게 동작하나??
  1. 애플리케이션 로딩 시점에 MyBatis 스프링 연동 모듈은 @Mapper 가 붙어있는 인터페이스 조사
  2. 해당 인터페이스가 발견되면 동적 프록시 기술을 사용해서 ItemMapper 인터페이스의 구현체를 만듦
  3. 생성된 구현체를 스프링 빈으로 등록
+
+ * 2차 캐시, fetchSize, 커서 설정은 ItemMapper.xml 참고
  */
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class MyBatisItemRepository implements ItemRepository {
 
     private final ItemMapper itemMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final MyBatisExceptionTranslator exceptionTranslator;
+
+    public MyBatisItemRepository(ItemMapper itemMapper, SqlSessionFactory sqlSessionFactory) {
+        this.itemMapper = itemMapper;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.exceptionTranslator = new MyBatisExceptionTranslator(
+                sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(), true);
+    }
 
     public Item save(Item item) {
         log.info("itemMapper class = {}", itemMapper.getClass());   //프록시 객체인 것을 확인할 수 있음
@@ -38,7 +65,104 @@ public class MyBatisItemRepository implements ItemRepository {
         return itemMapper.findById(id);
     }
 
+    /**
+     * REUSE 실행기 -> 같은 SQL 의 PreparedStatement 를 세션 안에서 재사용
+     - ItemIdBatches 로 묶음 크기를 맞추므로 묶음이 여러 개여도 같은 SQL 이 반복됨
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return execute(ExecutorType.REUSE, mapper -> {
+            List<Item> items = new ArrayList<>();
+            for (List<Long> batch : ItemIdBatches.split(ids)) {
+                items.addAll(mapper.findAllById(batch));
+            }
+            return ItemIdBatches.inRequestedOrder(ids, items);
+        });
+    }
+
+    /**
+     * BATCH 실행기 -> INSERT 를 모아서 한 번에 실행(JDBC addBatch/executeBatch)
+     - id 는 배치 실행 후 드라이버가 돌려준 생성 키로 채움
+     */
+    public List<Item> saveAll(Collection<Item> items) {
+        return execute(ExecutorType.BATCH, mapper -> {
+            for (Item item : items) {
+                mapper.save(item);
+            }
+            return new ArrayList<>(items);
+        });
+    }
+
+    /**
+     * BATCH 실행기 -> 상품마다 MERGE 를 모아서 한 번에 실행
+     */
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return execute(ExecutorType.BATCH, mapper -> {
+            for (Item item : items) {
+                mapper.upsert(item);
+            }
+            return items.size();
+        });
+    }
+
+    /**
+     * 조회 결과를 목록으로 모으지 않고 한 건씩 전달(커서, fetchSize 단위로 가져옴)
+     */
+    @Override
+    public void scan(ItemSearchCond cond, Consumer<Item> consumer) {
+        execute(ExecutorType.SIMPLE, mapper -> {
+            try (Cursor<Item> cursor = mapper.scan(cond)) {
+                cursor.forEach(consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 실행기(ExecutorType)를 골라서 매퍼 실행
+     - 기본 itemMapper 는 SIMPLE 실행기(문장마다 새 PreparedStatement)
+     - REUSE : 같은 SQL 의 PreparedStatement 재사용, BATCH : 변경 문장을 모아서 commit 시점에 실행
+     - SqlSession 을 직접 열고 닫음 -> 스프링 트랜잭션이 있으면 같은 커넥션을 사용(SpringManagedTransaction)
+     - 스프링 트랜잭션 안에서 SqlSessionTemplate(itemMapper)과 함께 사용해도 되지만, BATCH 로 실행한 변경은 이 메서드가 끝날 때 실행됨
+     */
+    public <T> T execute(ExecutorType executorType, Function<ItemMapper, T> work) {
+        try (SqlSession session = sqlSessionFactory.openSession(executorType)) {
+            T result = work.apply(session.getMapper(ItemMapper.class));
+            session.commit();   //BATCH 는 모아둔 문장 실행, 2차 캐시에 조회 결과 반영
+            return result;
+        } catch (PersistenceException e) {
+            DataAccessException translated = exceptionTranslator.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
     public List<Item> findAll(ItemSearchCond cond) {
         return itemMapper.findAll(cond);
     }
+
+    @Override
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return itemMapper.findAllViews(cond);
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        return itemMapper.findPage(cond, afterId, limit);
+    }
+
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        ItemAggregateRow totals = itemMapper.aggregate(cond);
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (ItemAggregateRow row : itemMapper.priceHistogram(cond, bucketSize)) {
+            histogram.put(row.getBucket(), row.getItemCount());
+        }
+        return new ItemStats(totals.getItemCount(),
+                totals.getTotalValue() == null ? 0 : totals.getTotalValue(),
+                totals.getMinPrice(), totals.getMaxPrice(), bucketSize, histogram);
+    }
 }
@@ -1,23 +1,43 @@
 package hello.itemservice.repository.v2;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.MatchMode;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static hello.itemservice.domain.QItem.item;
 
+/**
+ * 검색 전용 저장소 -> 읽기 전용 트랜잭션(복제본이 설정되어 있으면 복제본으로 조회)
+ */
 @Repository
+@Transactional(readOnly = true)
 public class ItemQueryRepositoryV2 {
 
+    private final EntityManager em;
     private final JPAQueryFactory query;
 
     public ItemQueryRepositoryV2(EntityManager em) {
+        this.em = em;
         this.query = new JPAQueryFactory(em);
     }
 
@@ -27,15 +47,110 @@ public class ItemQueryRepositoryV2 {
                 .from(item)
                 .where(
                         maxPrice(cond.getMaxPrice()),
-                        likeItemName(cond.getItemName()))
+                        likeItemName(cond.getItemName(), cond.getMatchMode()))
                 .fetch();
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if(StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    /**
+     * 목록 화면용 읽기 모델 -> 생성자 프로젝션(JpaItemRepositoryV3.findAllViews 참고)
+     */
+    public List<ItemView> findAllViews(ItemSearchCond cond) {
+        return query
+                .select(Projections.constructor(ItemView.class,
+                        item.id, item.itemName, item.price.coalesce(0), item.quantity.coalesce(0)))
+                .from(item)
+                .where(
+                        maxPrice(cond.getMaxPrice()),
+                        likeItemName(cond.getItemName(), cond.getMatchMode()))
+                .fetch();
+    }
+
+    /**
+     * keyset 페이지 -> 조회한 엔티티는 준영속 상태로 반환(JpaItemRepositoryV3.findPage 참고)
+     */
+    public List<Item> findPage(ItemSearchCond cond, Long afterId, int limit) {
+        List<Item> items = query
+                .select(item)
+                .from(item)
+                .where(
+                        item.id.gt(afterId == null ? 0L : afterId),
+                        maxPrice(cond.getMaxPrice()),
+                        likeItemName(cond.getItemName(), cond.getMatchMode()))
+                .orderBy(item.id.asc())
+                .limit(limit)
+                .fetch();
+        items.forEach(em::detach);
+        return items;
+    }
+
+    /**
+     * 검색 결과를 커서로 읽으면서 한 건씩 전달(JpaItemRepositoryV1.scan 참고)
+     */
+    public void scan(ItemSearchCond cond, Consumer<Item> consumer) {
+        try (Stream<Item> items = query
+                .select(item)
+                .from(item)
+                .where(
+                        maxPrice(cond.getMaxPrice()),
+                        likeItemName(cond.getItemName(), cond.getMatchMode()))
+                .orderBy(item.id.asc())
+                .setHint(QueryHints.HINT_FETCH_SIZE, ItemRepository.SCAN_PAGE_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream()) {
+            items.forEach(found -> {
+                consumer.accept(found);
+                em.detach(found);
+            });
+        }
+    }
+
+    /**
+     * 집계 쿼리(count, sum, min, max, group by) -> 엔티티를 조회하지 않음
+     - 구간 식은 select, group by 에 같은 식으로 들어가야 하므로 파라미터 대신 검증된 숫자를 템플릿에 직접 작성
+     */
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        ItemStats.checkBucketSize(bucketSize);
+        BooleanExpression nameCondition = likeItemName(cond.getItemName(), cond.getMatchMode());
+        BooleanExpression priceCondition = maxPrice(cond.getMaxPrice());
+
+        NumberExpression<Long> count = item.count();
+        NumberExpression<Long> totalValue = item.price.castToNum(Long.class).multiply(item.quantity).sum();
+        NumberExpression<Integer> lowestPrice = item.price.min();
+        NumberExpression<Integer> highestPrice = item.price.max();
+        Tuple totals = query
+                .select(count, totalValue, lowestPrice, highestPrice)
+                .from(item)
+                .where(nameCondition, priceCondition)
+                .fetchOne();
+
+        NumberExpression<Integer> bucket = Expressions.numberTemplate(Integer.class,
+                "{0} / " + bucketSize + " * " + bucketSize, item.price);
+        Map<Integer, Long> histogram = new TreeMap<>();
+        query
+                .select(bucket, count)
+                .from(item)
+                .where(nameCondition, priceCondition, item.price.isNotNull())
+                .groupBy(bucket)
+                .fetch()
+                .forEach(row -> histogram.put(row.get(bucket), row.get(count)));
+
+        Long total = totals.get(totalValue);
+        return new ItemStats(totals.get(count), total == null ? 0 : total,
+                totals.get(lowestPrice), totals.get(highestPrice), bucketSize, histogram);
+    }
+
+    private BooleanExpression likeItemName(String itemName, MatchMode matchMode) {
+        if(!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        switch (matchMode) {
+            case EXACT:
+                return item.itemName.eq(itemName);
+            case IGNORE_CASE:
+                return item.itemNameLower.like(matchMode.pattern(itemName), MatchMode.LIKE_ESCAPE);
+            default:
+                return item.itemName.like(matchMode.pattern(itemName), MatchMode.LIKE_ESCAPE);
         }
-        return null;
     }
 
     private BooleanExpression maxPrice(Integer maxPrice) {
@@ -3,5 +3,5 @@ package hello.itemservice.repository.v2;
 import hello.itemservice.domain.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ItemRepositoryV2  extends JpaRepository<Item, Long> {
+public interface ItemRepositoryV2  extends JpaRepository<Item, Long>, ItemUpsertRepositoryV2 {
 }
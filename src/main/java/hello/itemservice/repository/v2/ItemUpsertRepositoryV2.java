@@ -0,0 +1,14 @@
+package hello.itemservice.repository.v2;
+
+import hello.itemservice.domain.Item;
+
+import java.util.Collection;
+
+/**
+ * 스프링 데이터 JPA 사용자 정의 기능(fragment) -> 구현은 ItemUpsertRepositoryV2Impl(이름 규칙으로 스프링 데이터 JPA 가 찾아서 연결)
+ */
+public interface ItemUpsertRepositoryV2 {
+
+    //상품명으로 저장 또는 수정(가져오기용)
+    int upsertAll(Collection<Item> items);
+}
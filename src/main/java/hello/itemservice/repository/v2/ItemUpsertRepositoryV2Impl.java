@@ -0,0 +1,22 @@
+package hello.itemservice.repository.v2;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.jpa.JpaItemUpsert;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/**
+ * JPA 저장소(V1 ~ V3)와 같은 upsert 를 그대로 사용 -> 저장소 구현과 관계없이 같은 결과
+ */
+@RequiredArgsConstructor
+public class ItemUpsertRepositoryV2Impl implements ItemUpsertRepositoryV2 {
+
+    private final EntityManager em;
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return JpaItemUpsert.upsertAll(em, items);
+    }
+}
@@ -0,0 +1,98 @@
+package hello.itemservice.service;
+
+import hello.itemservice.cache.HotItemTracker;
+import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 조회된 상품 id 를 HotItemTracker 에 기록하는 ItemService 앞단(HotItemConfig 가 itemService 빈을 감쌈)
+ - findById, findByIds : 반환된 상품마다 기록
+ - findItems, findItemViews : 검색 결과 앞쪽 searchLimit 개만 기록 -> 전체 목록 조회 한 번이 감쇠를 일으켜 순위를 흔들지 않도록
+ - 목록 스트리밍(findItemPage), 내보내기(scanItems), 집계는 기록하지 않음(전체를 훑는 조회)
+ */
+public class HotItemTrackingItemService implements ItemService {
+
+    private final ItemService target;
+    private final HotItemTracker tracker;
+    private final int searchLimit;
+
+    public HotItemTrackingItemService(ItemService target, HotItemTracker tracker, int searchLimit) {
+        this.target = target;
+        this.tracker = tracker;
+        this.searchLimit = searchLimit;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return target.save(item);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return target.upsertAll(items);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        Optional<Item> item = target.findById(id);
+        if (item.isPresent()) {
+            tracker.record(id);
+        }
+        return item;
+    }
+
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        List<Item> items = target.findByIds(ids);
+        for (Item item : items) {
+            tracker.record(item.getId());
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        List<Item> items = target.findItems(itemSearch);
+        for (int i = 0; i < Math.min(searchLimit, items.size()); i++) {
+            tracker.record(items.get(i).getId());
+        }
+        return items;
+    }
+
+    @Override
+    public List<ItemView> findItemViews(ItemSearchCond itemSearch) {
+        List<ItemView> items = target.findItemViews(itemSearch);
+        for (int i = 0; i < Math.min(searchLimit, items.size()); i++) {
+            tracker.record(items.get(i).getId());
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> findItemPage(ItemSearchCond itemSearch, Long afterId, int limit) {
+        return target.findItemPage(itemSearch, afterId, limit);
+    }
+
+    @Override
+    public ItemStats aggregate(ItemSearchCond itemSearch, int bucketSize) {
+        return target.aggregate(itemSearch, bucketSize);
+    }
+
+    @Override
+    public void scanItems(ItemSearchCond itemSearch, Consumer<Item> consumer) {
+        target.scanItems(itemSearch, consumer);
+    }
+}
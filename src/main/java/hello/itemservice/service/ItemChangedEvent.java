@@ -0,0 +1,47 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 상품 저장/수정 이벤트(ItemService 가 발행)
+ - 발행 시점의 값을 복사해서 보관 -> 이후 엔티티가 변경되어도 이벤트 내용은 그대로
+ - RESET : 가져오기처럼 바뀐 상품을 하나씩 알리지 않는 대량 변경(ItemImporter 가 발행), itemId 등은 null
+ -> 받는 쪽은 전체가 바뀐 것으로 처리(캐시 전체 무효화, 변경 피드 구독자는 /items 로 다시 조회)
+ */
+@Getter
+@ToString
+public class ItemChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, RESET
+    }
+
+    private final Type type;
+    private final Long itemId;
+    private final String itemName;
+    private final Integer price;
+    private final Integer quantity;
+
+    public ItemChangedEvent(Type type, Long itemId, String itemName, Integer price, Integer quantity) {
+        this.type = type;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public static ItemChangedEvent created(Item item) {
+        return new ItemChangedEvent(Type.CREATED, item.getId(), item.getItemName(), item.getPrice(), item.getQuantity());
+    }
+
+    public static ItemChangedEvent reset() {
+        return new ItemChangedEvent(Type.RESET, null, null, null, null);
+    }
+
+    public static ItemChangedEvent updated(Long itemId, ItemUpdateDto updateParam) {
+        return new ItemChangedEvent(Type.UPDATED, itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+    }
+}
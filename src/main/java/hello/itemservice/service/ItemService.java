@@ -1,11 +1,15 @@
 package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -13,7 +17,25 @@ public interface ItemService {
 
     void update(Long itemId, ItemUpdateDto updateParam);
 
+    //상품명으로 저장 또는 수정(가져오기용), ItemChangedEvent 는 발행하지 않음 -> 가져오기가 끝나면 ItemImporter 가 RESET 발행
+    int upsertAll(Collection<Item> items);
+
     Optional<Item> findById(Long id);
 
+    //요청한 id 순서대로 반환, 없는 id 와 중복 id 는 제외
+    List<Item> findByIds(Collection<Long> ids);
+
     List<Item> findItems(ItemSearchCond itemSearch);
+
+    //목록 화면용 읽기 전용 조회(findItems 와 같은 조건), 변경할 수 없는 ItemView 로 반환
+    List<ItemView> findItemViews(ItemSearchCond itemSearch);
+
+    //검색 조건에 맞는 상품 중 id 가 afterId 보다 큰 상품을 id 순으로 최대 limit 개(afterId 가 null 이면 처음부터)
+    List<Item> findItemPage(ItemSearchCond itemSearch, Long afterId, int limit);
+
+    //검색 조건에 맞는 상품 수, 재고 금액, 최저/최고 가격, 가격 구간별 상품 수
+    ItemStats aggregate(ItemSearchCond itemSearch, int bucketSize);
+
+    //검색 조건에 맞는 상품을 id 순으로 한 건씩 전달, 목록으로 모으지 않음(내보내기용)
+    void scanItems(ItemSearchCond itemSearch, Consumer<Item> consumer);
 }
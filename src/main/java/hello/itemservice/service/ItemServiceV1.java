@@ -1,38 +1,110 @@
 package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * 저장/수정 후 ItemChangedEvent 발행 -> 변경 피드(ItemChangeFeed)에서 구독자에게 전달
+ - 설정 클래스에서 new 로 생성해도 빈으로 등록되면 ApplicationEventPublisherAware 로 발행기를 주입받음
+ - 빈으로 등록되지 않은 경우(섀도 비교용 등) 이벤트를 발행하지 않음
+
+ * 조회 메서드는 읽기 전용 표시만 하고 트랜잭션은 시작하지 않음(SUPPORTS)
+ - 메모리 저장소는 커넥션을 가져오지 않고, 데이터베이스 저장소는 복제본으로 조회(ReadWriteRoutingDataSource)
+ */
 @Service
 @RequiredArgsConstructor
-public class ItemServiceV1 implements ItemService {
+public class ItemServiceV1 implements ItemService, ApplicationEventPublisherAware {
 
     private final ItemRepository itemRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
 
     @Override
     public Item save(Item item) {
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        publish(ItemChangedEvent.created(savedItem));
+        return savedItem;
     }
 
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         itemRepository.update(itemId, updateParam);
+        publish(ItemChangedEvent.updated(itemId, updateParam));
+    }
+
+    /**
+     * 가져오기(ItemImporter)에서 묶음 단위로 호출 -> 상품마다 이벤트를 발행하면 구독자에게 대량의 변경이 한꺼번에 쏟아지므로 발행하지 않음
+     - 가져오기가 끝나면 ItemImporter 가 ItemChangedEvent.reset() 하나를 발행
+     */
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return itemRepository.upsertAll(items);
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<Item> findByIds(Collection<Long> ids) {
+        return itemRepository.findAllById(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Item> findItems(ItemSearchCond cond) {
         return itemRepository.findAll(cond);
     }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ItemView> findItemViews(ItemSearchCond cond) {
+        return itemRepository.findAllViews(cond);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<Item> findItemPage(ItemSearchCond cond, Long afterId, int limit) {
+        return itemRepository.findPage(cond, afterId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return itemRepository.aggregate(cond, bucketSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public void scanItems(ItemSearchCond cond, Consumer<Item> consumer) {
+        itemRepository.scan(cond, consumer);
+    }
+
+    private void publish(ItemChangedEvent event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
 }
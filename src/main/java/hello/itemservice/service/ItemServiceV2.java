@@ -1,28 +1,49 @@
 package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemIdBatches;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.repository.v2.ItemQueryRepositoryV2;
 import hello.itemservice.repository.v2.ItemRepositoryV2;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * 저장/수정 후 ItemChangedEvent 발행
+ - 트랜잭션 안에서 발행하므로 구독 쪽(@TransactionalEventListener)은 커밋 후에 이벤트를 받음 -> 롤백된 변경은 전달되지 않음
+ - 조회는 읽기 전용 트랜잭션 -> 변경 감지(flush) 생략, 복제본이 설정되어 있으면 복제본으로 조회(ReadWriteRoutingDataSource)
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
-public class ItemServiceV2 implements ItemService {
+public class ItemServiceV2 implements ItemService, ApplicationEventPublisherAware {
 
     private final ItemRepositoryV2 itemRepositoryV2;
     private final ItemQueryRepositoryV2 itemQueryRepositoryV2;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
 
     @Override
     public Item save(Item item) {
-        return itemRepositoryV2.save(item);
+        Item savedItem = itemRepositoryV2.save(item);
+        publish(ItemChangedEvent.created(savedItem));
+        return savedItem;
     }
 
     @Override
@@ -31,15 +52,67 @@ public class ItemServiceV2 implements ItemService {
         findItem.setItemName(updateParam.getItemName());
         findItem.setPrice(updateParam.getPrice());
         findItem.setQuantity(updateParam.getQuantity());
+        publish(ItemChangedEvent.updated(itemId, updateParam));
+    }
+
+    /**
+     * JPA 저장소와 같은 upsert(JpaItemUpsert, ItemUpsertRepositoryV2)
+     - 상품마다 ItemChangedEvent 는 발행하지 않음 -> 가져오기가 끝나면 ItemImporter 가 RESET 이벤트 하나를 발행
+     */
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return itemRepositoryV2.upsertAll(items);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return itemRepositoryV2.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Item> findByIds(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>();
+        for (List<Long> batch : ItemIdBatches.split(ids)) {
+            items.addAll(itemRepositoryV2.findAllById(batch));
+        }
+        return ItemIdBatches.inRequestedOrder(ids, items);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> findItems(ItemSearchCond cond) {
         return itemQueryRepositoryV2.findAll(cond);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemView> findItemViews(ItemSearchCond cond) {
+        return itemQueryRepositoryV2.findAllViews(cond);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findItemPage(ItemSearchCond cond, Long afterId, int limit) {
+        return itemQueryRepositoryV2.findPage(cond, afterId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return itemQueryRepositoryV2.aggregate(cond, bucketSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scanItems(ItemSearchCond cond, Consumer<Item> consumer) {
+        itemQueryRepositoryV2.scan(cond, consumer);
+    }
+
+    private void publish(ItemChangedEvent event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
 }
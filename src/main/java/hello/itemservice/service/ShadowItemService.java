@@ -0,0 +1,167 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 섀도 모드
+ - 모든 요청은 primary 에서 처리하고 그 결과를 그대로 반환
+ - 조회(findById, findByIds, findItems) 요청은 shadow 구현에도 비동기로 보내서 응답 시간과 결과 일치 여부를 ShadowMetrics 에 기록
+ - shadow 쪽 지연, 예외는 요청 처리에 영향을 주지 않음(큐가 가득 차면 비교를 건너뜀)
+ - 저장, 수정은 primary 에만 반영 -> 같은 데이터베이스를 보는 구현끼리 비교해야 의미가 있음
+ */
+@Slf4j
+public class ShadowItemService implements ItemService {
+
+    private static final Comparator<Item> BY_ID = Comparator.comparing(Item::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ItemService primary;
+    private final ItemService shadow;
+    private final ExecutorService executor;
+    private final ShadowMetrics metrics;
+
+    public ShadowItemService(ItemService primary, ItemService shadow, ExecutorService executor, ShadowMetrics metrics) {
+        this.primary = primary;
+        this.shadow = shadow;
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return primary.save(item);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        primary.update(itemId, updateParam);
+    }
+
+    @Override
+    public int upsertAll(Collection<Item> items) {
+        return primary.upsertAll(items);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        long start = System.nanoTime();
+        Optional<Item> result = primary.findById(id);
+        mirror("findById", System.nanoTime() - start, result.map(ShadowItemService::copy), () -> shadow.findById(id));
+        return result;
+    }
+
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        List<Long> shadowIds = new ArrayList<>(ids);
+        long start = System.nanoTime();
+        List<Item> result = primary.findByIds(ids);
+        mirror("findByIds", System.nanoTime() - start, sorted(result), () -> sorted(shadow.findByIds(shadowIds)));
+        return result;
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        ItemSearchCond shadowCond = new ItemSearchCond(cond.getItemName(), cond.getMaxPrice(), cond.getMatchMode());
+        long start = System.nanoTime();
+        List<Item> result = primary.findItems(cond);
+        mirror("findItems", System.nanoTime() - start, sorted(result), () -> sorted(shadow.findItems(shadowCond)));
+        return result;
+    }
+
+    //ItemView 는 변경할 수 없으므로 복사하지 않고 정렬한 목록만 새로 만듦
+    @Override
+    public List<ItemView> findItemViews(ItemSearchCond cond) {
+        ItemSearchCond shadowCond = new ItemSearchCond(cond.getItemName(), cond.getMaxPrice(), cond.getMatchMode());
+        long start = System.nanoTime();
+        List<ItemView> result = primary.findItemViews(cond);
+        mirror("findItemViews", System.nanoTime() - start, sortedViews(result), () -> sortedViews(shadow.findItemViews(shadowCond)));
+        return result;
+    }
+
+    //페이지 조회는 한 요청에서 여러 번 호출되므로 비교하지 않고 primary 에서만 처리
+    @Override
+    public List<Item> findItemPage(ItemSearchCond cond, Long afterId, int limit) {
+        return primary.findItemPage(cond, afterId, limit);
+    }
+
+    //내보내기는 비교하지 않고 primary 에서만 처리
+    @Override
+    public void scanItems(ItemSearchCond cond, Consumer<Item> consumer) {
+        primary.scanItems(cond, consumer);
+    }
+
+    //집계는 비교하지 않고 primary 에서만 처리
+    @Override
+    public ItemStats aggregate(ItemSearchCond cond, int bucketSize) {
+        return primary.aggregate(cond, bucketSize);
+    }
+
+    /**
+     * primary 결과는 호출 스레드에서 복사해 두고 비교만 비동기로 실행
+     -> JPA 엔티티처럼 이후에 변경될 수 있는 객체를 다른 스레드에서 읽지 않도록
+     */
+    private <T> void mirror(String operation, long primaryElapsed, T expected, Supplier<T> shadowCall) {
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    T actual = shadowCall.get();
+                    long shadowElapsed = System.nanoTime() - start;
+                    boolean match = Objects.equals(expected, actual);
+                    if (!match) {
+                        log.warn("shadow mismatch operation={}, primary={}, shadow={}", operation, expected, actual);
+                    }
+                    metrics.compared(match, primaryElapsed, shadowElapsed);
+                } catch (RuntimeException e) {
+                    log.warn("shadow failed operation={}", operation, e);
+                    metrics.failed();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.dropped();
+        }
+    }
+
+    /**
+     * 구현마다 ORDER BY 가 없어서 순서가 다를 수 있으므로 id 순으로 정렬한 복사본으로 비교
+     */
+    private static List<Item> sorted(List<Item> items) {
+        List<Item> copies = new ArrayList<>(items.size());
+        for (Item item : items) {
+            copies.add(copy(item));
+        }
+        copies.sort(BY_ID);
+        return copies;
+    }
+
+    private static List<ItemView> sortedViews(List<ItemView> views) {
+        List<ItemView> sorted = new ArrayList<>(views);
+        sorted.sort(Comparator.comparingLong(ItemView::getId));
+        return sorted;
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        return copy;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,55 @@
+package hello.itemservice.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 섀도 비교 결과 집계
+ - mirrored : 섀도 구현에서 실행된 조회 수, dropped : 큐가 가득 차서 버린 조회 수
+ - matched / mismatched : 결과 일치 여부, failed : 섀도 구현에서 예외 발생
+ - primary / shadow 응답 시간 합계로 평균 응답 시간 비교
+ */
+public class ShadowMetrics {
+
+    private final LongAdder mirrored = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder primaryNanos = new LongAdder();
+    private final LongAdder shadowNanos = new LongAdder();
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void failed() {
+        mirrored.increment();
+        failed.increment();
+    }
+
+    void compared(boolean match, long primaryElapsed, long shadowElapsed) {
+        mirrored.increment();
+        if (match) {
+            matched.increment();
+        } else {
+            mismatched.increment();
+        }
+        primaryNanos.add(primaryElapsed);
+        shadowNanos.add(shadowElapsed);
+    }
+
+    public Map<String, Object> snapshot() {
+        long compared = matched.sum() + mismatched.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("mirrored", mirrored.sum());
+        snapshot.put("dropped", dropped.sum());
+        snapshot.put("matched", matched.sum());
+        snapshot.put("mismatched", mismatched.sum());
+        snapshot.put("failed", failed.sum());
+        snapshot.put("primaryAvgMs", compared == 0 ? 0.0 : primaryNanos.sum() / 1_000_000.0 / compared);
+        snapshot.put("shadowAvgMs", compared == 0 ? 0.0 : shadowNanos.sum() / 1_000_000.0 / compared);
+        return snapshot;
+    }
+}
@@ -0,0 +1,160 @@
+package hello.itemservice.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 응답 시간으로 조정하는 동시 처리 한도(gradient 방식)
+ - 한도만큼 처리 중이면 새 요청은 기다리지 않고 바로 거절(tryAcquire -> null)
+ - longRtt : 긴 구간의 평균 응답 시간(평소 응답 시간), shortRtt : 최근 평균 응답 시간
+ - 최근 응답 시간이 평소보다 길어지면(대기열이 생기면) 그 비율(gradient)만큼 한도를 줄이고, 같으면 sqrt(한도)만큼 늘림
+   newLimit = limit * clamp(tolerance * longRtt / shortRtt, 0.5, 1.0) + sqrt(limit)
+ - 요청이 실패하면(예외) 한도를 10% 줄임(AIMD 의 multiplicative decrease)
+ - 처리 중인 요청이 한도의 절반도 안 되면 한도를 늘리지 않음 -> 부하가 없을 때 한도가 끝없이 커지지 않도록
+ - 오래 느린 상태가 이어지면 longRtt 를 shortRtt 쪽으로 낮춤 -> 느려진 상태를 평소로 받아들이지 않도록
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.01;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_DECREASE = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    //update 에서만 변경(synchronized)
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock 응답 시간 측정용 시계(테스트에서 응답 시간을 직접 정할 수 있도록)
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("한도 설정 오류 initial = " + initialLimit + ", min = " + minLimit + ", max = " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * @return 처리 허가, 한도를 넘으면 null
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return new Permit(current + 1, nanoClock.getAsLong());
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart, boolean failed) {
+        if (failed) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_DECREASE);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        //시계 해상도보다 빠르면 0 -> longRtt / shortRtt 가 NaN 이 되지 않도록 최소 1ns
+        rttNanos = Math.max(1, rttNanos);
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos = shortRttNanos * (1 - SHORT_WEIGHT) + rttNanos * SHORT_WEIGHT;
+            longRttNanos = longRttNanos * (1 - LONG_WEIGHT) + rttNanos * LONG_WEIGHT;
+        }
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * limit : 현재 한도, inFlight : 처리 중인 요청 수
+     * accepted, rejected : 허가/거절한 요청 수, dropped : 처리 중 실패한 요청 수
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("limit", limit);
+        snapshot.put("inFlight", inFlight.get());
+        snapshot.put("accepted", accepted.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("dropped", dropped.sum());
+        snapshot.put("shortRttMs", shortRttNanos / 1_000_000);
+        snapshot.put("longRttMs", longRttNanos / 1_000_000);
+        return snapshot;
+    }
+
+    /**
+     * 허가 한 번에 대해 success, failure 중 처음 호출한 것만 반영
+     */
+    public class Permit {
+
+        private final int inFlightAtStart;
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public void success() {
+            release(false);
+        }
+
+        public void failure() {
+            release(true);
+        }
+
+        private void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            if (failed) {
+                dropped.increment();
+            }
+            update(nanoClock.getAsLong() - startNanos, inFlightAtStart, failed);
+        }
+    }
+}
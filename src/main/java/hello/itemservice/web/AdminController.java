@@ -0,0 +1,115 @@
+package hello.itemservice.web;
+
+import hello.itemservice.cache.HotItemSnapshot;
+import hello.itemservice.cache.HotItemTracker;
+import hello.itemservice.cache.ItemChangePoller;
+import hello.itemservice.datasource.ReplicaSelector;
+import hello.itemservice.repository.jdbctemplate.ReplicatedItemRepository;
+import hello.itemservice.service.ShadowMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 운영 확인용 지표 조회(JSON)
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ObjectProvider<ShadowMetrics> shadowMetrics;
+    private final ObjectProvider<ReplicaSelector> replicaSelector;
+    private final ObjectProvider<ReplicatedItemRepository> replicatedItemRepository;
+    private final ObjectProvider<ConcurrencyLimitInterceptor> concurrencyLimitInterceptor;
+    private final ObjectProvider<ItemChangePoller> itemChangePoller;
+    private final ObjectProvider<HotItemTracker> hotItemTracker;
+    private final ObjectProvider<HotItemSnapshot> hotItemSnapshot;
+    private final ItemChangeFeed itemChangeFeed;
+    private final SingleFlightItemLoader singleFlightItemLoader;
+    private final ItemImporter itemImporter;
+
+    @GetMapping("/shadow")
+    public ResponseEntity<Map<String, Object>> shadow() {
+        ShadowMetrics metrics = shadowMetrics.getIfAvailable();
+        if (metrics == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(metrics.snapshot());
+    }
+
+    @GetMapping("/replicas")
+    public ResponseEntity<List<Map<String, Object>>> replicas() {
+        ReplicaSelector selector = replicaSelector.getIfAvailable();
+        if (selector == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(selector.snapshot());
+    }
+
+    /**
+     * 메모리 복제본 상태(읽기 완료 여부, 크기, 마지막 읽기와 일관성 검사 결과)
+     */
+    @GetMapping("/replicated")
+    public ResponseEntity<Map<String, Object>> replicated() {
+        ReplicatedItemRepository repository = replicatedItemRepository.getIfAvailable();
+        if (repository == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(repository.snapshot());
+    }
+
+    @GetMapping("/limits")
+    public ResponseEntity<Map<String, Object>> limits() {
+        ConcurrencyLimitInterceptor interceptor = concurrencyLimitInterceptor.getIfAvailable();
+        if (interceptor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(interceptor.snapshot());
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cache() {
+        ItemChangePoller poller = itemChangePoller.getIfAvailable();
+        if (poller == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(poller.snapshot());
+    }
+
+    /**
+     * 자주 조회되는 상품 상위 limit 개(추정 조회 수 순)
+     */
+    @GetMapping("/hot")
+    public ResponseEntity<Map<String, Object>> hot(@RequestParam(defaultValue = "20") int limit) {
+        HotItemTracker tracker = hotItemTracker.getIfAvailable();
+        if (tracker == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> snapshot = tracker.snapshot(Math.max(0, limit));
+        hotItemSnapshot.ifAvailable(saved -> snapshot.put("snapshot", saved.snapshot()));
+        return ResponseEntity.ok(snapshot);
+    }
+
+    @GetMapping("/changes")
+    public Map<String, Object> changes() {
+        return itemChangeFeed.snapshot();
+    }
+
+    @GetMapping("/coalescing")
+    public Map<String, Object> coalescing() {
+        return singleFlightItemLoader.snapshot();
+    }
+
+    @GetMapping("/imports")
+    public Map<String, Object> imports() {
+        return itemImporter.snapshot();
+    }
+}
@@ -0,0 +1,84 @@
+package hello.itemservice.web;
+
+import hello.itemservice.web.AdaptiveConcurrencyLimit.Permit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요청 종류(EndpointClass)별 동시 처리 한도 적용
+ - @ConcurrencyLimited 핸들러만 대상, 종류마다 AdaptiveConcurrencyLimit 하나
+ - 한도를 넘으면 컨트롤러를 호출하지 않고 바로 503 + Retry-After -> 커넥션 풀 앞에서 스레드가 쌓이지 않음
+ - 오류 화면(/error)으로 넘기지 않고 짧은 본문만 기록 -> 거절 비용을 작게 유지
+ - 응답 시간은 요청 처리가 끝난 시점(afterCompletion)까지 측정, 예외로 끝나면 실패로 반영
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final byte[] REJECTED_BODY = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limits.put(endpointClass, new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimited limited = ((HandlerMethod) handler).getMethodAnnotation(ConcurrencyLimited.class);
+        if (limited == null) {
+            return true;
+        }
+
+        Permit permit = limits.get(limited.value()).tryAcquire();
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getOutputStream().write(REJECTED_BODY);
+            return false;
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        if (ex != null || response.getStatus() >= 500) {
+            permit.failure();
+        } else {
+            permit.success();
+        }
+    }
+
+    public AdaptiveConcurrencyLimit limit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        limits.forEach((endpointClass, limit) -> snapshot.put(endpointClass.name().toLowerCase(), limit.snapshot()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,17 @@
+package hello.itemservice.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 종류별 동시 처리 한도를 적용할 핸들러 메서드 표시(ConcurrencyLimitInterceptor)
+ - 표시하지 않은 핸들러(등록 화면, 변경 피드 등)는 한도 없이 처리
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    EndpointClass value();
+}
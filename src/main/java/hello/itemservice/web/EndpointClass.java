@@ -0,0 +1,12 @@
+package hello.itemservice.web;
+
+/**
+ * 동시 처리 한도를 따로 두는 요청 종류(ConcurrencyLimitInterceptor)
+ - SEARCH : 목록, 검색, 통계 -> 여러 행을 훑는 느린 조회
+ - DETAIL : id 로 조회하는 상세, 수정 화면, 여러 id 조회
+ - WRITE : 등록, 수정
+ -> 느린 검색이 한도를 다 써도 상세 조회, 변경은 각자의 한도 안에서 처리
+ */
+public enum EndpointClass {
+    SEARCH, DETAIL, WRITE
+}
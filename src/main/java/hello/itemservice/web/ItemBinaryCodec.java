@@ -0,0 +1,308 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 내부 서비스 간 대량 상품 전송용 이진 형식(application/x-item-binary)
+ - 스트림 : MAGIC(4바이트 "ITM1") + 블록 ... + 끝 블록(상품 수 0)
+ - 블록 : 상품 수(varint) + 본문 길이(varint) + 본문, 최대 BLOCK_ITEMS 개 또는 약 BLOCK_BYTES 바이트
+ - 상품 : flags(1바이트, 값이 있는 필드 표시) + id(블록 안 이전 id 와의 차이) + price + quantity + 이름(UTF-8 길이 + 바이트)
+ - 정수는 zigzag varint -> 작은 값과 음수도 짧게, id 는 보통 증가 순서라 차이가 1~2바이트
+ - 블록마다 id 차이를 새로 시작 -> 블록 단위로 독립적으로 읽을 수 있음
+
+ * 블록 버퍼(byte[]) 하나에 바로 기록하고 읽음 -> 상품마다 중간 byte[] 를 만들지 않음(ASCII 가 아닌 이름만 인코딩 결과를 복사)
+ */
+public final class ItemBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-item-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    static final int MAGIC = 0x49544D31;    //"ITM1"
+    static final int BLOCK_ITEMS = 1024;
+    static final int BLOCK_BYTES = 64 * 1024;
+    static final int MAX_BLOCK_BYTES = 16 * 1024 * 1024;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_PRICE = 1 << 2;
+    private static final int HAS_QUANTITY = 1 << 3;
+    private static final int MAX_FIXED_BYTES = 1 + 10 + 5 + 5 + 5;   //flags + varlong + varint * 3
+
+    private ItemBinaryCodec() {
+    }
+
+    /**
+     * 상품을 블록 단위로 모아서 출력 -> 마지막에 finish 로 남은 블록과 끝 블록 기록(out 은 닫지 않음)
+     */
+    public static class Encoder {
+
+        private final OutputStream out;
+        private final byte[] header = new byte[10];
+        private byte[] block = new byte[BLOCK_BYTES];
+        private int position;
+        private int count;
+        private long previousId;
+        private boolean started;
+
+        public Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(Item item) throws IOException {
+            if (!started) {
+                writeInt(MAGIC);
+                started = true;
+            }
+
+            String name = item.getItemName();
+            int nameBytes = name == null ? 0 : (isAscii(name) ? name.length() : -1);
+            byte[] encodedName = nameBytes < 0 ? name.getBytes(StandardCharsets.UTF_8) : null;
+            ensureCapacity(MAX_FIXED_BYTES + 5 + (encodedName != null ? encodedName.length : nameBytes));
+
+            int flags = (item.getId() != null ? HAS_ID : 0) | (name != null ? HAS_NAME : 0)
+                    | (item.getPrice() != null ? HAS_PRICE : 0) | (item.getQuantity() != null ? HAS_QUANTITY : 0);
+            block[position++] = (byte) flags;
+            if (item.getId() != null) {
+                position = putVarLong(block, position, zigzag(item.getId() - previousId));
+                previousId = item.getId();
+            }
+            if (item.getPrice() != null) {
+                position = putVarLong(block, position, zigzag(item.getPrice()));
+            }
+            if (item.getQuantity() != null) {
+                position = putVarLong(block, position, zigzag(item.getQuantity()));
+            }
+            if (encodedName != null) {
+                position = putVarLong(block, position, encodedName.length);
+                System.arraycopy(encodedName, 0, block, position, encodedName.length);
+                position += encodedName.length;
+            } else if (name != null) {
+                position = putVarLong(block, position, nameBytes);
+                for (int i = 0; i < nameBytes; i++) {
+                    block[position++] = (byte) name.charAt(i);
+                }
+            }
+
+            if (++count >= BLOCK_ITEMS || position >= BLOCK_BYTES) {
+                flushBlock();
+            }
+        }
+
+        public void finish() throws IOException {
+            if (!started) {
+                writeInt(MAGIC);
+                started = true;
+            }
+            flushBlock();
+            out.write(0);   //끝 블록
+            out.flush();
+        }
+
+        private void flushBlock() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            int length = putVarLong(header, 0, count);
+            length = putVarLong(header, length, position);
+            out.write(header, 0, length);
+            out.write(block, 0, position);
+            position = 0;
+            count = 0;
+            previousId = 0;
+        }
+
+        //긴 이름 하나로 기본 크기를 넘는 경우에만 늘림
+        private void ensureCapacity(int bytes) throws IOException {
+            if (position + bytes <= block.length) {
+                return;
+            }
+            flushBlock();
+            if (bytes > block.length) {
+                block = new byte[bytes];
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value >>> 24);
+            out.write(value >>> 16);
+            out.write(value >>> 8);
+            out.write(value);
+        }
+
+        private static boolean isAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 블록 하나를 버퍼로 읽고 상품을 한 건씩 반환 -> 끝 블록을 만나면 null
+     */
+    public static class Decoder {
+
+        private final InputStream in;
+        private byte[] block = new byte[BLOCK_BYTES];
+        private int position;
+        private int limit;
+        private int remaining;
+        private long previousId;
+        private boolean started;
+        private boolean ended;
+
+        public Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        public Item read() throws IOException {
+            if (!started) {
+                int magic = (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+                if (magic != MAGIC) {
+                    throw new IOException("item binary 형식이 아닙니다. magic = " + Integer.toHexString(magic));
+                }
+                started = true;
+            }
+            if (remaining == 0 && !nextBlock()) {
+                return null;
+            }
+            remaining--;
+
+            if (position >= limit) {
+                throw new IOException("item binary 블록이 손상되었습니다.");
+            }
+            Item item = new Item();
+            int flags = block[position++];
+            if ((flags & HAS_ID) != 0) {
+                previousId += unzigzag(getVarLong());
+                item.setId(previousId);
+            }
+            if ((flags & HAS_PRICE) != 0) {
+                item.setPrice((int) unzigzag(getVarLong()));
+            }
+            if ((flags & HAS_QUANTITY) != 0) {
+                item.setQuantity((int) unzigzag(getVarLong()));
+            }
+            if ((flags & HAS_NAME) != 0) {
+                int length = (int) getVarLong();
+                if (length < 0 || position + length > limit) {
+                    throw new IOException("item binary 블록이 손상되었습니다.");
+                }
+                item.setItemName(new String(block, position, length, StandardCharsets.UTF_8));
+                position += length;
+            }
+            return item;
+        }
+
+        public void forEach(Consumer<Item> consumer) throws IOException {
+            Item item;
+            while ((item = read()) != null) {
+                consumer.accept(item);
+            }
+        }
+
+        private boolean nextBlock() throws IOException {
+            if (ended) {
+                return false;
+            }
+            int count = (int) readVarLong();
+            if (count == 0) {
+                ended = true;
+                return false;
+            }
+            int length = (int) readVarLong();
+            if (count < 0 || length < 0 || length > MAX_BLOCK_BYTES) {
+                throw new IOException("item binary 블록 크기 오류 count = " + count + ", length = " + length);
+            }
+            if (length > block.length) {
+                block = new byte[length];
+            }
+            if (in.readNBytes(block, 0, length) != length) {
+                throw new EOFException("item binary 블록이 중간에 끝났습니다.");
+            }
+            position = 0;
+            limit = length;
+            remaining = count;
+            previousId = 0;
+            return true;
+        }
+
+        private long getVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new IOException("item binary 블록이 손상되었습니다.");
+                }
+                byte b = block[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("item binary varint 오류");
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("item binary varint 오류");
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("item binary 스트림이 중간에 끝났습니다.");
+            }
+            return b;
+        }
+    }
+
+    public static void encode(Iterable<Item> items, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out);
+        for (Item item : items) {
+            encoder.write(item);
+        }
+        encoder.finish();
+    }
+
+    public static List<Item> decode(InputStream in) throws IOException {
+        List<Item> items = new ArrayList<>();
+        new Decoder(in).forEach(items::add);
+        return items;
+    }
+
+    private static int putVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
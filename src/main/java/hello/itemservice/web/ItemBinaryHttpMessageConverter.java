@@ -0,0 +1,67 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 상품 목록(Collection<Item>) <-> application/x-item-binary(ItemBinaryCodec)
+ - Accept 헤더에 application/x-item-binary 가 있을 때만 선택되도록 변환기 목록 맨 뒤에 등록(ItemBinaryConfig)
+ -> Accept 가 없거나 모든 형식을 받는 요청이면 앞에 있는 JSON 변환기가 선택됨
+ */
+public class ItemBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<Item>> {
+
+    public ItemBinaryHttpMessageConverter() {
+        super(ItemBinaryCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return isItemCollection(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return (type == null ? supports(clazz) : isItemCollection(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Collection<Item> items, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        ItemBinaryCodec.encode(items, outputMessage.getBody());
+    }
+
+    @Override
+    protected List<Item> readInternal(Class<? extends Collection<Item>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return ItemBinaryCodec.decode(inputMessage.getBody());
+    }
+
+    @Override
+    public List<Item> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return ItemBinaryCodec.decode(inputMessage.getBody());
+    }
+
+    private static boolean isItemCollection(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType parameterized = (ParameterizedType) type;
+        return parameterized.getRawType() instanceof Class
+                && Collection.class.isAssignableFrom((Class<?>) parameterized.getRawType())
+                && parameterized.getActualTypeArguments().length == 1
+                && parameterized.getActualTypeArguments()[0] == Item.class;
+    }
+}
@@ -0,0 +1,28 @@
+package hello.itemservice.web;
+
+import hello.itemservice.service.ItemChangedEvent;
+import lombok.Getter;
+
+/**
+ * 변경 피드로 전달하는 데이터(JSON)
+ - sequence : 피드에서 부여하는 단조 증가 번호, SSE 의 id 로도 사용 -> 재연결시 Last-Event-ID 로 이어받기
+ */
+@Getter
+public class ItemChange {
+
+    private final long sequence;
+    private final ItemChangedEvent.Type type;
+    private final Long itemId;
+    private final String itemName;
+    private final Integer price;
+    private final Integer quantity;
+
+    public ItemChange(long sequence, ItemChangedEvent event) {
+        this.sequence = sequence;
+        this.type = event.getType();
+        this.itemId = event.getItemId();
+        this.itemName = event.getItemName();
+        this.price = event.getPrice();
+        this.quantity = event.getQuantity();
+    }
+}
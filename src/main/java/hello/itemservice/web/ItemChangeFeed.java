@@ -0,0 +1,163 @@
+package hello.itemservice.web;
+
+import hello.itemservice.service.ItemChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 변경 피드(Server-Sent Events)
+ - ItemService 가 발행한 ItemChangedEvent 를 커밋 후에 받아서 순번(sequence)을 붙이고 구독자 모두에게 전송
+ - 최근 replaySize 개 변경을 메모리에 보관 -> 재연결한 구독자는 마지막으로 받은 순번 이후 변경부터 이어받음
+ - 보관 범위보다 오래된 순번으로 재연결하면 reset 이벤트 전송 -> 구독자는 /items 로 전체를 다시 조회해야 함
+ - 가져오기(ItemChangedEvent.Type.RESET)도 순번을 붙여서 reset 이벤트로 전송 -> 가져오기로 바뀐 가격, 재고를 구독자가 다시 조회
+
+ * 구독자마다 스레드를 쓰지 않음
+ - SseEmitter 는 서블릿 비동기 요청이므로 연결을 유지하는 동안 요청 스레드를 점유하지 않음
+ - 순번 부여, 보관, 전송, 구독 등록, heartbeat 는 모두 전용 스레드 하나에서 순서대로 처리
+ -> 재연결 중 이어받기와 새 변경 전송이 겹쳐서 누락, 중복되는 일이 없음
+ - 전송에 실패한(연결이 끊긴) 구독자는 제거
+ - 전송은 응답 버퍼에 쓰는 작업이므로 보통 바로 끝나지만, 버퍼가 가득 찬 느린 구독자가 있으면 전체 전송이 지연될 수 있음
+
+ * 순번은 프로세스 안에서만 유지 -> 재시작하면 1 부터 다시 시작하므로 reset 으로 처리
+ */
+@Slf4j
+@Component
+public class ItemChangeFeed {
+
+    private final int replaySize;
+    private final long timeoutMillis;
+    private final Deque<ItemChange> replayLog = new ArrayDeque<>();
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+
+    private volatile long sequence;  //dispatcher 스레드에서만 변경
+
+    public ItemChangeFeed(@Value("${itemservice.changes.replay-size:1024}") int replaySize,
+                          @Value("${itemservice.changes.timeout-ms:1800000}") long timeoutMillis,
+                          @Value("${itemservice.changes.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //연결이 유휴 상태로 끊기지 않도록(프록시 등) 주기적으로 주석 전송
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 트랜잭션 안에서 발행되면 커밋 후 호출, 트랜잭션 밖에서 발행되면 바로 호출(fallbackExecution)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        dispatcher.execute(() -> {
+            ItemChange change = new ItemChange(++sequence, event);
+            replayLog.addLast(change);
+            if (replayLog.size() > replaySize) {
+                replayLog.removeFirst();
+            }
+            for (SseEmitter emitter : subscribers) {
+                send(emitter, change);
+            }
+        });
+    }
+
+    /**
+     * @param lastSequence 마지막으로 받은 순번, null 이면 이후 변경만 받음
+     */
+    public SseEmitter subscribe(Long lastSequence) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        dispatcher.execute(() -> {
+            if (lastSequence != null && !replay(emitter, lastSequence)) {
+                return;
+            }
+            subscribers.add(emitter);
+        });
+        return emitter;
+    }
+
+    /**
+     * @return 전송에 실패하면 false
+     */
+    private boolean replay(SseEmitter emitter, long lastSequence) {
+        ItemChange oldest = replayLog.peekFirst();
+        long oldestSequence = oldest == null ? sequence + 1 : oldest.getSequence();
+        if (lastSequence + 1 < oldestSequence || lastSequence > sequence) {
+            //보관 범위를 벗어남(오래되었거나 재시작 전 순번) -> 전체 다시 조회하도록 알림
+            return sendEvent(emitter, SseEmitter.event().id(String.valueOf(sequence)).name("reset").data(sequence));
+        }
+        for (ItemChange change : replayLog) {
+            if (change.getSequence() > lastSequence && !send(emitter, change)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean send(SseEmitter emitter, ItemChange change) {
+        if (change.getType() == ItemChangedEvent.Type.RESET) {
+            return sendEvent(emitter, SseEmitter.event().id(String.valueOf(change.getSequence())).name("reset").data(change.getSequence()));
+        }
+        return sendEvent(emitter, SseEmitter.event()
+                .id(String.valueOf(change.getSequence()))
+                .name("item")
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private boolean sendEvent(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            //연결이 끊겼거나 이미 완료된 구독자
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            sendEvent(emitter, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("subscribers", subscribers.size());
+        snapshot.put("lastSequence", sequence);
+        snapshot.put("replaySize", replaySize);
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        List<SseEmitter> emitters = new ArrayList<>(subscribers);
+        subscribers.clear();
+        emitters.forEach(SseEmitter::complete);
+    }
+}
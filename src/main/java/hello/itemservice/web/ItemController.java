@@ -1,35 +1,191 @@
 package hello.itemservice.web;
 
+import hello.itemservice.cache.ItemCache;
 import hello.itemservice.domain.Item;
+import hello.itemservice.domain.ItemView;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.service.ItemService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
 
+    static final int MAX_BATCH_IDS = 1000;
+
     private final ItemService itemService;
+    private final ItemChangeFeed itemChangeFeed;
+    private final SingleFlightItemLoader singleFlightItemLoader;
+    private final ItemStream itemStream;
+    private final ItemExporter itemExporter;
+    private final ItemImporter itemImporter;
+    private final ObjectProvider<ItemCache> itemCache;
 
+    /**
+     * stream=true 이면 전체 목록을 만들지 않고 페이지 단위로 조회하면서 출력(ItemStream)
+     -> 첫 행이 조회되면 바로 응답을 보내기 시작하고, 메모리에는 한 페이지만 유지
+     -> 출력을 시작한 뒤에 조회가 실패하면 오류 화면 대신 중간까지 출력된 응답이 끊김
+     */
+    @ConcurrencyLimited(EndpointClass.SEARCH)
     @GetMapping
-    public String items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch, Model model) {
-        List<Item> items = itemService.findItems(itemSearch);
+    public String items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch,
+                        @RequestParam(defaultValue = "false") boolean stream, Model model) {
+        if (stream) {
+            model.addAttribute("items", itemStream.of(itemSearch));
+            model.addAttribute("stream", true);
+            return "items";
+        }
+        List<ItemView> items = itemService.findItemViews(itemSearch);   //화면은 읽기만 하므로 읽기 전용 모델
         model.addAttribute("items", items);
         return "items";
     }
 
+    /**
+     * 상품 집계(JSON) -> 검색 조건은 목록과 같은 파라미터(itemName, maxPrice, matchMode) 사용
+     */
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    @GetMapping("/stats")
+    @ResponseBody
+    public ResponseEntity<ItemStats> stats(@ModelAttribute("itemSearch") ItemSearchCond itemSearch,
+                                           @RequestParam(defaultValue = "10000") int bucketSize) {
+        if (bucketSize <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(itemService.aggregate(itemSearch, bucketSize));
+    }
+
+    /**
+     * 상품 검색(JSON) -> 검색 조건은 목록과 같은 파라미터 사용
+     - Accept: application/x-item-binary 이면 이진 형식(ItemBinaryHttpMessageConverter), 내부 서비스 간 동기화용
+     */
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    @GetMapping("/search")
+    @ResponseBody
+    public ResponseEntity<List<Item>> search(@ModelAttribute("itemSearch") ItemSearchCond itemSearch) {
+        return ResponseEntity.ok(itemService.findItems(itemSearch));
+    }
+
+    /**
+     * 여러 상품 한 번에 조회(JSON) -> /items/batch?ids=1,2,3
+     - Accept: application/x-item-binary 이면 이진 형식
+     - 요청한 id 순서대로 반환, 없는 id 는 제외
+     - id 가 MAX_BATCH_IDS 개를 넘으면 400
+     */
+    @ConcurrencyLimited(EndpointClass.DETAIL)
+    @GetMapping("/batch")
+    @ResponseBody
+    public ResponseEntity<List<Item>> batch(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(itemService.findByIds(ids));
+    }
+
+    /**
+     * 상품 변경 피드(SSE) -> 재연결시 브라우저(EventSource)가 보내는 Last-Event-ID 또는 after 파라미터 이후 변경부터 전송
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                              @RequestParam(required = false) Long after) {
+        return itemChangeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
+    /**
+     * 검색 조건에 맞는 전체 상품 내보내기 -> /items/export?format=csv|ndjson|binary (검색 파라미터는 목록과 같음)
+     - format 이 없으면 Accept 헤더로 결정(ItemExporter.negotiate), 기본 CSV
+     - 데이터베이스 커서에서 읽은 상품을 바로 응답에 기록(ItemExporter) -> 상품 수와 관계없이 메모리 사용량 일정
+     - Accept-Encoding 에 gzip 이 있으면 압축해서 전송
+     - 오래 걸리는 요청이므로 동시 처리 한도(@ConcurrencyLimited)를 적용하지 않음 -> 검색 한도의 응답 시간 측정을 왜곡하지 않도록
+     - 출력을 시작한 뒤에 실패하면 응답이 중간에 끊김
+     */
+    @GetMapping("/export")
+    public void export(@ModelAttribute("itemSearch") ItemSearchCond itemSearch,
+                       @RequestParam(required = false) String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        ItemExporter.Format exportFormat = format == null ? ItemExporter.negotiate(accept) : ItemExporter.format(format);
+        if (exportFormat == null) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "format 은 csv, ndjson, binary 중 하나");
+            return;
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setContentType(exportFormat.getContentType());
+        if (exportFormat != ItemExporter.Format.BINARY) {
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items." + exportFormat.extension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        itemExporter.export(itemSearch, exportFormat, gzip, response.getOutputStream());
+    }
+
+    /**
+     * 상품 가져오기 -> POST /items/import?format=csv|ndjson|binary, 본문은 내보내기와 같은 형식(id 는 무시)
+     - 상품명이 같은 상품은 가격, 수량을 수정하고 없으면 저장(ItemImporter)
+     - 본문을 읽으면서 바로 저장 -> 크기와 관계없이 메모리 사용량 일정, Content-Encoding: gzip 이면 압축을 풀면서 읽음
+     - 결과(JSON) : 읽은 행, 검증 실패 행, 저장한 행, 실패 사유(앞의 일부)
+     - 내보내기와 같은 이유로 동시 처리 한도를 적용하지 않음
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importItems(@RequestParam(defaultValue = "csv") String format,
+                                                           @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                           HttpServletRequest request) throws IOException {
+        ItemExporter.Format importFormat = ItemExporter.format(format);
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "format 은 csv, ndjson, binary 중 하나"));
+        }
+        InputStream body = request.getInputStream();
+        if (contentEncoding != null && contentEncoding.contains("gzip")) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        try {
+            return ResponseEntity.ok(itemImporter.importItems(importFormat, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 상세 화면은 읽기만 하므로 같은 id 의 동시 조회를 하나로 합침(SingleFlightItemLoader)
+     - itemservice.cache.enabled=true 이면 캐시(ItemCache)에 없을 때만 조회
+     - 수정 화면은 최신 값이 필요하므로 ItemService 로 직접 조회
+     */
+    @ConcurrencyLimited(EndpointClass.DETAIL)
     @GetMapping("/{itemId}")
     public String item(@PathVariable long itemId, Model model) {
-        Item item = itemService.findById(itemId).get();
-        model.addAttribute("item", item);
+        ItemCache cache = itemCache.getIfAvailable();
+        Optional<Item> item = cache != null
+                ? cache.findById(itemId, singleFlightItemLoader::findById)
+                : singleFlightItemLoader.findById(itemId);
+        model.addAttribute("item", item.get());
         return "item";
     }
 
@@ -38,6 +194,7 @@ public class ItemController {
         return "addForm";
     }
 
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @PostMapping("/add")
     public String addItem(@ModelAttribute Item item, RedirectAttributes redirectAttributes) {
         Item savedItem = itemService.save(item);
@@ -46,6 +203,7 @@ public class ItemController {
         return "redirect:/items/{itemId}";
     }
 
+    @ConcurrencyLimited(EndpointClass.DETAIL)
     @GetMapping("/{itemId}/edit")
     public String editForm(@PathVariable Long itemId, Model model) {
         Item item = itemService.findById(itemId).get();
@@ -53,6 +211,7 @@ public class ItemController {
         return "editForm";
     }
 
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @PostMapping("/{itemId}/edit")
     public String edit(@PathVariable Long itemId, @ModelAttribute ItemUpdateDto updateParam) {
         itemService.update(itemId, updateParam);
@@ -0,0 +1,192 @@
+package hello.itemservice.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 검색 조건에 맞는 전체 상품을 CSV, NDJSON, 이진 형식으로 출력(/items/export)
+ - ItemService.scanItems 로 한 건씩 받아서 바로 기록 -> 전체 목록을 만들지 않음
+ - 출력은 고정 크기 버퍼(BUFFER_SIZE)를 거쳐서 응답 스트림으로 전송, gzip 이면 압축 스트림을 한 번 더 거침
+ - CSV : 헤더(id,itemName,price,quantity) + 행, 쉼표/따옴표/줄바꿈이 있는 이름은 따옴표로 감싸고 따옴표는 두 번(RFC 4180), null 은 빈 값
+ - NDJSON : 한 줄에 상품 하나(JSON 객체)
+ - BINARY : ItemBinaryCodec 블록 형식, 내부 서비스 간 대량 전송용
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson"), BINARY(ItemBinaryCodec.MEDIA_TYPE_VALUE, "bin");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * @return 출력한 상품 수
+     */
+    public long export(ItemSearchCond cond, Format format, boolean gzip, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long rows;
+        try {
+            if (format == Format.BINARY) {
+                rows = writeBinary(cond, gzip ? compressed : out);
+            } else {
+                rows = format == Format.CSV ? writeCsv(cond, writer) : writeNdjson(cond, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();     //클라이언트 연결 끊김 등
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        log.info("export format = {}, gzip = {}, rows = {}, elapsed = {}ms, rowsPerSec = {}",
+                format, gzip, rows, elapsed / 1_000_000, String.format("%.0f", rows * 1_000_000_000.0 / Math.max(1, elapsed)));
+        return rows;
+    }
+
+    private long writeCsv(ItemSearchCond cond, Writer writer) throws IOException {
+        writer.write("id,itemName,price,quantity\n");
+        long[] rows = {0};
+        itemService.scanItems(cond, item -> {
+            try {
+                writer.write(String.valueOf(item.getId()));
+                writer.write(',');
+                writeCsvText(writer, item.getItemName());
+                writer.write(',');
+                writeCsvNumber(writer, item.getPrice());
+                writer.write(',');
+                writeCsvNumber(writer, item.getQuantity());
+                writer.write('\n');
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows[0];
+    }
+
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeCsvNumber(Writer writer, Integer value) throws IOException {
+        if (value != null) {
+            writer.write(String.valueOf(value));
+        }
+    }
+
+    /**
+     * 상품마다 JSON 객체 하나를 기록하고 줄바꿈 -> JsonGenerator 하나를 재사용
+     - Item 의 Jackson 설정(@JsonIgnore 등)을 그대로 따름
+     */
+    private long writeNdjson(ItemSearchCond cond, Writer writer) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.setRootValueSeparator(null);  //기본 구분자(공백) 대신 줄바꿈을 직접 기록
+            itemService.scanItems(cond, item -> {
+                try {
+                    objectMapper.writeValue(generator, item);
+                    generator.writeRaw('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return rows[0];
+    }
+
+    /**
+     * 블록 버퍼(ItemBinaryCodec.Encoder)가 출력 버퍼 역할 -> Writer 를 거치지 않고 바이트 스트림에 바로 기록
+     */
+    private long writeBinary(ItemSearchCond cond, OutputStream out) throws IOException {
+        ItemBinaryCodec.Encoder encoder = new ItemBinaryCodec.Encoder(out);
+        long[] rows = {0};
+        itemService.scanItems(cond, item -> {
+            try {
+                encoder.write(item);
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        encoder.finish();
+        return rows[0];
+    }
+
+    /**
+     * format 파라미터가 없으면 Accept 헤더로 결정(x-item-binary, x-ndjson 순서로 확인, 없으면 CSV)
+     */
+    public static Format negotiate(String accept) {
+        if (accept != null) {
+            if (accept.contains(Format.BINARY.contentType)) {
+                return Format.BINARY;
+            }
+            if (accept.contains(Format.NDJSON.contentType)) {
+                return Format.NDJSON;
+            }
+        }
+        return Format.CSV;
+    }
+
+    public static Format format(String value) {
+        for (Format format : Format.values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
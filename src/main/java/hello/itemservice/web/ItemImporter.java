@@ -0,0 +1,534 @@
+package hello.itemservice.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.ItemChangedEvent;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CSV, NDJSON, 이진 형식(ItemBinaryCodec)으로 올린 상품을 상품명 기준으로 저장 또는 수정(/items/import)
+ - 요청 스레드가 본문을 한 행씩 읽어서 검증(parse 단계), 쓰기 스레드(writers 개)가 batchSize 개씩 ItemService.upsertAll(write 단계)
+ - 두 단계 사이는 쓰기 스레드마다 크기가 정해진 큐(queueCapacity 묶음) -> 쓰기가 느리면 큐가 차서 읽기가 멈춤(backpressure), 본문 전체를 메모리에 올리지 않음
+ - 상품명 해시로 쓰기 스레드를 고름 -> 같은 이름은 항상 같은 스레드에서 순서대로 처리(같은 키를 동시에 MERGE 하지 않음)
+ - 검증에 실패한 행은 건너뛰고 앞의 MAX_ERRORS 개만 위치와 사유를 기록, 저장에 실패한 묶음도 건너뛰고 계속 진행
+ - 진행 중인 가져오기와 최근 결과는 /admin/imports 에서 확인
+
+ * CSV : 첫 행은 헤더(itemName, price, quantity 필수, 나머지 열은 무시 -> 내보내기 결과를 그대로 올릴 수 있음), 따옴표 규칙은 RFC 4180
+ * NDJSON : 한 줄에 상품 하나(JSON 객체), 빈 줄은 무시
+ * BINARY : 내보내기(format=binary) 결과 그대로, 형식이 손상되면 그 지점에서 가져오기 실패
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_NAME_LENGTH = 10;     //item.item_name varchar(10)
+    private static final int RECENT_SIZE = 10;
+    private static final List<Item> END = new ArrayList<>();    //쓰기 스레드 종료 표시
+
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int writers;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Progress> running = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> recent = new ArrayDeque<>();
+
+    public ItemImporter(ItemService itemService, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                        @Value("${itemservice.import.batch-size:500}") int batchSize,
+                        @Value("${itemservice.import.writers:2}") int writers,
+                        @Value("${itemservice.import.queue-capacity:4}") int queueCapacity) {
+        if (batchSize < 1 || writers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("가져오기 설정 오류 batchSize = " + batchSize
+                    + ", writers = " + writers + ", queueCapacity = " + queueCapacity);
+        }
+        this.itemService = itemService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "item-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 본문을 끝까지 읽고 모든 묶음의 저장이 끝나면 결과 반환
+     - CSV 헤더에 필수 열이 없으면 IllegalArgumentException
+     - 본문을 읽다가 실패하면(연결 끊김 등) 이미 넘긴 묶음까지만 저장하고 예외를 그대로 던짐
+     */
+    public Map<String, Object> importItems(ItemExporter.Format format, InputStream in) throws IOException {
+        Progress progress = new Progress(sequence.incrementAndGet(), format);
+        running.put(progress.id, progress);
+        try {
+            List<BlockingQueue<List<Item>>> queues = new ArrayList<>(writers);
+            List<Future<?>> futures = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                BlockingQueue<List<Item>> queue = new ArrayBlockingQueue<>(queueCapacity);
+                queues.add(queue);
+                futures.add(executor.submit(() -> write(queue, progress)));
+            }
+            progress.queues = queues;
+
+            Partitioner partitioner = new Partitioner(queues);
+            try {
+                if (format == ItemExporter.Format.BINARY) {
+                    parseBinary(new BufferedInputStream(in, BUFFER_SIZE), partitioner, progress);
+                } else {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+                    if (format == ItemExporter.Format.CSV) {
+                        parseCsv(reader, partitioner, progress);
+                    } else {
+                        parseNdjson(reader, partitioner, progress);
+                    }
+                }
+            } finally {
+                partitioner.finish();
+                await(futures);
+                publishReset(progress);
+            }
+            progress.finish("completed");
+            return progress.snapshot();
+        } catch (IOException | RuntimeException e) {
+            progress.error(0, e.toString());
+            progress.finish("failed");
+            throw e;
+        } finally {
+            running.remove(progress.id);
+            Map<String, Object> result = progress.snapshot();
+            synchronized (recent) {
+                recent.addFirst(result);
+                if (recent.size() > RECENT_SIZE) {
+                    recent.removeLast();
+                }
+            }
+            log.info("import {}", result);
+        }
+    }
+
+    private void parseCsv(BufferedReader reader, Partitioner partitioner, Progress progress) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        int nameIndex = header == null ? -1 : columnIndex(header, "itemName");
+        int priceIndex = header == null ? -1 : columnIndex(header, "price");
+        int quantityIndex = header == null ? -1 : columnIndex(header, "quantity");
+        if (nameIndex < 0 || priceIndex < 0 || quantityIndex < 0) {
+            throw new IllegalArgumentException("CSV 헤더에 itemName, price, quantity 열이 필요합니다. header = " + header);
+        }
+        int columns = Math.max(nameIndex, Math.max(priceIndex, quantityIndex)) + 1;
+
+        List<String> record;
+        while ((record = records.next()) != null) {
+            long line = records.recordLine();
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;   //빈 줄
+            }
+            progress.parsed.incrementAndGet();
+            if (records.malformed()) {
+                progress.reject(line, "따옴표가 닫히지 않았습니다.");
+                continue;
+            }
+            if (record.size() < columns) {
+                progress.reject(line, "열 수가 부족합니다. columns = " + record.size());
+                continue;
+            }
+            String itemName = record.get(nameIndex);
+            Integer price = parseInt(record.get(priceIndex));
+            Integer quantity = parseInt(record.get(quantityIndex));
+            accept(line, itemName, price, quantity, partitioner, progress);
+        }
+    }
+
+    private void parseNdjson(BufferedReader reader, Partitioner partitioner, Progress progress) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            progress.parsed.incrementAndGet();
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                progress.reject(line, "JSON 형식 오류 " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                progress.reject(line, "JSON 객체가 아닙니다.");
+                continue;
+            }
+            JsonNode itemName = node.get("itemName");
+            accept(line, itemName == null || !itemName.isTextual() ? null : itemName.textValue(),
+                    intValue(node.get("price")), intValue(node.get("quantity")), partitioner, progress);
+        }
+    }
+
+    private void parseBinary(InputStream in, Partitioner partitioner, Progress progress) throws IOException {
+        ItemBinaryCodec.Decoder decoder = new ItemBinaryCodec.Decoder(in);
+        long row = 0;
+        Item item;
+        while ((item = decoder.read()) != null) {
+            progress.parsed.incrementAndGet();
+            accept(++row, item.getItemName(), item.getPrice(), item.getQuantity(), partitioner, progress);
+        }
+    }
+
+    private void accept(long line, String itemName, Integer price, Integer quantity,
+                        Partitioner partitioner, Progress progress) {
+        String error = validate(itemName, price, quantity);
+        if (error != null) {
+            progress.reject(line, error);
+            return;
+        }
+        partitioner.add(new Item(itemName, price, quantity));
+    }
+
+    static String validate(String itemName, Integer price, Integer quantity) {
+        if (itemName == null || itemName.isBlank()) {
+            return "상품명이 없습니다.";
+        }
+        if (itemName.length() > MAX_NAME_LENGTH) {
+            return "상품명은 " + MAX_NAME_LENGTH + "자 이하입니다. itemName = " + itemName;
+        }
+        if (price == null || price < 0) {
+            return "가격은 0 이상의 정수입니다.";
+        }
+        if (quantity == null || quantity < 0) {
+            return "수량은 0 이상의 정수입니다.";
+        }
+        return null;
+    }
+
+    private static int columnIndex(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer intValue(JsonNode node) {
+        return node != null && node.isIntegralNumber() && node.canConvertToInt() ? node.intValue() : null;
+    }
+
+    /**
+     * 쓰기 스레드 -> 종료 표시(END)를 받을 때까지 묶음 단위로 저장
+     - 실패한 묶음은 기록만 하고 다음 묶음을 계속 처리(읽기 쪽이 큐 앞에서 멈춰 있지 않도록 항상 큐를 비움)
+     */
+    private void write(BlockingQueue<List<Item>> queue, Progress progress) {
+        while (true) {
+            List<Item> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == END) {
+                return;
+            }
+            try {
+                itemService.upsertAll(batch);
+                progress.written.addAndGet(batch.size());
+            } catch (RuntimeException e) {
+                log.warn("import batch failed size = {}", batch.size(), e);
+                progress.failed.addAndGet(batch.size());
+                progress.error(0, "묶음 저장 실패 size = " + batch.size() + ", " + e);
+            }
+            progress.batches.incrementAndGet();
+        }
+    }
+
+    /**
+     * 가져오기가 끝나면 ItemChangedEvent.reset() 하나 발행 -> 가져오기는 바뀐 id 를 따로 모으지 않음
+     - 변경 피드(ItemChangeFeed) 구독자에게 reset 전송, 이 인스턴스 캐시 전체 무효화(ItemCache)
+     - 캐시 일관성(ItemCacheConfig)을 사용하면 변경 버전 테이블에 전체 변경 기록(ItemChangeLog) -> 다른 인스턴스 캐시도 전체 무효화
+     */
+    private void publishReset(Progress progress) {
+        if (progress.written.get() == 0) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(ItemChangedEvent.reset());
+        } catch (RuntimeException e) {
+            log.warn("import change event failed id = {}", progress.id, e);
+        }
+    }
+
+    private static void await(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("가져오기 대기 중 인터럽트", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("가져오기 쓰기 스레드 오류", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * running : 진행 중인 가져오기, recent : 최근에 끝난 가져오기(최대 RECENT_SIZE 개)
+     */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> inProgress = new ArrayList<>();
+        running.values().forEach(progress -> inProgress.add(progress.snapshot()));
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("batchSize", batchSize);
+        snapshot.put("writers", writers);
+        snapshot.put("queueCapacity", queueCapacity);
+        snapshot.put("running", inProgress);
+        synchronized (recent) {
+            snapshot.put("recent", new ArrayList<>(recent));
+        }
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 읽기 단계에서만 사용(요청 스레드) -> 쓰기 스레드마다 묶음을 모아서 batchSize 가 되면 큐에 넣음
+     */
+    private class Partitioner {
+
+        private final List<BlockingQueue<List<Item>>> queues;
+        private final List<List<Item>> pending = new ArrayList<>();
+
+        Partitioner(List<BlockingQueue<List<Item>>> queues) {
+            this.queues = queues;
+            for (int i = 0; i < queues.size(); i++) {
+                pending.add(new ArrayList<>(batchSize));
+            }
+        }
+
+        void add(Item item) {
+            int writer = Math.floorMod(item.getItemName().hashCode(), queues.size());
+            List<Item> batch = pending.get(writer);
+            batch.add(item);
+            if (batch.size() >= batchSize) {
+                put(writer, batch);
+                pending.set(writer, new ArrayList<>(batchSize));
+            }
+        }
+
+        //남은 묶음과 종료 표시 전달 -> 읽기가 실패해도 호출해서 쓰기 스레드를 끝냄
+        void finish() {
+            for (int i = 0; i < queues.size(); i++) {
+                if (!pending.get(i).isEmpty()) {
+                    put(i, pending.get(i));
+                }
+                put(i, END);
+            }
+        }
+
+        //큐가 가득 차면 쓰기 스레드가 묶음을 가져갈 때까지 기다림(backpressure)
+        private void put(int writer, List<Item> batch) {
+            try {
+                queues.get(writer).put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("가져오기 대기 중 인터럽트", e);
+            }
+        }
+    }
+
+    /**
+     * 가져오기 한 번의 진행 상황
+     - parsed : 읽은 행, rejected : 검증 실패, written : 저장한 행, failed : 저장에 실패한 묶음의 행
+     - queued : 큐에서 저장을 기다리는 묶음 수
+     */
+    private static class Progress {
+
+        private final long id;
+        private final ItemExporter.Format format;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong parsed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+        private volatile List<BlockingQueue<List<Item>>> queues = List.of();
+        private volatile String state = "running";
+        private volatile long elapsedNanos = -1;   //끝나면 고정
+
+        Progress(long id, ItemExporter.Format format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        void reject(long line, String reason) {
+            rejected.incrementAndGet();
+            error(line, reason);
+        }
+
+        void error(long line, String reason) {
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(line > 0 ? "line " + line + ": " + reason : reason);
+                }
+            }
+        }
+
+        void finish(String state) {
+            this.elapsedNanos = System.nanoTime() - startNanos;
+            this.state = state;
+        }
+
+        Map<String, Object> snapshot() {
+            long elapsed = elapsedNanos < 0 ? System.nanoTime() - startNanos : elapsedNanos;
+            int queued = 0;
+            for (BlockingQueue<List<Item>> queue : queues) {
+                queued += queue.size();
+            }
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("id", id);
+            snapshot.put("format", format.name().toLowerCase(Locale.ROOT));
+            snapshot.put("state", state);
+            snapshot.put("parsed", parsed.get());
+            snapshot.put("rejected", rejected.get());
+            snapshot.put("written", written.get());
+            snapshot.put("failed", failed.get());
+            snapshot.put("batches", batches.get());
+            snapshot.put("queued", queued);
+            snapshot.put("elapsedMs", elapsed / 1_000_000);
+            snapshot.put("rowsPerSec", written.get() * 1_000_000_000.0 / Math.max(1, elapsed));
+            synchronized (errors) {
+                snapshot.put("errors", new ArrayList<>(errors));
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV 레코드 읽기 -> 따옴표 안의 쉼표, 줄바꿈, 두 번 쓴 따옴표 처리
+     - 한 글자씩 읽으므로 레코드 하나만 메모리에 둠
+     - 따옴표가 닫히지 않은 채 끝나면 malformed
+     */
+    static class CsvRecordReader {
+
+        private final BufferedReader reader;
+        private long line = 1;
+        private long recordLine;
+        private boolean malformed;
+
+        CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return 다음 레코드의 열 목록, 끝이면 null
+         */
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            malformed = false;
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        malformed = true;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        int following = reader.read();
+                        if (following != '"') {
+                            inQuotes = false;
+                            c = following;
+                            continue;
+                        }
+                        field.append('"');
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+
+        long recordLine() {
+            return recordLine;
+        }
+
+        boolean malformed() {
+            return malformed;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package hello.itemservice.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 같은 id 를 조회 중인 다른 요청의 결과를 제한 시간 안에 받지 못함(SingleFlightItemLoader)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ItemLoadTimeoutException extends RuntimeException {
+
+    public ItemLoadTimeoutException(Long id, long timeoutMillis) {
+        super("상품 조회 대기 시간 초과 id = " + id + ", timeout = " + timeoutMillis + "ms");
+    }
+}
@@ -0,0 +1,72 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 상품 목록을 페이지 단위로 나누어 읽는 Iterable(화면 스트리밍용)
+ - 반복을 시작해야 첫 페이지를 조회하고, 페이지를 다 읽으면 마지막 상품 id 다음부터 다음 페이지 조회(ItemService.findItemPage)
+ - 메모리에는 현재 페이지만 유지 -> 결과가 많아도 힙 사용량이 pageSize 에 비례
+ - Thymeleaf 가 th:each 로 한 행씩 출력하는 동안 필요한 만큼만 조회하고, 출력은 응답 버퍼가 찰 때마다 클라이언트로 전송됨
+
+ * 페이지마다 따로 조회하므로 하나의 스냅샷이 아님
+ - 출력 중에 추가된 상품은 id 가 더 크면 목록 끝에 포함되고, 수정된 상품은 아직 출력하지 않은 경우에만 반영됨
+ */
+@Component
+public class ItemStream {
+
+    private final ItemService itemService;
+    private final int pageSize;
+
+    public ItemStream(ItemService itemService, @Value("${itemservice.listing.page-size:500}") int pageSize) {
+        this.itemService = itemService;
+        this.pageSize = pageSize;
+    }
+
+    public Iterable<Item> of(ItemSearchCond cond) {
+        return () -> new PageIterator(cond);
+    }
+
+    private class PageIterator implements Iterator<Item> {
+
+        private final ItemSearchCond cond;
+        private Iterator<Item> page;
+        private Long lastId;
+        private boolean lastPage;
+
+        PageIterator(ItemSearchCond cond) {
+            this.cond = cond;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (page == null || !page.hasNext()) {
+                if (lastPage) {
+                    return false;
+                }
+                List<Item> items = itemService.findItemPage(cond, lastId, pageSize);
+                lastPage = items.size() < pageSize;
+                if (!items.isEmpty()) {
+                    lastId = items.get(items.size() - 1).getId();
+                }
+                page = items.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hello.itemservice.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 조회 시간 초과 -> 504(Gateway Timeout)
+ - 요청 마감 시간(RequestDeadline)이 지나서 취소된 쿼리, 중단된 메모리 검색, 샤드 응답 시간 초과(ShardedItemRepository)
+ - 하이버네이트 예외(javax.persistence.QueryTimeoutException)는 스프링 예외 변환을 거치지 않은 저장소에서 그대로 올라오므로 함께 처리
+ - 응답 본문은 스프링 부트 기본 오류 처리(화면 또는 JSON)
+ */
+@Slf4j
+@ControllerAdvice
+public class QueryTimeoutAdvice {
+
+    @ExceptionHandler({QueryTimeoutException.class, javax.persistence.QueryTimeoutException.class})
+    public void queryTimeout(RuntimeException e, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.warn("query timeout uri = {}, message = {}", request.getRequestURI(), e.getMessage());
+        response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), e.getMessage());
+    }
+}
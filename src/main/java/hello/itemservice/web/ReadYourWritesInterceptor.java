@@ -0,0 +1,70 @@
+package hello.itemservice.web;
+
+import hello.itemservice.datasource.ReadYourWrites;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 자신이 변경한 상품은 복제 지연과 관계없이 바로 보이도록 조회를 primary 로 고정
+ - 변경 요청(GET, HEAD 외) : 쿠키(item-write)를 stickySeconds 동안 유지하도록 내려주고 요청을 primary 로 처리
+ - 쿠키가 남아 있는 동안의 요청 : primary 로 조회(ReadYourWrites)
+ - 쿠키는 브라우저가 만료시키므로 서버에 사용자별 상태를 두지 않음 -> 서버가 여러 대여도 동작
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String COOKIE_NAME = "item-write";
+
+    private final int stickySeconds;
+
+    public ReadYourWritesInterceptor(int stickySeconds) {
+        this.stickySeconds = stickySeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isWrite(request)) {
+            //응답이 커밋되기 전(리다이렉트 전)에 쿠키를 내려줌 -> 변경이 실패해도 잠시 primary 로 조회할 뿐
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setPath("/");
+            cookie.setMaxAge(stickySeconds);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+            ReadYourWrites.requirePrimary();
+        } else if (hasWriteCookie(request)) {
+            ReadYourWrites.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWrites.clear();
+    }
+
+    //비동기 요청(/items/changes 등)은 afterCompletion 이 요청 스레드에서 호출되지 않음
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWrites.clear();
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method);
+    }
+
+    private static boolean hasWriteCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
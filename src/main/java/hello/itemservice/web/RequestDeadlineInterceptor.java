@@ -0,0 +1,72 @@
+package hello.itemservice.web;
+
+import hello.itemservice.repository.RequestDeadline;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 요청 마감 시간 설정(RequestDeadline) -> 저장소가 남은 시간을 쿼리 타임아웃으로 사용
+ - @ConcurrencyLimited 핸들러만 대상, 요청 종류(EndpointClass)별 제한 시간
+ -> 내보내기, 가져오기, 변경 피드처럼 오래 걸리는 요청은 제외(동시 처리 한도와 같은 기준)
+ - 요청 헤더 Request-Timeout(밀리초)이 더 짧으면 그 값 사용 -> 앞단 서비스가 남은 시간을 넘겨줄 수 있음
+ - 핸들러 실행이 끝나면(postHandle) 해제 -> 화면 출력 중에 조회하는 스트리밍 목록(ItemStream)은 제외
+ */
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    static final String TIMEOUT_HEADER = "Request-Timeout";
+
+    private final Map<EndpointClass, Long> timeouts;
+
+    public RequestDeadlineInterceptor(Map<EndpointClass, Long> timeouts) {
+        this.timeouts = new EnumMap<>(timeouts);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimited limited = ((HandlerMethod) handler).getMethodAnnotation(ConcurrencyLimited.class);
+        Long timeoutMillis = limited == null ? null : timeouts.get(limited.value());
+        if (timeoutMillis == null || timeoutMillis <= 0) {
+            return true;
+        }
+        RequestDeadline.start(Math.min(timeoutMillis, requestedTimeout(request)));
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        RequestDeadline.clear();
+    }
+
+    //예외로 끝나면 postHandle 이 호출되지 않음
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.clear();
+    }
+
+    private static long requestedTimeout(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 ? millis : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
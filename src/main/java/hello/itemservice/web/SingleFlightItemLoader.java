@@ -0,0 +1,108 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.RequestDeadline;
+import hello.itemservice.service.ItemService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 id 의 동시 조회를 하나로 합치는 ItemService.findById 앞단(single flight)
+ - 처음 요청한 스레드(leader)가 직접 조회하고, 조회가 끝나기 전에 들어온 같은 id 요청은 그 결과를 기다려서 함께 사용
+ - 조회가 끝나면 바로 제거 -> 결과를 보관하지 않으므로 캐시가 아니며, 끝난 뒤의 요청은 다시 조회함(변경 후 오래된 값을 보지 않음)
+ - 기다리는 요청은 최대 timeoutMillis 까지만 기다리고 ItemLoadTimeoutException(503), leader 는 제한 없이 조회
+ - 요청 마감 시간(RequestDeadline)이 더 짧으면 그때까지만 기다림(leader 의 조회는 leader 의 마감 시간으로 취소됨)
+ - leader 의 조회가 실패하면 기다리던 요청에도 같은 예외를 전달
+
+ * 여러 요청이 같은 Item 객체를 공유 -> 화면 출력처럼 읽기만 하는 곳에서만 사용
+ */
+@Component
+public class SingleFlightItemLoader {
+
+    private final ItemService itemService;
+    private final long timeoutMillis;
+    private final Map<Long, CompletableFuture<Optional<Item>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public SingleFlightItemLoader(ItemService itemService,
+                                  @Value("${itemservice.coalescing.timeout-ms:1000}") long timeoutMillis) {
+        this.itemService = itemService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public Optional<Item> findById(Long id) {
+        CompletableFuture<Optional<Item>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<Item>> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(id, running);
+        }
+
+        executed.increment();
+        try {
+            Optional<Item> item = itemService.findById(id);
+            mine.complete(item);
+            return item;
+        } catch (RuntimeException | Error e) {
+            failed.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private Optional<Item> await(Long id, CompletableFuture<Optional<Item>> running) {
+        long remainingMillis = RequestDeadline.remainingMillis();
+        long waitMillis = remainingMillis < 0 ? timeoutMillis : Math.min(timeoutMillis, remainingMillis);
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new ItemLoadTimeoutException(id, waitMillis);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("상품 조회 대기 중 인터럽트 id = " + id, e);
+        }
+    }
+
+    /**
+     * executed : 실제로 조회한 수, coalesced : 다른 요청의 조회 결과를 함께 사용한 수
+     */
+    public Map<String, Object> snapshot() {
+        long executedCount = executed.sum();
+        long coalescedCount = coalesced.sum();
+        long total = executedCount + coalescedCount;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("executed", executedCount);
+        snapshot.put("coalesced", coalescedCount);
+        snapshot.put("coalescedRatio", total == 0 ? 0.0 : (double) coalescedCount / total);
+        snapshot.put("failed", failed.sum());
+        snapshot.put("timedOut", timedOut.sum());
+        snapshot.put("inFlight", inFlight.size());
+        return snapshot;
+    }
+}
@@ -0,0 +1,18 @@
+-- 상품 변경 버전 테이블 초기화(ItemChangeLog) -> 이미 있으면 그대로 사용
+-- 전체 변경 버전, 한 행만 사용(id = 1)
+create table if not exists item_change_version
+(
+    id int not null,
+    version bigint not null,
+    primary key (id)
+);
+insert into item_change_version (id, version)
+select 1, 0 from dual where not exists (select 1 from item_change_version where id = 1);
+-- 상품마다 마지막 변경 버전(item_id = 0 : 전체 변경), 조회는 version 범위
+create table if not exists item_change_log
+(
+    item_id bigint not null,
+    version bigint not null,
+    primary key (item_id)
+);
+create index if not exists idx_item_change_log_version on item_change_log (version);
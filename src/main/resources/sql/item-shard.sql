@@ -0,0 +1,15 @@
+-- 샤드 데이터베이스 초기화(ShardedItemRepository) -> 이미 있으면 그대로 사용
+-- id 는 애플리케이션이 발급(ItemIdAllocator)하므로 identity 를 사용하지 않음
+create table if not exists item
+(
+    id  bigint not null,
+    item_name varchar(10),
+    price integer,
+    quantity integer,
+    item_name_lower varchar(10) as lower(item_name),
+    primary key (id)
+);
+create index if not exists idx_item_name on item (item_name);
+create index if not exists idx_item_name_lower on item (item_name_lower);
+-- id 블록 번호, 첫 번째 샤드의 시퀀스만 사용
+create sequence if not exists item_id_block_seq start with 1;
@@ -0,0 +1,62 @@
+package hello.itemservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotItemTrackerTest {
+
+    @Test
+    void topK() {
+        HotItemTracker tracker = new HotItemTracker(3, 1024);
+        //id 1 ~ 1000 을 한 번씩, id 7, 8, 9 는 많이
+        for (long id = 1; id <= 1000; id++) {
+            tracker.record(id);
+        }
+        for (int i = 0; i < 300; i++) {
+            tracker.record(7);
+            if (i < 200) {
+                tracker.record(8);
+            }
+            if (i < 100) {
+                tracker.record(9);
+            }
+        }
+
+        assertThat(ids(tracker.topK())).containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void snapshotRoundTrip(@TempDir Path directory) throws Exception {
+        HotItemTracker tracker = new HotItemTracker(2, 1024);
+        for (int i = 0; i < 50; i++) {
+            tracker.record(1);
+            tracker.record(2);
+            tracker.record(2);
+        }
+        Path file = directory.resolve("hot-items.csv");
+        HotItemSnapshot saved = new HotItemSnapshot(tracker, null,
+                new StaticListableBeanFactory().getBeanProvider(ItemCache.class), file, 60_000);
+        saved.save();
+        saved.shutdown();
+
+        //재시작 : 저장한 순위로 시작
+        HotItemTracker restarted = new HotItemTracker(2, 1024);
+        HotItemSnapshot snapshot = new HotItemSnapshot(restarted, null,
+                new StaticListableBeanFactory().getBeanProvider(ItemCache.class), file, 60_000);
+        restarted.seed(snapshot.load());
+
+        assertThat(ids(restarted.topK())).containsExactly(2L, 1L);
+        snapshot.shutdown();
+    }
+
+    private static List<Long> ids(List<HotItemTracker.HotItem> items) {
+        return items.stream().map(HotItemTracker.HotItem::getId).collect(Collectors.toList());
+    }
+}
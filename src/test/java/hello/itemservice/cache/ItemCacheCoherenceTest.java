@@ -0,0 +1,138 @@
+package hello.itemservice.cache;
+
+import hello.itemservice.ItemServiceApplication;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.service.ItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 H2 메모리 데이터베이스를 사용하는 애플리케이션 두 개(node A, node B)로 여러 인스턴스를 흉내냄
+ - node A : jdbc-template-v3(트랜잭션 밖 변경), node B : v2(JPA 트랜잭션 안 변경)
+ - node B 의 변경이 staleness 상한 안에 node A 캐시에서 제거되는지, 바뀌지 않은 상품은 캐시에 남는지 확인
+ */
+class ItemCacheCoherenceTest {
+
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final long MAX_STALENESS_MS = 1000;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:coherence-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        nodeA = start(url, "jdbc-template-v3", "always");
+        nodeB = start(url, "v2", "never");     //테이블은 node A 가 생성
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void remoteUpdateInvalidatesOnlyChangedItem() {
+        ItemService serviceA = nodeA.getBean(ItemService.class);
+        ItemCache cacheA = nodeA.getBean(ItemCache.class);
+        Item itemA = serviceA.save(new Item("itemA", 10000, 10));
+        Item itemB = serviceA.save(new Item("itemB", 20000, 20));
+        awaitSynchronized(nodeA);
+
+        Function<Long, Optional<Item>> loader = id -> {
+            loads.incrementAndGet();
+            return serviceA.findById(id);
+        };
+        cacheA.findById(itemA.getId(), loader);
+        cacheA.findById(itemB.getId(), loader);
+        cacheA.findById(itemA.getId(), loader);
+        cacheA.findById(itemB.getId(), loader);
+        assertThat(loads.get()).isEqualTo(2);
+
+        //when : 다른 인스턴스에서 수정
+        nodeB.getBean(ItemService.class).update(itemA.getId(), new ItemUpdateDto("itemA", 15000, 15));
+
+        //then : staleness 상한 안에 새 값, itemB 는 캐시에서 반환
+        long started = System.nanoTime();
+        await(() -> cacheA.findById(itemA.getId(), loader).get().getPrice() == 15000);
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThanOrEqualTo(MAX_STALENESS_MS);
+
+        int before = loads.get();
+        assertThat(cacheA.findById(itemB.getId(), loader).get().getPrice()).isEqualTo(20000);
+        assertThat(loads.get()).isEqualTo(before);
+    }
+
+    @Test
+    void stopsCachingWhenPollingStops() {
+        ItemService serviceA = nodeA.getBean(ItemService.class);
+        ItemCache cacheA = nodeA.getBean(ItemCache.class);
+        Item item = serviceA.save(new Item("itemA", 10000, 10));
+        awaitSynchronized(nodeA);
+
+        Function<Long, Optional<Item>> loader = id -> {
+            loads.incrementAndGet();
+            return serviceA.findById(id);
+        };
+        cacheA.findById(item.getId(), loader);
+        cacheA.findById(item.getId(), loader);
+        assertThat(loads.get()).isEqualTo(1);
+
+        //when : 변경 조회가 멈춤(데이터베이스 장애 등)
+        nodeA.getBean(ItemChangePoller.class).shutdown();
+        await(() -> !cacheA.isFresh());
+
+        //then : 캐시를 사용하지 않고 매번 조회
+        cacheA.findById(item.getId(), loader);
+        cacheA.findById(item.getId(), loader);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    /**
+     * 저장까지의 변경을 poller 가 모두 반영할 때까지 대기 -> 뒤늦게 반영된 저장이 이후에 보관한 상품을 제거하지 않도록
+     */
+    private static void awaitSynchronized(ConfigurableApplicationContext node) {
+        long version = node.getBean(ItemChangeLog.class).currentVersion();
+        ItemChangePoller poller = node.getBean(ItemChangePoller.class);
+        await(() -> (long) poller.snapshot().get("lastVersion") >= version && node.getBean(ItemCache.class).isFresh());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + MAX_STALENESS_MS * 3;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String url, String repository, String sqlInitMode) {
+        return new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=" + url,
+                        "spring.sql.init.mode=" + sqlInitMode,
+                        "itemservice.repository=" + repository,
+                        "itemservice.cache.enabled=true",
+                        "itemservice.cache.poll-interval-ms=" + POLL_INTERVAL_MS,
+                        "itemservice.cache.max-staleness-ms=" + MAX_STALENESS_MS)
+                .run();
+    }
+}
@@ -0,0 +1,165 @@
+package hello.itemservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary 1개, 복제본 2개를 각각 다른 H2 메모리 데이터베이스로 두고, 데이터베이스마다 다른 이름의 상품을 저장해서 어디서 조회했는지 확인
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final List<SingleConnectionDataSource> databases = new ArrayList<>();
+    private final List<SwitchableDataSource> replicas = new ArrayList<>();
+    private SingleConnectionDataSource primary;
+    private ReplicaSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        primary = database("primary", run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        if (selector != null) {
+            selector.close();
+        }
+        databases.forEach(SingleConnectionDataSource::destroy);
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        JdbcTemplate jdbcTemplate = routing(ReplicaSelector.Strategy.ROUND_ROBIN, "replica0");
+        TransactionTemplate readOnly = transactionTemplate(jdbcTemplate, true);
+        TransactionTemplate readWrite = transactionTemplate(jdbcTemplate, false);
+
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("replica0");
+        assertThat(itemName(readWrite, jdbcTemplate)).isEqualTo("primary");
+        assertThat(itemName(jdbcTemplate)).isEqualTo("primary");    //트랜잭션 밖
+
+        //쓰기는 primary 에 반영
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update item set item_name = 'changed'"));
+        assertThat(new JdbcTemplate(primary).queryForObject("select item_name from item", String.class)).isEqualTo("changed");
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("replica0");
+    }
+
+    @Test
+    void readYourWritesGoesToPrimary() {
+        JdbcTemplate jdbcTemplate = routing(ReplicaSelector.Strategy.ROUND_ROBIN, "replica0");
+        TransactionTemplate readOnly = transactionTemplate(jdbcTemplate, true);
+
+        ReadYourWrites.requirePrimary();
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("primary");
+
+        ReadYourWrites.clear();
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("replica0");
+    }
+
+    @Test
+    void roundRobin() {
+        JdbcTemplate jdbcTemplate = routing(ReplicaSelector.Strategy.ROUND_ROBIN, "replica0", "replica1");
+        TransactionTemplate readOnly = transactionTemplate(jdbcTemplate, true);
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            names.add(itemName(readOnly, jdbcTemplate));
+        }
+        assertThat(names).containsExactly("replica0", "replica1", "replica0", "replica1");
+    }
+
+    @Test
+    void skipUnavailableReplica() {
+        JdbcTemplate jdbcTemplate = routing(ReplicaSelector.Strategy.LEAST_LATENCY, "replica0", "replica1");
+        TransactionTemplate readOnly = transactionTemplate(jdbcTemplate, true);
+        selector.probe();
+        assertThat(itemName(readOnly, jdbcTemplate)).startsWith("replica");
+
+        //replica0 중단 -> replica1
+        replicas.get(0).available = false;
+        selector.probe();
+        assertThat(selector.select()).isEqualTo("replica-1");
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("replica1");
+
+        //모든 복제본 중단 -> primary
+        replicas.get(1).available = false;
+        selector.probe();
+        assertThat(selector.select()).isNull();
+        assertThat(itemName(readOnly, jdbcTemplate)).isEqualTo("primary");
+
+        //다시 응답하면 선택 대상에 포함
+        replicas.get(0).available = true;
+        selector.probe();
+        assertThat(selector.select()).isEqualTo("replica-0");
+    }
+
+    private JdbcTemplate routing(ReplicaSelector.Strategy strategy, String... replicaNames) {
+        String run = UUID.randomUUID().toString();
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicaNames.length; i++) {
+            SwitchableDataSource replica = new SwitchableDataSource(database(replicaNames[i], run));
+            replicas.add(replica);
+            replicaDataSources.put("replica-" + i, replica);
+        }
+        selector = new ReplicaSelector(replicaDataSources, strategy, 0);
+        return new JdbcTemplate(ReadWriteRoutingDataSource.lazy(primary, selector));
+    }
+
+    private SingleConnectionDataSource database(String itemName, String run) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:" + itemName + "-" + run, "sa", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table item (id bigint primary key, item_name varchar(10))");
+        jdbcTemplate.update("insert into item (id, item_name) values (1, ?)", itemName);
+        databases.add(dataSource);
+        return dataSource;
+    }
+
+    private static TransactionTemplate transactionTemplate(JdbcTemplate jdbcTemplate, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private static String itemName(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("select item_name from item where id = 1", String.class);
+    }
+
+    private static String itemName(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate) {
+        return transactionTemplate.execute(status -> itemName(jdbcTemplate));
+    }
+
+    //available = false 이면 커넥션을 주지 않음 -> 응답하지 않는 복제본
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean available = true;
+
+        private SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!available) {
+                throw new SQLException("replica unavailable");
+            }
+            return super.getConnection();
+        }
+    }
+}
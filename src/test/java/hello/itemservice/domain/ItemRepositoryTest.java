@@ -2,7 +2,9 @@ package hello.itemservice.domain;
 
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
 import hello.itemservice.repository.memory.MemoryItemRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +12,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * @Transactional
@@ -114,6 +118,144 @@ class ItemRepositoryTest {
         test("itemA", 10000, item1);
     }
 
+    @Test
+    void findItemsByMatchMode() {
+        //given
+        Item item1 = new Item("itemA-1", 10000, 10);
+        Item item2 = new Item("ItemA-2", 20000, 20);
+        Item item3 = new Item("itemA_3", 30000, 30);
+
+        itemRepository.save(item1);
+        itemRepository.save(item2);
+        itemRepository.save(item3);
+
+        //EXACT 검증
+        test("itemA-1", null, MatchMode.EXACT, item1);
+        test("itemA", null, MatchMode.EXACT);
+
+        //PREFIX 검증('_' 는 와일드카드가 아닌 글자로 비교)
+        test("itemA", null, MatchMode.PREFIX, item1, item3);
+        test("itemA_", null, MatchMode.PREFIX, item3);
+        test("temA", null, MatchMode.PREFIX);
+
+        //CONTAINS 검증
+        test("temA-", null, MatchMode.CONTAINS, item1, item2);
+        test("A_", null, MatchMode.CONTAINS, item3);
+        test("A%3", 30000, MatchMode.CONTAINS);
+
+        //IGNORE_CASE 검증
+        test("ITEMA", null, MatchMode.IGNORE_CASE, item1, item2, item3);
+        test("itema", 20000, MatchMode.IGNORE_CASE, item1, item2);
+    }
+
+    @Test
+    void aggregate() {
+        //given
+        itemRepository.save(new Item("itemA-1", 10000, 10));
+        itemRepository.save(new Item("itemA-2", 15000, 20));
+        itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        //when
+        ItemStats all = itemRepository.aggregate(new ItemSearchCond(), 10000);
+        ItemStats itemA = itemRepository.aggregate(new ItemSearchCond("itemA", null, MatchMode.PREFIX), 10000);
+        ItemStats none = itemRepository.aggregate(new ItemSearchCond(null, 5000), 10000);
+
+        //then
+        assertThat(all.getCount()).isEqualTo(3);
+        assertThat(all.getTotalValue()).isEqualTo(10000L * 10 + 15000L * 20 + 30000L * 30);
+        assertThat(all.getMinPrice()).isEqualTo(10000);
+        assertThat(all.getMaxPrice()).isEqualTo(30000);
+        assertThat(all.getHistogram()).containsExactly(entry(10000, 2L), entry(30000, 1L));
+
+        assertThat(itemA.getCount()).isEqualTo(2);
+        assertThat(itemA.getHistogram()).containsExactly(entry(10000, 2L));
+
+        assertThat(none.getCount()).isZero();
+        assertThat(none.getTotalValue()).isZero();
+        assertThat(none.getMinPrice()).isNull();
+        assertThat(none.getHistogram()).isEmpty();
+    }
+
+    @Test
+    void findAllById() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        //when
+        List<Item> result = itemRepository.findAllById(
+                Arrays.asList(item3.getId(), -1L, item1.getId(), item3.getId(), null, item2.getId()));
+
+        //then : 요청한 순서, 없는 id 와 중복 id 는 제외
+        assertThat(result).containsExactly(item3, item1, item2);
+        assertThat(itemRepository.findAllById(List.of())).isEmpty();
+    }
+
+    @Test
+    void findPage() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemB-1", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemA-2", 30000, 30));
+        Item item4 = itemRepository.save(new Item("itemA-3", 40000, 40));
+        ItemSearchCond itemA = new ItemSearchCond("itemA", null, MatchMode.PREFIX);
+
+        //when
+        List<Item> first = itemRepository.findPage(itemA, null, 2);
+        List<Item> second = itemRepository.findPage(itemA, first.get(1).getId(), 2);
+        List<Item> last = itemRepository.findPage(itemA, second.get(0).getId(), 2);
+
+        //then : id 순서, 이전 페이지의 마지막 id 다음부터
+        assertThat(first).containsExactly(item1, item3);
+        assertThat(second).containsExactly(item4);
+        assertThat(last).isEmpty();
+        assertThat(itemRepository.findPage(new ItemSearchCond(null, 20000), null, 10)).containsExactly(item1, item2);
+    }
+
+    @Test
+    void upsertAll() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when : itemA 는 수정, itemB 는 저장, 같은 이름이 여러 번이면 마지막 값
+        itemRepository.upsertAll(List.of(
+                new Item("itemA", 11000, 11),
+                new Item("itemB", 20000, 20),
+                new Item("itemB", 21000, 21)));
+
+        //then
+        List<Item> itemA = itemRepository.findAll(new ItemSearchCond("itemA", null, MatchMode.EXACT));
+        assertThat(itemA).hasSize(1);
+        assertThat(itemA.get(0).getId()).isEqualTo(item1.getId());
+        assertThat(itemA.get(0).getPrice()).isEqualTo(11000);
+        assertThat(itemA.get(0).getQuantity()).isEqualTo(11);
+
+        List<Item> itemB = itemRepository.findAll(new ItemSearchCond("itemB", null, MatchMode.EXACT));
+        assertThat(itemB).hasSize(1);
+        assertThat(itemB.get(0).getPrice()).isEqualTo(21000);
+        assertThat(itemB.get(0).getQuantity()).isEqualTo(21);
+    }
+
+    @Test
+    void findAllViews() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        //when
+        List<ItemView> result = itemRepository.findAllViews(new ItemSearchCond("itemA", 20000, MatchMode.PREFIX));
+
+        //then : findAll 과 같은 조건, 값은 기본형으로
+        assertThat(result).containsExactlyInAnyOrder(ItemView.of(item1), ItemView.of(item2));
+    }
+
+    void test(String itemName, Integer maxPrice, MatchMode matchMode, Item... items) {
+        List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice, matchMode));
+        assertThat(result).containsExactlyInAnyOrder(items);
+    }
+
     void test(String itemName, Integer maxPrice, Item... items) {
         List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
         assertThat(result).containsExactly(items);
@@ -0,0 +1,125 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 집계 API(ItemService.aggregate) 와 전체 조회 후 계산(findItems + ItemStats.of) 비교
+ - 저장소 구현마다 load.aggregate.items(기본 100,000)개 저장 후 조건 3가지(전체, 가격 조건, 이름 + 가격 조건)로 측정
+ - 두 방식의 결과가 같은지 확인하고 평균 시간을 기록
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AggregateBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+    private static final int BUCKET_SIZE = 10_000;
+
+    private final int items = LoadReport.intProperty("load.aggregate.items", 100_000);
+    private final LoadReport report = new LoadReport("aggregate")
+            .setting("items", items)
+            .setting("bucketSize", BUCKET_SIZE);
+
+    @AfterAll
+    void writeReport() {
+        log.info("aggregate report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "memory-durable", "memory-columnar", "jdbc-template-v3", "mybatis", "jpa",
+            "spring-data-jpa", "querydsl", "v2"})
+    void aggregate(String repository) {
+        try (ConfigurableApplicationContext context = LoadApplication.start(repository)) {
+            ItemService itemService = context.getBean(ItemService.class);
+            seed(repository, itemService, context.getBean(DataSource.class));
+
+            Map<String, ItemSearchCond> conds = new LinkedHashMap<>();
+            conds.put("all", new ItemSearchCond());
+            conds.put("maxPrice", new ItemSearchCond(null, 30_000));
+            conds.put("prefixAndMaxPrice", new ItemSearchCond("item1", 30_000, MatchMode.PREFIX));
+
+            try {
+                measure(repository, itemService, conds);
+            } finally {
+                new MemoryItemRepository().clearStore();    //MemoryItemRepository 저장소는 static
+            }
+        }
+    }
+
+    private void measure(String repository, ItemService itemService, Map<String, ItemSearchCond> conds) {
+        for (Map.Entry<String, ItemSearchCond> entry : conds.entrySet()) {
+            ItemSearchCond cond = entry.getValue();
+            ItemStats aggregated = itemService.aggregate(cond, BUCKET_SIZE);
+            ItemStats loaded = ItemStats.of(itemService.findItems(cond), BUCKET_SIZE);
+            assertThat(aggregated).usingRecursiveComparison().isEqualTo(loaded);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("repository", repository);
+            result.put("cond", entry.getKey());
+            result.put("count", aggregated.getCount());
+            result.put("aggregateMs", averageMillis(() -> itemService.aggregate(cond, BUCKET_SIZE)));
+            result.put("loadAndSumMs", averageMillis(() -> ItemStats.of(itemService.findItems(cond), BUCKET_SIZE)));
+            report.add(result);
+            log.info("{}", result);
+        }
+    }
+
+    /**
+     * 메모리 저장소는 ItemService 로 저장, 데이터베이스 저장소는 배치 INSERT 로 빠르게 저장
+     */
+    private void seed(String repository, ItemService itemService, DataSource dataSource) {
+        if (repository.startsWith("memory")) {
+            new MemoryItemRepository().clearStore();
+            for (int i = 0; i < items; i++) {
+                itemService.save(item(i));
+            }
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = item(i);
+            batch.add(new Object[]{item.getItemName(), item.getPrice(), item.getQuantity()});
+            if (batch.size() == 1_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static Item item(int i) {
+        return new Item("item" + i % 10_000, i % 100_000, i % 100);
+    }
+
+    private static double averageMillis(Supplier<?> task) {
+        task.get();     //워밍업
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+}
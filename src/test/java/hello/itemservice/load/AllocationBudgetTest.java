@@ -0,0 +1,224 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.jdbctemplate.ReplicatedItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 자주 호출되는 경로의 요청 하나당 할당 바이트 회귀 테스트
+ - 저장소 구현마다 ItemRepository 호출(findById, findAllViews)과 ItemController 요청(/items, /items/{id})을 측정
+ - 측정 스레드의 할당량(com.sun.management.ThreadMXBean) -> 워밍업 후 allocation.batches(기본 5)번 측정해서 가장 작은 평균
+ -> 컨트롤러 요청은 MockMvc 로 같은 스레드에서 실행(뷰 렌더링 포함, HTTP 서버와 클라이언트 할당은 제외)
+ - 기준값 : src/test/resources/allocation-budgets.properties({구현}.{repository|controller}.{연산}=바이트)
+ - 기준값 * (1 + allocation.margin(기본 0.10)) 을 넘거나 기준값이 없으면 실패(allocation.update=true 일 때는 기록만)
+ - 할당량은 JDK 버전, JIT 최적화(escape analysis)에 따라 달라짐 -> 기준값을 만든 환경과 같은 JDK 로 비교
+
+ * 실행
+ - ./gradlew allocationTest -Dallocation.margin=0.2
+ - 기준값 갱신(의도한 변경일 때) : ./gradlew allocationTest -Dallocation.update=true -> 파일을 다시 쓰고 변경 내용을 커밋
+ - allocation.items(저장할 상품 수, 기본 200), allocation.operations(측정 한 번의 호출 수, 기본 1000)
+ */
+@Slf4j
+@Tag("allocation")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AllocationBudgetTest {
+
+    private static final String BUDGETS = "allocation-budgets.properties";
+
+    private final int items = LoadReport.intProperty("allocation.items", 200);
+    private final int operations = LoadReport.intProperty("allocation.operations", 1000);
+    private final int batches = LoadReport.intProperty("allocation.batches", 5);
+    private final double margin = Double.parseDouble(System.getProperty("allocation.margin", "0.10"));
+    private final boolean update = Boolean.getBoolean("allocation.update");
+    private final Path budgetFile = Paths.get(System.getProperty("allocation.budgetFile", "src/test/resources/" + BUDGETS));
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Properties budgets = new Properties();
+    private final Map<String, Long> measured = new TreeMap<>();
+
+    private final LoadReport report = new LoadReport("allocation")
+            .setting("items", items)
+            .setting("operations", operations)
+            .setting("batches", batches)
+            .setting("margin", margin);
+
+    static Stream<String> repositories() {
+        return Stream.of("memory", "memory-durable", "memory-columnar", "jdbc-template-v1", "jdbc-template-v2", "jdbc-template-v3",
+                "sharded", "replicated", "mybatis", "jpa", "spring-data-jpa", "querydsl", "v2");
+    }
+
+    @BeforeAll
+    void loadBudgets() throws IOException {
+        assertThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(BUDGETS)) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        }
+    }
+
+    @AfterAll
+    void writeReport() {
+        log.info("allocation report = {}", report.write());
+        if (update) {
+            writeBudgets();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("repositories")
+    void budget(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb(repository)) {
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            awaitReady(itemRepository);
+            List<Long> ids = seed(context.getBean(ItemService.class));
+            ItemSearchCond all = new ItemSearchCond();
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("repository.findById", bytesPerOperation(operations, i ->
+                    assertThat(itemRepository.findById(ids.get(i % ids.size()))).isPresent()));
+            result.put("repository.findAllViews", bytesPerOperation(operations / 10, i ->
+                    assertThat(itemRepository.findAllViews(all)).hasSize(items)));
+            result.put("controller.item", bytesPerOperation(operations, i ->
+                    mockMvc.perform(get("/items/{itemId}", ids.get(i % ids.size()))).andExpect(status().isOk())));
+            result.put("controller.items", bytesPerOperation(operations / 10, i ->
+                    mockMvc.perform(get("/items")).andExpect(status().isOk())));
+
+            if (itemRepository instanceof MemoryItemRepository) {
+                ((MemoryItemRepository) itemRepository).clearStore();     //저장소가 static
+            }
+            check(repository, result);
+        }
+    }
+
+    private void check(String repository, Map<String, Long> result) {
+        List<String> exceeded = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("repository", repository);
+        for (Map.Entry<String, Long> entry : result.entrySet()) {
+            String key = repository + "." + entry.getKey();
+            long bytes = entry.getValue();
+            measured.put(key, bytes);
+            String budget = budgets.getProperty(key);
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("bytesPerOperation", bytes);
+            operation.put("budget", budget == null ? null : Long.parseLong(budget));
+            row.put(entry.getKey(), operation);
+            if (budget == null) {
+                missing.add(key);
+            } else if (bytes > Long.parseLong(budget) * (1 + margin)) {
+                exceeded.add(key + " = " + bytes + " bytes (budget " + budget + ", margin " + margin + ")");
+            }
+        }
+        report.add(row);
+        log.info("{}", row);
+
+        if (update) {
+            return;
+        }
+        assertThat(exceeded).as("allocation budget exceeded").isEmpty();
+        assertThat(missing).as("no allocation budget, record with -Dallocation.update=true").isEmpty();
+    }
+
+    private long bytesPerOperation(int count, Operation operation) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < count; i++) {     //워밍업
+            operation.run(i);
+        }
+        long best = Long.MAX_VALUE;
+        for (int batch = 0; batch < batches; batch++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < count; i++) {
+                operation.run(i);
+            }
+            best = Math.min(best, (threads.getThreadAllocatedBytes(threadId) - before) / count);
+        }
+        return best;
+    }
+
+    private List<Long> seed(ItemService itemService) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            ids.add(itemService.save(new Item("i" + i, i * 100, i % 100)).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 복제본을 채우는 동안에는 데이터베이스에서 조회 -> 복제본 조회를 측정하도록 준비될 때까지 기다림
+     */
+    private void awaitReady(ItemRepository itemRepository) throws InterruptedException {
+        if (!(itemRepository instanceof ReplicatedItemRepository)) {
+            return;
+        }
+        ReplicatedItemRepository replicated = (ReplicatedItemRepository) itemRepository;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!replicated.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(replicated.isReady()).isTrue();
+    }
+
+    /**
+     * 이번에 측정하지 않은 기존 기준값은 유지
+     */
+    private void writeBudgets() {
+        Map<String, Object> merged = new TreeMap<>();
+        budgets.forEach((key, value) -> merged.put((String) key, value));
+        merged.putAll(measured);
+        try (Writer writer = Files.newBufferedWriter(budgetFile, StandardCharsets.UTF_8)) {
+            writer.write("#요청 하나당 할당 바이트 기준값(AllocationBudgetTest), -Dallocation.update=true 로 갱신\n");
+            writer.write("#{구현}.{repository|controller}.{연산}=바이트, 기준값이 없는 연산은 실패\n");
+            writer.write("#java.version=" + System.getProperty("java.version") + ", items=" + items + "\n");
+            for (Map.Entry<String, Object> entry : merged.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("allocation budgets updated = {}", budgetFile.toAbsolutePath());
+    }
+
+    private interface Operation {
+        void run(int i) throws Exception;
+    }
+}
@@ -0,0 +1,129 @@
+package hello.itemservice.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.Item;
+import hello.itemservice.web.ItemBinaryCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 목록 전송 형식 비교 : JSON 배열(Jackson) vs 이진 형식(ItemBinaryCodec)
+ - load.codec.items(기본 1,000,000)개를 load.codec.iterations(기본 5)번 인코딩/디코딩해서 가장 빠른 시간 기록(앞의 반복은 JIT 워밍업)
+ - 크기는 원본과 gzip 압축 후를 함께 기록
+ - 이름은 item_name 길이 10 에 맞추고, id 는 내보내기처럼 증가 순서
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BinaryCodecBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.codec.items", 1_000_000);
+    private final int iterations = LoadReport.intProperty("load.codec.iterations", 5);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoadReport report = new LoadReport("binary-codec")
+            .setting("items", items)
+            .setting("iterations", iterations);
+
+    @AfterAll
+    void writeReport() {
+        log.info("binary codec report = {}", report.write());
+    }
+
+    @Test
+    void compare() throws Exception {
+        List<Item> source = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Item item = new Item("i" + i, i % 100_000, i % 100);
+            item.setId((long) i + 1);
+            source.add(item);
+        }
+
+        measure("json", source, new Codec() {
+            @Override
+            public byte[] encode(List<Item> items) throws IOException {
+                return objectMapper.writeValueAsBytes(items);
+            }
+
+            @Override
+            public List<Item> decode(byte[] bytes) throws IOException {
+                return objectMapper.readValue(bytes, new TypeReference<List<Item>>() {
+                });
+            }
+        });
+        measure("binary", source, new Codec() {
+            @Override
+            public byte[] encode(List<Item> items) throws IOException {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(items.size() * 16);
+                ItemBinaryCodec.encode(items, out);
+                return out.toByteArray();
+            }
+
+            @Override
+            public List<Item> decode(byte[] bytes) throws IOException {
+                return ItemBinaryCodec.decode(new ByteArrayInputStream(bytes));
+            }
+        });
+    }
+
+    private void measure(String format, List<Item> source, Codec codec) throws IOException {
+        long bestEncode = Long.MAX_VALUE;
+        long bestDecode = Long.MAX_VALUE;
+        byte[] encoded = null;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            encoded = codec.encode(source);
+            bestEncode = Math.min(bestEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<Item> decoded = codec.decode(encoded);
+            bestDecode = Math.min(bestDecode, System.nanoTime() - start);
+            assertThat(decoded).hasSize(source.size());
+            if (i == 0) {
+                assertThat(decoded).isEqualTo(source);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("format", format);
+        result.put("bytes", encoded.length);
+        result.put("bytesPerItem", encoded.length / (double) source.size());
+        result.put("gzipBytes", gzipSize(encoded));
+        result.put("encodeMs", bestEncode / 1_000_000.0);
+        result.put("decodeMs", bestDecode / 1_000_000.0);
+        result.put("encodeItemsPerSec", source.size() * 1_000_000_000.0 / bestEncode);
+        result.put("decodeItemsPerSec", source.size() * 1_000_000_000.0 / bestDecode);
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    private static long gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private interface Codec {
+
+        byte[] encode(List<Item> items) throws IOException;
+
+        List<Item> decode(byte[] bytes) throws IOException;
+    }
+}
@@ -0,0 +1,150 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.web.ItemChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 변경 피드(/items/changes) 부하 테스트
+ - load.changes.subscribers(기본 1,000)개 SSE 연결을 열고 load.changes.events(기본 200)개 변경을 발생시킴
+ - 변경 시각부터 각 구독자가 받은 시각까지의 지연(p50/p99/p999)과 구독 중 서버 스레드 수를 기록
+ - 마지막에 중간 순번(after)으로 다시 구독해서 이후 변경만 이어받는지 확인
+ */
+@Slf4j
+@Tag("load")
+class ChangeFeedLoadTest {
+
+    private final int subscribers = LoadReport.intProperty("load.changes.subscribers", 1_000);
+    private final int events = LoadReport.intProperty("load.changes.events", 200);
+
+    @Test
+    void fanOut() throws Exception {
+        LoadReport report = new LoadReport("change-feed")
+                .setting("subscribers", subscribers)
+                .setting("events", events);
+
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb("memory",
+                "itemservice.changes.replay-size=" + events)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ItemChangeFeed feed = context.getBean(ItemChangeFeed.class);
+            ItemService itemService = context.getBean(ItemService.class);
+            HttpClient client = HttpClient.newHttpClient();
+
+            int threadsBefore = Thread.activeCount();
+            AtomicLongArray publishedAt = new AtomicLongArray(events + 1);
+            LatencyRecorder latency = new LatencyRecorder();
+            CountDownLatch delivered = new CountDownLatch(subscribers);
+            for (int i = 0; i < subscribers; i++) {
+                subscribe(client, baseUrl + "/items/changes", new EventCounter(events, publishedAt, latency, delivered));
+            }
+            awaitSubscribers(feed, subscribers);
+            int threadsSubscribed = Thread.activeCount();
+
+            publishedAt.set(1, System.nanoTime());
+            Item item = itemService.save(new Item("feed", 1000, 1));
+            for (int sequence = 2; sequence <= events; sequence++) {
+                publishedAt.set(sequence, System.nanoTime());
+                itemService.update(item.getId(), new ItemUpdateDto("feed", 1000 + sequence, sequence));
+            }
+            assertThat(delivered.await(60, TimeUnit.SECONDS)).isTrue();
+
+            //중간 순번 이후 변경만 이어받는지 확인
+            CountDownLatch resumed = new CountDownLatch(1);
+            EventCounter resume = new EventCounter(events / 2, new AtomicLongArray(events + 1), new LatencyRecorder(), resumed);
+            subscribe(client, baseUrl + "/items/changes?after=" + (events - events / 2), resume);
+            assertThat(resumed.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(resume.firstSequence).isEqualTo(events - events / 2 + 1);
+
+            Map<String, Object> result = new LinkedHashMap<>(latency.summary());
+            result.put("threadsBefore", threadsBefore);
+            result.put("threadsWithSubscribers", threadsSubscribed);
+            report.add(result);
+            log.info("{}", result);
+        }
+        log.info("change feed report = {}", report.write());
+    }
+
+    private void subscribe(HttpClient client, String url, EventCounter counter) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Accept", "text/event-stream").build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(counter));
+    }
+
+    private void awaitSubscribers(ItemChangeFeed feed, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while ((int) feed.snapshot().get("subscribers") < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * SSE 응답을 줄 단위로 받아서 "id:" 줄마다 지연 기록, expected 개를 받으면 latch 감소
+     - HttpClient 가 응답을 비동기로 전달하므로 구독자마다 스레드를 만들지 않음
+     */
+    private static class EventCounter implements Flow.Subscriber<String> {
+
+        private final int expected;
+        private final AtomicLongArray publishedAt;
+        private final LatencyRecorder latency;
+        private final CountDownLatch done;
+        private int received;
+        private volatile long firstSequence;
+
+        EventCounter(int expected, AtomicLongArray publishedAt, LatencyRecorder latency, CountDownLatch done) {
+            this.expected = expected;
+            this.publishedAt = publishedAt;
+            this.latency = latency;
+            this.done = done;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("id:")) {
+                return;
+            }
+            int sequence = Integer.parseInt(line.substring(3).trim());
+            if (received == 0) {
+                firstSequence = sequence;
+            }
+            long published = publishedAt.get(sequence);
+            if (published > 0) {
+                latency.record(System.nanoTime() - published);
+            }
+            if (++received == expected) {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            latency.error();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
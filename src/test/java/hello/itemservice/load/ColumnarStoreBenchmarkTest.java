@@ -0,0 +1,114 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HashMap + Item 객체(MemoryItemRepository) 와 컬럼 저장소(ColumnarItemRepository) 비교
+ - 메모리 : load.columnar.items(기본 1,000,000)개 저장 전후의 힙 사용량, direct buffer 사용량
+ - 검색 : 이름 + 가격 조건, 가격 조건만 있는 findAll 을 반복 실행한 평균 시간
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ColumnarStoreBenchmarkTest {
+
+    private static final int SCAN_ROUNDS = 20;
+
+    private final int items = LoadReport.intProperty("load.columnar.items", 1_000_000);
+    private final LoadReport report = new LoadReport("columnar-store").setting("items", items);
+
+    @AfterAll
+    void writeReport() {
+        log.info("columnar store report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"hash-map", "columnar-heap", "columnar-off-heap"})
+    void footprintAndScan(String store) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+
+        ItemRepository repository = create(store);
+        for (int i = 0; i < items; i++) {
+            repository.save(new Item("item" + i % 100_000, i % 100_000, i % 100));
+        }
+        long heapBytes = usedHeap() - heapBefore;
+        long directBytes = usedDirect() - directBefore;
+
+        ItemSearchCond nameAndPrice = new ItemSearchCond("item99", 50_000);
+        ItemSearchCond priceOnly = new ItemSearchCond(null, 1_000);
+        int nameAndPriceMatches = repository.findAll(nameAndPrice).size();
+        assertThat(repository.findAll(priceOnly)).isNotEmpty();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("store", store);
+        result.put("heapBytesPerItem", (double) heapBytes / items);
+        result.put("directBytesPerItem", (double) directBytes / items);
+        result.put("nameAndPriceScanMs", averageMillis(() -> repository.findAll(nameAndPrice)));
+        result.put("nameAndPriceMatches", nameAndPriceMatches);
+        result.put("priceOnlyScanMs", averageMillis(() -> repository.findAll(priceOnly)));
+        report.add(result);
+        log.info("{}", result);
+
+        if (repository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) repository).clearStore();
+        }
+    }
+
+    private ItemRepository create(String store) {
+        switch (store) {
+            case "columnar-heap":
+                return new ColumnarItemRepository(false, items);
+            case "columnar-off-heap":
+                return new ColumnarItemRepository(true, items);
+            default:
+                MemoryItemRepository repository = new MemoryItemRepository();
+                repository.clearStore();
+                return repository;
+        }
+    }
+
+    private static double averageMillis(Supplier<?> scan) {
+        for (int i = 0; i < 3; i++) {
+            scan.get();     //워밍업
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SCAN_ROUNDS; i++) {
+            scan.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SCAN_ROUNDS;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,162 @@
+package hello.itemservice.load;
+
+import hello.itemservice.web.ConcurrencyLimitInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 과부하에서 동시 처리 한도(ConcurrencyLimitInterceptor) 유무 비교
+ - 커넥션 풀을 load.limiter.pool-size(기본 4)개로 줄이고 load.limiter.items(기본 50,000)개를 저장해서 느린 데이터베이스를 흉내
+ - load.limiter.clients(기본 64)개 클라이언트가 load.limiter.seconds(기본 20)초 동안 검색(전체를 훑는 /items/stats) 80%, 상세 20% 요청
+ - 처리된 요청(200)의 p50/p99, 거절된 요청(503) 수, 처리량과 마지막 한도를 기록
+ -> 한도가 없으면 요청이 커넥션 풀 앞에 쌓여서 모든 요청의 응답 시간이 늘어나고, 한도가 있으면 넘는 요청만 바로 503
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConcurrencyLimitLoadTest {
+
+    private final int items = LoadReport.intProperty("load.limiter.items", 50_000);
+    private final int poolSize = LoadReport.intProperty("load.limiter.pool-size", 4);
+    private final int clients = LoadReport.intProperty("load.limiter.clients", 64);
+    private final int seconds = LoadReport.intProperty("load.limiter.seconds", 20);
+
+    private final LoadReport report = new LoadReport("concurrency-limit")
+            .setting("items", items)
+            .setting("poolSize", poolSize)
+            .setting("clients", clients)
+            .setting("seconds", seconds);
+
+    @AfterAll
+    void writeReport() {
+        log.info("concurrency limit report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void overload(boolean limiter) throws Exception {
+        try (ConfigurableApplicationContext context = start(limiter)) {
+            List<Long> ids = seed(context.getBean(DataSource.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            Traffic traffic = run(client, baseUrl, ids);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("limiter", limiter);
+            result.put("throughputPerSec", (traffic.search.count() + traffic.detail.count()) / (double) seconds);
+            result.put("search", traffic.search.summary());
+            result.put("detail", traffic.detail.summary());
+            result.put("rejected", traffic.rejected.get());
+            if (limiter) {
+                result.put("limits", context.getBean(ConcurrencyLimitInterceptor.class).snapshot());
+            }
+            report.add(result);
+            log.info("{}", result);
+
+            assertThat(traffic.search.errors() + traffic.detail.errors()).isZero();
+            if (!limiter) {
+                assertThat(traffic.rejected.get()).isZero();
+            }
+        }
+    }
+
+    private Traffic run(HttpClient client, String baseUrl, List<Long> ids) throws Exception {
+        Traffic traffic = new Traffic();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                workers.add(() -> {
+                    while (System.nanoTime() < deadline) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        if (random.nextInt(100) < 80) {
+                            send(client, baseUrl + "/items/stats?itemName=item" + random.nextInt(100)
+                                    + "&maxPrice=" + random.nextInt(10_000, 100_000), traffic.search, traffic.rejected);
+                        } else {
+                            send(client, baseUrl + "/items/" + ids.get(random.nextInt(ids.size())), traffic.detail, traffic.rejected);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+            return traffic;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //200 은 응답 시간 기록, 503 은 거절 수만 기록, 나머지는 오류
+    private static void send(HttpClient client, String url, LatencyRecorder recorder, AtomicLong rejected) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() == 200) {
+            recorder.record(elapsed);
+        } else if (response.statusCode() == 503) {
+            rejected.incrementAndGet();
+            Thread.sleep(10);   //Retry-After 를 그대로 따르면 부하가 사라지므로 짧게만 쉼
+        } else {
+            recorder.error();
+        }
+    }
+
+    private List<Long> seed(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            batch.add(new Object[]{"item" + i, i % 100_000, i % 100});
+            if (batch.size() == 1_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("select id from item", Long.class);
+    }
+
+    private ConfigurableApplicationContext start(boolean limiter) {
+        return LoadApplication.startWeb("jdbc-template-v3",
+                "server.tomcat.threads.max=" + (clients * 2),
+                "itemservice.limiter.enabled=" + limiter,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize);
+    }
+
+    private static class Traffic {
+
+        private final LatencyRecorder search = new LatencyRecorder();
+        private final LatencyRecorder detail = new LatencyRecorder();
+        private final AtomicLong rejected = new AtomicLong();
+    }
+}
@@ -0,0 +1,83 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.DurableMemoryItemRepository;
+import hello.itemservice.repository.memory.ItemWriteAheadLog.FsyncPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DurableMemoryItemRepository 쓰기 처리량, 복구 시간 벤치마크
+ - fsync 정책별로 load.durable.items(기본 200,000)개 저장 + 절반 수정
+ - 복구 시간 : WAL 만으로 복구, 스냅샷 + WAL 로 복구를 각각 측정
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DurableMemoryBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.durable.items", 200_000);
+    private final LoadReport report = new LoadReport("durable-memory").setting("items", items);
+
+    @TempDir
+    Path root;
+
+    @AfterAll
+    void writeReport() {
+        log.info("durable memory report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void writeAndRecover(FsyncPolicy policy) {
+        //ALWAYS 는 레코드마다 fsync 하므로 건수를 줄여서 측정
+        int count = policy == FsyncPolicy.ALWAYS ? Math.min(items, 5_000) : items;
+        Path directory = root.resolve(policy.name());
+
+        DurableMemoryItemRepository repository = new DurableMemoryItemRepository(directory, policy, 100, 0);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            repository.save(new Item("item" + i, i, i));
+        }
+        for (long id = 1; id <= count / 2; id++) {
+            repository.update(id, new ItemUpdateDto("updated", 1, 1));
+        }
+        long writeNanos = System.nanoTime() - start;
+        int writes = count + count / 2;
+        repository.close();
+
+        start = System.nanoTime();
+        repository = new DurableMemoryItemRepository(directory, policy, 100, 0);
+        long logRecoveryNanos = System.nanoTime() - start;
+        assertThat(repository.findById((long) count)).isPresent();
+
+        repository.snapshot();
+        repository.close();
+        start = System.nanoTime();
+        repository = new DurableMemoryItemRepository(directory, policy, 100, 0);
+        long snapshotRecoveryNanos = System.nanoTime() - start;
+        assertThat(repository.findById(1L).get().getItemName()).isEqualTo("updated");
+        repository.close();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fsync", policy.name());
+        result.put("writes", writes);
+        result.put("writesPerSec", writes * 1_000_000_000.0 / writeNanos);
+        result.put("logRecoveryMs", logRecoveryNanos / 1_000_000);
+        result.put("snapshotRecoveryMs", snapshotRecoveryNanos / 1_000_000);
+        report.add(result);
+        log.info("{}", result);
+    }
+}
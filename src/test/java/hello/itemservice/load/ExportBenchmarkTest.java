@@ -0,0 +1,168 @@
+package hello.itemservice.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 전체 상품 내보내기(/items/export) 처리 속도
+ - 저장소 구현마다 load.export.items(기본 1,000,000)개 저장 후 CSV, NDJSON 을 gzip 유무별로 끝까지 받음
+ - 초당 행 수, 전송 바이트, 내보내는 동안 늘어난 최대 힙 사용량을 기록
+ - 10,000,000 행 측정 : ./gradlew loadTest -Dload.export.items=10000000
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.export.items", 1_000_000);
+    private final LoadReport report = new LoadReport("export").setting("items", items);
+
+    @AfterAll
+    void writeReport() {
+        log.info("export report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc-template-v1", "jdbc-template-v3", "mybatis", "jpa", "v2"})
+    void export(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb(repository)) {
+            seed(context.getBean(DataSource.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            for (String format : List.of("csv", "ndjson")) {
+                for (boolean gzip : new boolean[]{false, true}) {
+                    measure(client, baseUrl, repository, format, gzip);
+                }
+            }
+        }
+    }
+
+    private void measure(HttpClient client, String baseUrl, String repository, String format, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/items/export?format=" + format)).GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+
+        resetPeakHeap();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        CountingInputStream body = new CountingInputStream(response.body());
+        long lines;
+        try (InputStream in = gzip ? new GZIPInputStream(body, 64 * 1024) : body) {
+            lines = countLines(in);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long rows = format.equals("csv") ? lines - 1 : lines;   //CSV 는 헤더 제외
+        assertThat(rows).isEqualTo(items);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("format", format);
+        result.put("gzip", gzip);
+        result.put("rows", rows);
+        result.put("elapsedMs", elapsed / 1_000_000);
+        result.put("rowsPerSec", rows * 1_000_000_000.0 / elapsed);
+        result.put("transferredBytes", body.count);
+        result.put("peakHeapGrowthMb", Math.max(0, peakHeap() - heapBefore) / (1024.0 * 1024.0));
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    /**
+     * insert ... select 로 데이터베이스 안에서 한 번에 저장(이름은 item_name 길이 10 에 맞춤)
+     */
+    private void seed(DataSource dataSource) {
+        new JdbcTemplate(dataSource).update("insert into item (item_name, price, quantity) "
+                + "select 'i' || x, mod(x, 100000), mod(x, 100) from system_range(1, ?)", items);
+    }
+
+    private static long countLines(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long lines = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package hello.itemservice.load;
+
+import hello.itemservice.cache.HotItemTracker;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.HotItemTrackingItemService;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * findById 에 상품 추적(HotItemTrackingItemService)을 붙였을 때의 비용과 상위 K 정확도
+ - 메모리 저장소에 load.hot.items(기본 100,000)개 저장, 조회 id 는 zipf 분포(s = load.hot.skew, 기본 1.0)
+ - load.hot.threads(기본 8)개 스레드가 load.hot.requests(기본 5,000,000)번 조회 -> 추적 없음/있음 번갈아 load.hot.rounds(기본 5)번, 가장 빠른 값 기록
+ - 정확도 : 실제 조회 수 상위 K 중 추적기가 찾은 비율(recall)
+ - 메모리 저장소 조회는 매우 빠르므로 추적 비용이 가장 크게 드러나는 경우 -> 데이터베이스 저장소에서는 비율이 훨씬 작음
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotItemTrackingBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.hot.items", 100_000);
+    private final int threads = LoadReport.intProperty("load.hot.threads", 8);
+    private final int requests = LoadReport.intProperty("load.hot.requests", 5_000_000);
+    private final int rounds = LoadReport.intProperty("load.hot.rounds", 5);
+    private final int topK = LoadReport.intProperty("load.hot.top-k", 100);
+    private final double skew = Double.parseDouble(System.getProperty("load.hot.skew", "1.0"));
+
+    private final LoadReport report = new LoadReport("hot-item-tracking")
+            .setting("items", items)
+            .setting("threads", threads)
+            .setting("requests", requests)
+            .setting("rounds", rounds)
+            .setting("topK", topK)
+            .setting("skew", skew);
+
+    @AfterAll
+    void writeReport() {
+        log.info("hot item tracking report = {}", report.write());
+    }
+
+    @Test
+    void findByIdOverhead() throws Exception {
+        MemoryItemRepository repository = new MemoryItemRepository();
+        try {
+            ItemService plain = new ItemServiceV1(repository);
+            List<Long> savedIds = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                savedIds.add(plain.save(new Item("i" + i, i % 100_000, i % 100)).getId());
+            }
+            long[] workload = zipf(savedIds);
+
+            long bestPlain = Long.MAX_VALUE;
+            long bestTracked = Long.MAX_VALUE;
+            HotItemTracker tracker = null;
+            for (int round = 0; round < rounds; round++) {
+                bestPlain = Math.min(bestPlain, run(plain, workload));
+                tracker = new HotItemTracker(topK, 16384);
+                bestTracked = Math.min(bestTracked, run(new HotItemTrackingItemService(plain, tracker, 100), workload));
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("plainNsPerOp", bestPlain / (double) requests);
+            result.put("trackedNsPerOp", bestTracked / (double) requests);
+            result.put("overheadNsPerOp", (bestTracked - bestPlain) / (double) requests);
+            result.put("overheadPercent", (bestTracked - bestPlain) * 100.0 / bestPlain);
+            result.put("plainOpsPerSec", requests * 1_000_000_000.0 / bestPlain);
+            result.put("trackedOpsPerSec", requests * 1_000_000_000.0 / bestTracked);
+            result.put("recall", recall(workload, tracker));
+            result.put("tracker", tracker.snapshot(10));
+            report.add(result);
+            log.info("{}", result);
+
+            assertThat((double) result.get("recall")).isGreaterThan(0.8);
+        } finally {
+            repository.clearStore();    //MemoryItemRepository 저장소는 static
+        }
+    }
+
+    /**
+     * @return 전체 조회에 걸린 시간(나노초)
+     */
+    private long run(ItemService itemService, long[] workload) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < workload.length; i += threads) {
+                        itemService.findById(workload[i]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long[] zipf(List<Long> ids) {
+        double[] cumulative = new double[ids.size()];
+        double sum = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(42);
+        long[] workload = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            workload[i] = ids.get(index < 0 ? Math.min(-index - 1, ids.size() - 1) : index);
+        }
+        return workload;
+    }
+
+    private double recall(long[] workload, HotItemTracker tracker) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (long id : workload) {
+            counts.merge(id, 1L, Long::sum);
+        }
+        Set<Long> actual = new HashSet<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(topK)
+                .forEach(entry -> actual.add(entry.getKey()));
+
+        long found = tracker.topK().stream().filter(hot -> actual.contains(hot.getId())).count();
+        return (double) found / actual.size();
+    }
+}
@@ -0,0 +1,135 @@
+package hello.itemservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 가져오기(/items/import) 처리 속도
+ - 저장소 구현마다 load.import.items(기본 200,000)개를 CSV, NDJSON 으로 올림 -> 처음은 모두 저장(insert), 두 번째는 같은 이름이라 모두 수정(update)
+ - 본문은 만들면서 바로 전송(전체를 메모리에 만들지 않음)
+ - 초당 저장한 행 수와 서버가 기록한 결과를 남김, 묶음 크기/쓰기 스레드 수는 load.import.batch-size, load.import.writers
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ImportBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.import.items", 200_000);
+    private final int batchSize = LoadReport.intProperty("load.import.batch-size", 500);
+    private final int writers = LoadReport.intProperty("load.import.writers", 2);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoadReport report = new LoadReport("import")
+            .setting("items", items)
+            .setting("batchSize", batchSize)
+            .setting("writers", writers);
+
+    @AfterAll
+    void writeReport() {
+        log.info("import report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc-template-v3", "mybatis", "jpa", "v2"})
+    void importItems(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb(repository,
+                "itemservice.import.batch-size=" + batchSize, "itemservice.import.writers=" + writers)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+
+            for (String format : List.of("csv", "ndjson")) {
+                jdbcTemplate.update("delete from item");
+                measure(client, baseUrl, repository, format, "insert");
+                measure(client, baseUrl, repository, format, "update");
+            }
+        }
+    }
+
+    private void measure(HttpClient client, String baseUrl, String repository, String format, String phase) throws Exception {
+        int price = phase.equals("insert") ? 1 : 2;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/items/import?format=" + format))
+                .header("Content-Type", format.equals("csv") ? "text/csv" : "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body(format, price)))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsed = System.nanoTime() - start;
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        Map<?, ?> summary = objectMapper.readValue(response.body(), Map.class);
+        assertThat(((Number) summary.get("written")).intValue()).isEqualTo(items);
+        assertThat(((Number) summary.get("rejected")).intValue()).isZero();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("format", format);
+        result.put("phase", phase);
+        result.put("elapsedMs", elapsed / 1_000_000);
+        result.put("rowsPerSec", items * 1_000_000_000.0 / elapsed);
+        result.put("server", summary);
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    /**
+     * 1,000 행씩 만들어서 이어 붙이는 본문 -> 이름은 item_name 길이 10 에 맞춤
+     */
+    private InputStream body(String format, int price) {
+        int chunk = 1_000;
+        return new SequenceInputStream(new Enumeration<>() {
+            private int next = -1;   //-1 : CSV 헤더
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < items;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                StringBuilder text = new StringBuilder();
+                if (next < 0) {
+                    if (format.equals("csv")) {
+                        text.append("itemName,price,quantity\n");
+                    }
+                    next = 0;
+                }
+                int end = Math.min(items, next + chunk);
+                for (int i = next; i < end; i++) {
+                    if (format.equals("csv")) {
+                        text.append('i').append(i).append(',').append(price).append(',').append(i % 100).append('\n');
+                    } else {
+                        text.append("{\"itemName\":\"i").append(i).append("\",\"price\":").append(price)
+                                .append(",\"quantity\":").append(i % 100).append("}\n");
+                    }
+                }
+                next = end;
+                return new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
@@ -0,0 +1,234 @@
+package hello.itemservice.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ItemController HTTP 부하 테스트
+ - 저장소 구현(itemservice.repository)마다 내장 서버를 임의 포트로 띄우고 로컬 HttpClient 로 요청을 보냄
+ - 목록, 검색, 상세, 등록, 수정 요청을 비율에 맞춰 섞어서 보내고 설정별 처리량과 p50/p99/p999 응답 시간을 기록
+ - 결과는 LoadReport 로 build/reports/load/item-controller-*.json 에 저장
+
+ * 실행
+ - ./gradlew loadTest -Dload.concurrency=32 -Dload.requests=20000
+ - load.seed(초기 상품 수), load.warmup(워밍업 요청 수), load.requests(측정 요청 수), load.concurrency(동시 요청 수)
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemControllerLoadTest {
+
+    private final int seed = LoadReport.intProperty("load.seed", 100);
+    private final int warmup = LoadReport.intProperty("load.warmup", 500);
+    private final int requests = LoadReport.intProperty("load.requests", 5000);
+    private final int concurrency = LoadReport.intProperty("load.concurrency", 16);
+
+    private final LoadReport report = new LoadReport("item-controller")
+            .setting("seed", seed)
+            .setting("warmup", warmup)
+            .setting("requests", requests)
+            .setting("concurrency", concurrency);
+
+    static Stream<String> repositories() {
+        return Stream.of("memory", "memory-durable", "memory-columnar", "jdbc-template-v1", "jdbc-template-v2", "jdbc-template-v3",
+                "sharded", "mybatis", "jpa", "spring-data-jpa", "querydsl", "v2");
+    }
+
+    @AfterAll
+    void writeReport() {
+        log.info("load report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @MethodSource("repositories")
+    void load(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb(repository)) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                ItemTraffic traffic = new ItemTraffic(client, "http://localhost:" + port);
+
+                for (int i = 0; i < seed; i++) {
+                    traffic.add(new LatencyRecorder());
+                }
+                run(traffic, executor, warmup, new EnumMap<>(Operation.class));
+
+                Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+                long start = System.nanoTime();
+                run(traffic, executor, requests, recorders);
+                long elapsed = System.nanoTime() - start;
+
+                report.add(result(repository, recorders, elapsed));
+                assertThat(recorders.values().stream().mapToLong(LatencyRecorder::errors).sum()).isZero();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void run(ItemTraffic traffic, ExecutorService executor, int count,
+                     Map<Operation, LatencyRecorder> recorders) throws Exception {
+        for (Operation operation : Operation.values()) {
+            recorders.putIfAbsent(operation, new LatencyRecorder());
+        }
+
+        AtomicInteger remaining = new AtomicInteger(count);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    Operation operation = Operation.next();
+                    traffic.send(operation, recorders.get(operation));
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(workers)) {
+            future.get();
+        }
+    }
+
+    private Map<String, Object> result(String repository, Map<Operation, LatencyRecorder> recorders, long elapsedNanos) {
+        LatencyRecorder total = new LatencyRecorder();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            operations.put(entry.getKey().name().toLowerCase(), entry.getValue().summary());
+        }
+        recorders.values().forEach(total::merge);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("elapsedMs", elapsedNanos / 1_000_000);
+        result.put("throughputPerSec", requests * 1_000_000_000.0 / elapsedNanos);
+        result.put("latency", total.summary());
+        result.put("operations", operations);
+        log.info("{} = {}", repository, result);
+        return result;
+    }
+
+    /**
+     * 요청 종류와 비율(합계 100)
+     */
+    enum Operation {
+        LIST(30), SEARCH(30), DETAIL(25), ADD(10), EDIT(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation next() {
+            int pick = ThreadLocalRandom.current().nextInt(100);
+            for (Operation operation : values()) {
+                pick -= operation.weight;
+                if (pick < 0) {
+                    return operation;
+                }
+            }
+            return LIST;
+        }
+    }
+
+    /**
+     * 실제 HTTP 요청 생성과 응답 확인
+     - 등록 후 리다이렉트(302) 의 Location 에서 상품 ID 를 모아 상세, 수정 요청에 사용
+     */
+    static class ItemTraffic {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final List<Long> itemIds = new CopyOnWriteArrayList<>();
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        ItemTraffic(HttpClient client, String baseUrl) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+        }
+
+        void send(Operation operation, LatencyRecorder recorder) throws Exception {
+            switch (operation) {
+                case LIST:
+                    get("/items", recorder);
+                    break;
+                case SEARCH:
+                    get("/items?itemName=load" + ThreadLocalRandom.current().nextInt(10)
+                            + "&maxPrice=" + ThreadLocalRandom.current().nextInt(10000, 100000), recorder);
+                    break;
+                case DETAIL:
+                    get("/items/" + randomItemId(), recorder);
+                    break;
+                case ADD:
+                    add(recorder);
+                    break;
+                case EDIT:
+                    post("/items/" + randomItemId() + "/edit", form(), recorder);
+                    break;
+            }
+        }
+
+        void add(LatencyRecorder recorder) throws Exception {
+            HttpResponse<String> response = post("/items/add", form(), recorder);
+            response.headers().firstValue("Location").ifPresent(location -> {
+                String path = URI.create(location).getPath();
+                itemIds.add(Long.valueOf(path.substring(path.lastIndexOf('/') + 1)));
+            });
+        }
+
+        private long randomItemId() {
+            return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+        }
+
+        private String form() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return "itemName=load" + sequence.incrementAndGet() % 100000
+                    + "&price=" + random.nextInt(1000, 100000)
+                    + "&quantity=" + random.nextInt(1, 1000);
+        }
+
+        private void get(String path, LatencyRecorder recorder) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+            send(request, 200, recorder);
+        }
+
+        private HttpResponse<String> post(String path, String form, LatencyRecorder recorder) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+            return send(request, 302, recorder);
+        }
+
+        private HttpResponse<String> send(HttpRequest request, int expectedStatus, LatencyRecorder recorder) throws Exception {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() == expectedStatus) {
+                recorder.record(elapsed);
+            } else {
+                recorder.error();
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 목록 조회에서 상품 하나당 할당 바이트 : Item 엔티티(findAll) vs 읽기 전용 모델(findAllViews)
+ - 저장소 구현마다 load.view.items(기본 20,000)개를 저장하고 전체 목록을 load.view.rounds(기본 20)번 조회
+ - 조회 스레드의 할당량(com.sun.management.ThreadMXBean)으로 측정 -> 앞의 절반은 JIT 워밍업으로 버리고 나머지 평균
+ - 할당량에는 드라이버, 프레임워크가 만드는 객체도 포함 -> 구현 사이의 차이만 비교
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemViewAllocationBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.view.items", 20_000);
+    private final int rounds = LoadReport.intProperty("load.view.rounds", 20);
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final LoadReport report = new LoadReport("item-view-allocation")
+            .setting("items", items)
+            .setting("rounds", rounds);
+
+    @AfterAll
+    void writeReport() {
+        log.info("item view allocation report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc-template-v1", "jdbc-template-v3", "mybatis", "jpa", "spring-data-jpa", "querydsl", "memory"})
+    void allocation(String repository) {
+        try (ConfigurableApplicationContext context = LoadApplication.start(repository)) {
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            seed(context, itemRepository);
+            ItemSearchCond all = new ItemSearchCond();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("repository", repository);
+            result.put("entityBytesPerItem", bytesPerItem(() -> itemRepository.findAll(all)));
+            result.put("viewBytesPerItem", bytesPerItem(() -> itemRepository.findAllViews(all)));
+            report.add(result);
+            log.info("{}", result);
+
+            if (itemRepository instanceof MemoryItemRepository) {
+                ((MemoryItemRepository) itemRepository).clearStore();
+            }
+        }
+    }
+
+    private double bytesPerItem(Supplier<List<?>> listing) {
+        long threadId = Thread.currentThread().getId();
+        long measured = 0;
+        for (int round = 0; round < rounds; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            List<?> result = listing.get();
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            assertThat(result).hasSize(items);
+            if (round >= rounds / 2) {
+                measured += allocated;
+            }
+        }
+        return measured / (double) (rounds - rounds / 2) / items;
+    }
+
+    private void seed(ConfigurableApplicationContext context, ItemRepository itemRepository) {
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();     //저장소가 static
+            for (int i = 0; i < items; i++) {
+                itemRepository.save(new Item("i" + i, i % 100_000, i % 100));
+            }
+            return;
+        }
+        new JdbcTemplate(context.getBean(DataSource.class)).update("insert into item (item_name, price, quantity) "
+                + "select 'i' || x, mod(x, 100000), mod(x, 100) from system_range(1, ?)", items);
+    }
+}
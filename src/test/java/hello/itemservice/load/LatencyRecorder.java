@@ -0,0 +1,80 @@
+package hello.itemservice.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요청 단위 응답 시간(나노초) 기록
+ - 부하 테스트 중에는 배열에 기록만 하고, 백분위 계산은 측정이 끝난 뒤 정렬해서 구함
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized void error() {
+        errors++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        long[] otherSamples;
+        long otherErrors;
+        synchronized (other) {
+            otherSamples = Arrays.copyOf(other.samples, other.size);
+            otherErrors = other.errors;
+        }
+        synchronized (this) {
+            for (long sample : otherSamples) {
+                record(sample);
+            }
+            errors += otherErrors;
+        }
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    public synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * p50, p99, p999 와 평균, 최대값을 밀리초 단위로 반환
+     */
+    public synchronized Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", size);
+        summary.put("errors", errors);
+        summary.put("meanMs", size == 0 ? 0.0 : toMillis(Arrays.stream(sorted).sum() / size));
+        summary.put("p50Ms", toMillis(percentile(sorted, 0.50)));
+        summary.put("p99Ms", toMillis(percentile(sorted, 0.99)));
+        summary.put("p999Ms", toMillis(percentile(sorted, 0.999)));
+        summary.put("maxMs", size == 0 ? 0.0 : toMillis(sorted[size - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,48 @@
+package hello.itemservice.load;
+
+import hello.itemservice.ItemServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 부하 테스트, 벤치마크에서 애플리케이션 실행
+ - itemservice.repository 로 저장소 구현 선택, 파일 저장소(memory-durable)는 실행마다 새 디렉터리(build/load-data)
+ - 요청마다 남는 SQL 로그가 측정값을 왜곡하지 않도록 로그 레벨 조정
+ - properties 는 공통 설정 뒤에 적용 -> 같은 키는 properties 값 사용
+ */
+public abstract class LoadApplication {
+
+    /**
+     * 내장 서버를 임의 포트로 실행 -> 포트는 local.server.port
+     */
+    public static ConfigurableApplicationContext startWeb(String repository, String... properties) {
+        return run("server.port=0", repository, properties);
+    }
+
+    /**
+     * 서버 없이 실행(저장소, 서비스만 사용)
+     */
+    public static ConfigurableApplicationContext start(String repository, String... properties) {
+        return run("spring.main.web-application-type=none", repository, properties);
+    }
+
+    private static ConfigurableApplicationContext run(String webProperty, String repository, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                webProperty,
+                "itemservice.repository=" + repository,
+                "itemservice.memory.durable.directory=build/load-data/" + UUID.randomUUID(),
+                "logging.level.org.springframework.jdbc=info",
+                "logging.level.org.hibernate.SQL=info",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=info",
+                "logging.level.hello.itemservice.repository=warn"));
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+}
@@ -0,0 +1,72 @@
+package hello.itemservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트, 벤치마크 결과를 JSON 파일로 기록
+ - 위치 : load.reportDir(기본 build/reports/load), 이름 : {name}-{시각}.json 과 {name}-latest.json
+ - 실행 시각과 설정값을 함께 남겨서 결과를 시간에 따라 비교할 수 있도록 함
+ */
+public class LoadReport {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final String name;
+    private final Instant startedAt = Instant.now();
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final List<Map<String, Object>> results = new ArrayList<>();
+
+    public LoadReport(String name) {
+        this.name = name;
+    }
+
+    public LoadReport setting(String key, Object value) {
+        settings.put(key, value);
+        return this;
+    }
+
+    public synchronized void add(Map<String, Object> result) {
+        results.add(result);
+    }
+
+    public synchronized Path write() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", name);
+        report.put("startedAt", startedAt.toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", settings);
+        report.put("results", results);
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path dir = Paths.get(System.getProperty("load.reportDir", "build/reports/load"));
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve(name + "-" + FILE_TIME.format(startedAt) + ".json");
+            mapper.writeValue(file.toFile(), report);
+            Files.copy(file, dir.resolve(name + "-latest.json"), StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int intProperty(String key, int defaultValue) {
+        return Integer.parseInt(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,162 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV3;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품명 검색 방식(MatchMode)별 벤치마크
+ - H2(schema.sql, 인덱스 포함)에 load.match-mode.items(기본 200,000)개 저장 후 JdbcTemplateItemRepositoryV3 로 검색
+ - 검색 방식마다 인덱스가 있을 때와 없을 때의 평균 검색 시간, 실행 계획(EXPLAIN), 같은 조건의 메모리 저장소 검색 시간을 기록
+ - 상품명은 Item000000 ~, 홀수 번째는 ITEM000001 처럼 대문자 -> IGNORE_CASE 결과가 PREFIX 의 두 배
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatchModeBenchmarkTest {
+
+    private static final int SCAN_ROUNDS = 20;
+
+    private final int items = LoadReport.intProperty("load.match-mode.items", 200_000);
+    private final LoadReport report = new LoadReport("match-mode").setting("items", items);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplateItemRepositoryV3 jdbcRepository;
+    private MemoryItemRepository memoryRepository;
+
+    @BeforeAll
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcRepository = new JdbcTemplateItemRepositoryV3(database);
+        memoryRepository = new MemoryItemRepository();
+        memoryRepository.clearStore();
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            String itemName = String.format("%s%06d", i % 2 == 0 ? "Item" : "ITEM", i);
+            batch.add(new Object[]{itemName, i % 100_000, i % 100});
+            memoryRepository.save(new Item(itemName, i % 100_000, i % 100));
+            if (batch.size() == 1_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void tearDown() {
+        memoryRepository.clearStore();
+        database.shutdown();
+        log.info("match mode report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatchMode.class)
+    void search(MatchMode matchMode) {
+        ItemSearchCond cond = new ItemSearchCond(keyword(matchMode), null, matchMode);
+        int matches = jdbcRepository.findAll(cond).size();
+        assertThat(memoryRepository.findAll(cond)).hasSize(matches);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matchMode", matchMode.name());
+        result.put("keyword", cond.getItemName());
+        result.put("matches", matches);
+        result.put("plan", explain(cond));
+        result.put("indexedMs", averageMillis(() -> jdbcRepository.findAll(cond)));
+        result.put("memoryMs", averageMillis(() -> memoryRepository.findAll(cond)));
+
+        //같은 검색을 인덱스 없이 실행 -> 인덱스 사용 효과 비교
+        dropIndexes();
+        try {
+            assertThat(jdbcRepository.findAll(cond)).hasSize(matches);
+            result.put("noIndexMs", averageMillis(() -> jdbcRepository.findAll(cond)));
+        } finally {
+            createIndexes();
+        }
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    private String keyword(MatchMode matchMode) {
+        switch (matchMode) {
+            case EXACT:
+                return "Item001234";
+            case PREFIX:
+                return "Item0012";
+            case IGNORE_CASE:
+                return "item0012";
+            default:
+                return "0012";
+        }
+    }
+
+    private String explain(ItemSearchCond cond) {
+        String condition;
+        switch (cond.getMatchMode()) {
+            case EXACT:
+                condition = "item_name = ?";
+                break;
+            case IGNORE_CASE:
+                condition = "item_name_lower like ? escape '\\'";
+                break;
+            default:
+                condition = "item_name like ? escape '\\'";
+        }
+        return jdbcTemplate.queryForObject("explain select id, item_name, price, quantity from item where " + condition,
+                String.class, cond.getItemNamePattern());
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private void dropIndexes() {
+        jdbcTemplate.execute("drop index idx_item_name");
+        jdbcTemplate.execute("drop index idx_item_name_lower");
+    }
+
+    private void createIndexes() {
+        jdbcTemplate.execute("create index idx_item_name on item (item_name)");
+        jdbcTemplate.execute("create index idx_item_name_lower on item (item_name_lower)");
+    }
+
+    private static double averageMillis(Supplier<?> search) {
+        for (int i = 0; i < 3; i++) {
+            search.get();     //워밍업
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SCAN_ROUNDS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SCAN_ROUNDS;
+    }
+}
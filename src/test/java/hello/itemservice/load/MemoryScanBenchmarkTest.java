@@ -0,0 +1,99 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemoryItemRepository 병렬 검색 확장성 벤치마크
+ - 상품 수 : 10,000 부터 10배씩 load.memory-scan.max-items(기본 1,000,000, 10,000,000 까지 측정하려면 힙 여유 필요)
+ - 스레드 수 : 1(순차 검색), 2, 4 ... CPU 코어 수
+ - 상품 수마다 순차 검색 대비 속도 향상(speedup)과 결과가 같은지 확인
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemoryScanBenchmarkTest {
+
+    private static final int SCAN_ROUNDS = 10;
+
+    private final int maxItems = LoadReport.intProperty("load.memory-scan.max-items", 1_000_000);
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    private final LoadReport report = new LoadReport("memory-scan")
+            .setting("maxItems", maxItems)
+            .setting("cores", cores);
+
+    @AfterAll
+    void writeReport() {
+        new MemoryItemRepository().clearStore();
+        log.info("memory scan report = {}", report.write());
+    }
+
+    @Test
+    void scaling() {
+        ItemSearchCond cond = new ItemSearchCond("item9", 50_000);
+        MemoryItemRepository loader = new MemoryItemRepository();
+        loader.clearStore();
+
+        int saved = 0;
+        for (int items = 10_000; items <= maxItems; items *= 10) {
+            //저장소가 static 이므로 상품을 이어서 추가
+            for (; saved < items; saved++) {
+                loader.save(new Item("item" + saved % 100_000, saved % 100_000, saved % 100));
+            }
+
+            MemoryItemRepository sequential = new MemoryItemRepository(Integer.MAX_VALUE, 1);
+            List<Item> expected = sequential.findAll(cond);
+            double sequentialMs = averageMillis(sequential, cond);
+
+            for (int threads : threadCounts()) {
+                //기준을 0 으로 두어 항상 병렬 검색
+                MemoryItemRepository parallel = new MemoryItemRepository(0, threads);
+                assertThat(parallel.findAll(cond)).containsExactlyElementsOf(expected);
+                double parallelMs = threads == 1 ? sequentialMs : averageMillis(parallel, cond);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("items", items);
+                result.put("threads", threads);
+                result.put("matches", expected.size());
+                result.put("scanMs", parallelMs);
+                result.put("speedup", sequentialMs / parallelMs);
+                report.add(result);
+                log.info("{}", result);
+                parallel.shutdown();
+            }
+        }
+    }
+
+    private List<Integer> threadCounts() {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    private static double averageMillis(MemoryItemRepository repository, ItemSearchCond cond) {
+        for (int i = 0; i < 3; i++) {
+            repository.findAll(cond);     //워밍업
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SCAN_ROUNDS; i++) {
+            repository.findAll(cond);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SCAN_ROUNDS;
+    }
+}
@@ -0,0 +1,124 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 id 조회(ItemService.findByIds) 와 id 마다 findById 호출 비교
+ - 저장소 구현마다 load.multiget.items(기본 50,000)개 저장 후 무작위 id 10, 100, 1000개를 조회
+ - 두 방식의 결과가 같은지 확인하고 평균 시간을 기록
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MultiGetBenchmarkTest {
+
+    private static final int ROUNDS = 20;
+    private static final int[] ID_COUNTS = {10, 100, 1000};
+
+    private final int items = LoadReport.intProperty("load.multiget.items", 50_000);
+    private final LoadReport report = new LoadReport("multi-get").setting("items", items);
+
+    @AfterAll
+    void writeReport() {
+        log.info("multi-get report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "memory-columnar", "jdbc-template-v1", "jdbc-template-v3", "mybatis", "jpa",
+            "spring-data-jpa", "querydsl", "v2"})
+    void findByIds(String repository) {
+        try (ConfigurableApplicationContext context = LoadApplication.start(repository)) {
+            ItemService itemService = context.getBean(ItemService.class);
+            try {
+                List<Long> savedIds = seed(repository, itemService, context.getBean(DataSource.class));
+                measure(repository, itemService, savedIds);
+            } finally {
+                new MemoryItemRepository().clearStore();    //MemoryItemRepository 저장소는 static
+            }
+        }
+    }
+
+    private void measure(String repository, ItemService itemService, List<Long> savedIds) {
+        Random random = new Random(42);
+        for (int count : ID_COUNTS) {
+            List<Long> ids = new ArrayList<>(savedIds);
+            Collections.shuffle(ids, random);
+            List<Long> requested = ids.subList(0, Math.min(count, ids.size()));
+
+            List<Item> batched = itemService.findByIds(requested);
+            assertThat(batched).isEqualTo(findOneByOne(itemService, requested));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("repository", repository);
+            result.put("ids", requested.size());
+            result.put("findByIdsMs", averageMillis(() -> itemService.findByIds(requested)));
+            result.put("findByIdLoopMs", averageMillis(() -> findOneByOne(itemService, requested)));
+            report.add(result);
+            log.info("{}", result);
+        }
+    }
+
+    private static List<Item> findOneByOne(ItemService itemService, List<Long> ids) {
+        List<Item> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            itemService.findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * 메모리 저장소는 ItemService 로 저장, 데이터베이스 저장소는 배치 INSERT 로 빠르게 저장
+     * @return 저장된 상품 id
+     */
+    private List<Long> seed(String repository, ItemService itemService, DataSource dataSource) {
+        if (repository.startsWith("memory")) {
+            new MemoryItemRepository().clearStore();
+            List<Long> ids = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                ids.add(itemService.save(new Item("item" + i, i, i % 100)).getId());
+            }
+            return ids;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            batch.add(new Object[]{"item" + i, i, i % 100});
+            if (batch.size() == 1_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("select id from item", Long.class);
+    }
+
+    private static double averageMillis(Supplier<?> task) {
+        task.get();     //워밍업
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,196 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIdBatches;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.mybatis.ItemMapper;
+import hello.itemservice.repository.mybatis.MyBatisItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MyBatis 설정별 비교
+ - 2차 캐시 : 같은 findById, findAll 을 반복할 때 캐시 사용/미사용(mybatis.configuration.cache-enabled), findAll 은 캐시하지 않으므로 두 경우가 비슷해야 함
+ - 큰 조회 : findAll(목록) 과 scan(커서, fetchSize) 의 시간과 최대 힙 사용량 증가분
+ - 실행기 : findAllById 를 SIMPLE / REUSE 로, 저장을 save 반복 / saveAll(BATCH) 로 실행
+ - load.mybatis.items(기본 100,000)개 저장 후 측정
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MyBatisBenchmarkTest {
+
+    private static final int ROUNDS = 20;
+    private static final int HOT_IDS = 100;
+
+    private final int items = LoadReport.intProperty("load.mybatis.items", 100_000);
+    private final LoadReport report = new LoadReport("mybatis").setting("items", items);
+
+    @AfterAll
+    void writeReport() {
+        log.info("mybatis report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void repeatedQueries(boolean cacheEnabled) {
+        try (ConfigurableApplicationContext context = start(cacheEnabled)) {
+            ItemRepository repository = context.getBean(ItemRepository.class);
+            List<Long> ids = seed(context.getBean(DataSource.class));
+            List<Long> hotIds = ids.subList(0, HOT_IDS);
+            ItemSearchCond cond = new ItemSearchCond("item1", 5_000);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("case", "repeated");
+            result.put("cacheEnabled", cacheEnabled);
+            result.put("findByIdMs", averageMillis(() -> {
+                hotIds.forEach(repository::findById);
+                return null;
+            }));
+            result.put("findAllMs", averageMillis(() -> repository.findAll(cond)));
+            report.add(result);
+            log.info("{}", result);
+        }
+    }
+
+    @Test
+    void largeQuery() {
+        try (ConfigurableApplicationContext context = start(false)) {
+            MyBatisItemRepository repository = (MyBatisItemRepository) context.getBean(ItemRepository.class);
+            seed(context.getBean(DataSource.class));
+            ItemSearchCond all = new ItemSearchCond();
+
+            Map<String, Object> list = measureHeap(() -> repository.findAll(all).size());
+            Map<String, Object> cursor = measureHeap(() -> {
+                LongAdder count = new LongAdder();
+                repository.scan(all, item -> count.increment());
+                return count.intValue();
+            });
+            assertThat(cursor.get("rows")).isEqualTo(list.get("rows"));
+
+            report("large-findAll", list);
+            report("large-scan", cursor);
+        }
+    }
+
+    @Test
+    void executors() {
+        try (ConfigurableApplicationContext context = start(false)) {
+            MyBatisItemRepository repository = (MyBatisItemRepository) context.getBean(ItemRepository.class);
+            ItemMapper itemMapper = context.getBean(ItemMapper.class);
+            List<Long> ids = seed(context.getBean(DataSource.class)).subList(0, 1_000);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("case", "executors");
+            result.put("findAllByIdSimpleMs", averageMillis(() -> {
+                List<Item> found = new ArrayList<>();
+                ItemIdBatches.split(ids).forEach(batch -> found.addAll(itemMapper.findAllById(batch)));
+                return found;
+            }));
+            result.put("findAllByIdReuseMs", averageMillis(() -> repository.findAllById(ids)));
+
+            int saves = Math.min(items, 10_000);
+            long start = System.nanoTime();
+            for (int i = 0; i < saves; i++) {
+                itemMapper.save(new Item("simple" + i % 1000, i, i));
+            }
+            result.put("saveSimpleMs", (System.nanoTime() - start) / 1_000_000.0);
+
+            List<Item> batch = new ArrayList<>();
+            for (int i = 0; i < saves; i++) {
+                batch.add(new Item("batch" + i % 1000, i, i));
+            }
+            start = System.nanoTime();
+            repository.saveAll(batch);
+            result.put("saveBatchMs", (System.nanoTime() - start) / 1_000_000.0);
+            result.put("saves", saves);
+            report.add(result);
+            log.info("{}", result);
+        }
+    }
+
+    private Map<String, Object> measureHeap(Supplier<Integer> query) {
+        query.get();    //워밍업
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+        System.gc();
+        long baseline = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+            baseline += pool.getUsage().getUsed();
+        }
+
+        long start = System.nanoTime();
+        int rows = query.get();
+        long elapsed = System.nanoTime() - start;
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("elapsedMs", elapsed / 1_000_000.0);
+        result.put("peakHeapIncreaseMb", (peak - baseline) / 1024.0 / 1024.0);
+        return result;
+    }
+
+    private void report(String name, Map<String, Object> measured) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("case", name);
+        result.putAll(measured);
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    private List<Long> seed(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            batch.add(new Object[]{"item" + i % 10_000, i % 100_000, i % 100});
+            if (batch.size() == 1_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("select id from item order by id", Long.class);
+    }
+
+    private ConfigurableApplicationContext start(boolean cacheEnabled) {
+        return LoadApplication.start("mybatis", "mybatis.configuration.cache-enabled=" + cacheEnabled);
+    }
+
+    private static double averageMillis(Supplier<?> task) {
+        task.get();     //워밍업
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+}
@@ -0,0 +1,165 @@
+package hello.itemservice.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV3;
+import hello.itemservice.repository.jdbctemplate.ReplicatedItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 데이터베이스 저장소(jdbc-template-v3)와 메모리 복제본 저장소(replicated)의 조회 시간, 복제본을 채우는 시간
+ - 메모리 H2 데이터베이스에 load.replicated.items(기본 200,000)개 저장
+ - 채우기 : 읽는 스레드 수 1, load.replicated.load-threads(기본 4)개일 때 ready 까지 걸린 시간
+ - findById : 무작위 id load.replicated.requests(기본 100,000)번, 요청마다 시간 기록
+ - findAll : 검색 방식(EXACT, PREFIX, IGNORE_CASE, CONTAINS, 가격 조건만)마다 load.replicated.search-rounds(기본 20)번
+ - 같은 JVM 안의 메모리 H2 이므로 네트워크 왕복이 없음 -> 실제 데이터베이스 서버와의 차이는 이보다 큼
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicatedBenchmarkTest {
+
+    private final int items = LoadReport.intProperty("load.replicated.items", 200_000);
+    private final int loadThreads = LoadReport.intProperty("load.replicated.load-threads", 4);
+    private final int requests = LoadReport.intProperty("load.replicated.requests", 100_000);
+    private final int searchRounds = LoadReport.intProperty("load.replicated.search-rounds", 20);
+
+    private final LoadReport report = new LoadReport("replicated")
+            .setting("items", items)
+            .setting("loadThreads", loadThreads)
+            .setting("requests", requests)
+            .setting("searchRounds", searchRounds);
+
+    private HikariDataSource dataSource;
+
+    @BeforeAll
+    void seed() {
+        dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url("jdbc:h2:mem:replicated-bench-" + UUID.randomUUID())
+                .username("sa")
+                .build();
+        dataSource.setMaximumPoolSize(loadThreads + 2);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).update("insert into item (item_name, price, quantity) " +
+                "select 'i' || x, mod(x, 100000), mod(x, 100) from system_range(1, ?)", items);
+    }
+
+    @AfterAll
+    void writeReport() {
+        dataSource.close();
+        log.info("replicated report = {}", report.write());
+    }
+
+    @Test
+    void warmUp() throws InterruptedException {
+        for (int threads : new int[]{1, loadThreads}) {
+            long start = System.nanoTime();
+            try (ReplicatedItemRepository repository = new ReplicatedItemRepository(dataSource, threads, 10_000, 1000, 0, true)) {
+                awaitReady(repository);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("case", "warm-up");
+                result.put("loadThreads", threads);
+                result.put("readyMs", (System.nanoTime() - start) / 1_000_000.0);
+                result.put("replica", repository.snapshot());
+                report.add(result);
+                log.info("{}", result);
+                assertThat(repository.snapshot().get("size")).isEqualTo(items);
+            }
+        }
+    }
+
+    @Test
+    void readLatency() throws InterruptedException {
+        try (ReplicatedItemRepository replicated = new ReplicatedItemRepository(dataSource, loadThreads, 10_000, 1000, 0, true)) {
+            awaitReady(replicated);
+            ItemRepository database = new JdbcTemplateItemRepositoryV3(dataSource);
+
+            List<ItemSearchCond> conditions = List.of(
+                    new ItemSearchCond("i12345", null, MatchMode.EXACT),
+                    new ItemSearchCond("i1234", null, MatchMode.PREFIX),
+                    new ItemSearchCond("I1234", null, MatchMode.IGNORE_CASE),
+                    new ItemSearchCond("2345", null, MatchMode.CONTAINS),
+                    new ItemSearchCond(null, 100));
+            for (ItemSearchCond cond : conditions) {
+                assertThat(replicated.findAll(cond)).containsExactlyInAnyOrderElementsOf(database.findAll(cond));
+            }
+
+            Map<String, ItemRepository> repositories = new LinkedHashMap<>();
+            repositories.put("jdbc-template-v3", database);
+            repositories.put("replicated", replicated);
+            for (Map.Entry<String, ItemRepository> entry : repositories.entrySet()) {
+                ItemRepository repository = entry.getValue();
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("case", "read");
+                result.put("repository", entry.getKey());
+                result.put("findById", findById(repository));
+                for (ItemSearchCond cond : conditions) {
+                    result.put("findAll " + cond.getMatchMode() + (cond.getItemName() == null ? " price" : ""), findAll(repository, cond));
+                }
+                report.add(result);
+                log.info("{}", result);
+            }
+        }
+    }
+
+    private Map<String, Object> findById(ItemRepository repository) {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {     //워밍업
+            repository.findById(1L + random.nextInt(items));
+        }
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < requests; i++) {
+            long id = 1L + random.nextInt(items);
+            long start = System.nanoTime();
+            Item item = repository.findById(id).orElse(null);
+            recorder.record(System.nanoTime() - start);
+            if (item == null) {
+                recorder.error();
+            }
+        }
+        return recorder.summary();
+    }
+
+    private Map<String, Object> findAll(ItemRepository repository, ItemSearchCond cond) {
+        repository.findAll(cond);     //워밍업
+        LatencyRecorder recorder = new LatencyRecorder();
+        int matches = 0;
+        for (int i = 0; i < searchRounds; i++) {
+            long start = System.nanoTime();
+            matches = repository.findAll(cond).size();
+            recorder.record(System.nanoTime() - start);
+        }
+        Map<String, Object> summary = recorder.summary();
+        summary.put("matches", matches);
+        return summary;
+    }
+
+    private void awaitReady(ReplicatedItemRepository repository) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (!repository.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(repository.isReady()).isTrue();
+    }
+}
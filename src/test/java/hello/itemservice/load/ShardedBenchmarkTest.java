@@ -0,0 +1,135 @@
+package hello.itemservice.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.MatchMode;
+import hello.itemservice.repository.jdbctemplate.ShardedItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 샤드 수에 따른 ShardedItemRepository 처리량
+ - 샤드 수(1, 2, 4, 8)마다 메모리 H2 데이터베이스를 새로 만들고 load.sharded.threads(기본 16)개 스레드로 측정
+ - 저장 : load.sharded.items(기본 100,000)개를 동시에 저장한 처리량
+ - 조회 : 무작위 id findById 처리량, 조건 검색 findAll(모든 샤드에 동시에 조회) 평균 시간
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardedBenchmarkTest {
+
+    private static final int SEARCH_ROUNDS = 20;
+
+    private final int items = LoadReport.intProperty("load.sharded.items", 100_000);
+    private final int threads = LoadReport.intProperty("load.sharded.threads", 16);
+    private final LoadReport report = new LoadReport("sharded")
+            .setting("items", items)
+            .setting("threads", threads);
+
+    @AfterAll
+    void writeReport() {
+        log.info("sharded report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void throughput(int shardCount) throws Exception {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < shardCount; i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url("jdbc:h2:mem:bench-" + run + "-" + i)
+                    .username("sa")
+                    .build();
+            dataSource.setMaximumPoolSize(threads);
+            new ResourceDatabasePopulator(new ClassPathResource("sql/item-shard.sql")).execute(dataSource);
+            dataSources.add(dataSource);
+        }
+
+        ShardedItemRepository repository = new ShardedItemRepository(new ArrayList<DataSource>(dataSources), 1000, 10_000, shardCount * 4);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Long> ids = new ArrayList<>();
+            long start = System.nanoTime();
+            List<Future<List<Long>>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int from = t;
+                writers.add(executor.submit(() -> {
+                    List<Long> saved = new ArrayList<>();
+                    for (int i = from; i < items; i += threads) {
+                        saved.add(repository.save(new Item("item" + i % 10_000, i % 100_000, i % 100)).getId());
+                    }
+                    return saved;
+                }));
+            }
+            for (Future<List<Long>> writer : writers) {
+                ids.addAll(writer.get());
+            }
+            double writesPerSec = items * 1_000_000_000.0 / (System.nanoTime() - start);
+            assertThat(ids).doesNotHaveDuplicates();
+
+            int reads = items;
+            AtomicLong found = new AtomicLong();
+            start = System.nanoTime();
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                readers.add(executor.submit(() -> {
+                    for (int i = 0; i < reads / threads; i++) {
+                        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        repository.findById(id).ifPresent(item -> found.incrementAndGet());
+                    }
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+            double readsPerSec = found.get() * 1_000_000_000.0 / (System.nanoTime() - start);
+            assertThat(found.get()).isEqualTo(reads / threads * threads);
+
+            ItemSearchCond cond = new ItemSearchCond("item1", 50_000, MatchMode.PREFIX);
+            repository.findAll(cond);     //워밍업
+            start = System.nanoTime();
+            int matches = 0;
+            for (int i = 0; i < SEARCH_ROUNDS; i++) {
+                matches = repository.findAll(cond).size();
+            }
+            double searchMs = (System.nanoTime() - start) / 1_000_000.0 / SEARCH_ROUNDS;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("shards", shardCount);
+            result.put("writesPerSec", writesPerSec);
+            result.put("findByIdPerSec", readsPerSec);
+            result.put("findAllMs", searchMs);
+            result.put("findAllMatches", matches);
+            report.add(result);
+            log.info("{}", result);
+        } finally {
+            executor.shutdownNow();
+            repository.close();
+            dataSources.forEach(HikariDataSource::close);
+        }
+    }
+}
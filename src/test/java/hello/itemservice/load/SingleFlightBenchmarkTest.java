@@ -0,0 +1,136 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.web.SingleFlightItemLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 id 에 요청이 몰리는 상황에서 SingleFlightItemLoader 와 ItemService.findById 직접 호출 비교
+ - load.coalescing.threads(기본 64)개 스레드가 load.coalescing.hot-ids(기본 4)개 id 만 반복 조회
+ - 처리량, 응답 시간, 실제 조회 수(executed)와 합쳐진 조회 수(coalesced)를 기록
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SingleFlightBenchmarkTest {
+
+    private final int threads = LoadReport.intProperty("load.coalescing.threads", 64);
+    private final int hotIds = LoadReport.intProperty("load.coalescing.hot-ids", 4);
+    private final int requests = LoadReport.intProperty("load.coalescing.requests", 200_000);
+
+    private final LoadReport report = new LoadReport("single-flight")
+            .setting("threads", threads)
+            .setting("hotIds", hotIds)
+            .setting("requests", requests);
+
+    @AfterAll
+    void writeReport() {
+        log.info("single flight report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "jdbc-template-v3", "mybatis", "jpa", "v2"})
+    void hotIds(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.start(repository)) {
+            ItemService itemService = context.getBean(ItemService.class);
+            SingleFlightItemLoader loader = context.getBean(SingleFlightItemLoader.class);
+            try {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < hotIds; i++) {
+                    ids.add(itemService.save(new Item("hot" + i, 1000 * i, i)).getId());
+                }
+                //워밍업
+                run(ids, itemService::findById);
+                run(ids, loader::findById);
+
+                Map<String, Object> before = loader.snapshot();
+                report(repository, "direct", run(ids, itemService::findById), null);
+                report(repository, "single-flight", run(ids, loader::findById), delta(before, loader.snapshot()));
+            } finally {
+                new MemoryItemRepository().clearStore();    //MemoryItemRepository 저장소는 static
+            }
+        }
+    }
+
+    private Map<String, Object> run(List<Long> ids, Function<Long, Optional<Item>> findById) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    ready.await();
+                    for (int i = 0; i < requests / threads; i++) {
+                        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        long start = System.nanoTime();
+                        try {
+                            Optional<Item> item = findById.apply(id);
+                            recorder.record(System.nanoTime() - start);
+                            assertThat(item).map(Item::getId).contains(id);
+                        } catch (RuntimeException e) {
+                            recorder.error();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+
+            long start = System.nanoTime();
+            ready.countDown();
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> future : futures) {
+                total.merge(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Map<String, Object> result = new LinkedHashMap<>(total.summary());
+            result.put("throughputPerSec", total.count() * 1_000_000_000.0 / elapsed);
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void report(String repository, String mode, Map<String, Object> latency, Map<String, Object> loads) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("mode", mode);
+        result.putAll(latency);
+        if (loads != null) {
+            result.putAll(loads);
+        }
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    private static Map<String, Object> delta(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (String key : List.of("executed", "coalesced", "failed", "timedOut")) {
+            delta.put(key, (Long) after.get(key) - (Long) before.get(key));
+        }
+        return delta;
+    }
+}
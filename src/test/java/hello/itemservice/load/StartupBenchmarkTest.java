@@ -0,0 +1,95 @@
+package hello.itemservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 저장소 구현별 시작 시간 벤치마크
+ - 구현마다 새 JVM 으로 StartupProbe 를 실행해서 첫 요청 응답까지의 시간과 시작 후 힙 사용량을 측정
+ - optimized : 사용하지 않는 기술 자동 구성 제외 + 지연 초기화
+ - baseline : 모든 기술 자동 구성 + 즉시 초기화(기존 방식)
+ - 결과는 build/reports/load/startup-*.json, 반복 횟수는 load.startup.runs(기본 3)
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StartupBenchmarkTest {
+
+    private final int runs = LoadReport.intProperty("load.startup.runs", 3);
+    private final LoadReport report = new LoadReport("startup").setting("runs", runs);
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    static Stream<String> repositories() {
+        return Stream.of("memory", "jdbc-template-v1", "jdbc-template-v2", "jdbc-template-v3",
+                "mybatis", "jpa", "spring-data-jpa", "querydsl", "v2");
+    }
+
+    @AfterAll
+    void writeReport() {
+        log.info("startup report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @MethodSource("repositories")
+    void startup(String repository) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("optimized", measure(repository, true));
+        result.put("baseline", measure(repository, false));
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    private List<Map<String, Object>> measure(String repository, boolean optimized) throws Exception {
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            Map<String, Object> sample = launch(
+                    "itemservice.repository=" + repository,
+                    "itemservice.stack-exclusion.enabled=" + optimized,
+                    "spring.main.lazy-initialization=" + optimized,
+                    "logging.level.root=warn");
+            assertThat(sample.get("status")).isEqualTo(200);
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> launch(String... properties) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupProbe.class.getName());
+        command.addAll(Arrays.asList(properties));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(StartupProbe.RESULT_PREFIX)) {
+                    result = line.substring(StartupProbe.RESULT_PREFIX.length());
+                }
+            }
+        }
+        assertThat(process.waitFor(2, TimeUnit.MINUTES)).isTrue();
+        assertThat(result).as("StartupProbe 결과 없음, 종료 코드 = %d", process.exitValue()).isNotNull();
+        return mapper.readValue(result, Map.class);
+    }
+}
@@ -0,0 +1,61 @@
+package hello.itemservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.ItemServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StartupBenchmarkTest 가 새 JVM 으로 실행하는 시작 시간 측정 프로그램
+ - 같은 JVM 에서 컨텍스트를 여러 번 띄우면 클래스 로딩, JIT 이 재사용되어 재시작 시간을 제대로 측정할 수 없음
+ - 인자로 받은 프로퍼티(key=value)로 애플리케이션을 띄우고 첫 요청(/items) 응답까지의 시간과 GC 후 힙 사용량을 한 줄의 JSON 으로 출력
+ */
+public class StartupProbe {
+
+    static final String RESULT_PREFIX = "STARTUP-RESULT ";
+
+    public static void main(String[] args) throws Exception {
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long mainMillis = System.currentTimeMillis();
+
+        String[] properties = Arrays.copyOf(args, args.length + 1);
+        properties[args.length] = "server.port=0";
+
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(properties)
+                .run();
+        long started = System.nanoTime();
+
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        long firstResponse = System.nanoTime();
+
+        System.gc();
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", response.statusCode());
+        result.put("jvmToMainMs", mainMillis - jvmStartMillis);
+        result.put("contextStartMs", (started - start) / 1_000_000);
+        result.put("timeToFirstRequestMs", (firstResponse - start) / 1_000_000);
+        result.put("heapAfterStartupMb", heapUsed / 1024.0 / 1024.0);
+        result.put("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        result.put("beanCount", context.getBeanDefinitionCount());
+        System.out.println(RESULT_PREFIX + new ObjectMapper().writeValueAsString(result));
+
+        context.close();
+        System.exit(0);
+    }
+}
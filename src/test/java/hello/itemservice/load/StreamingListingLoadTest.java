@@ -0,0 +1,158 @@
+package hello.itemservice.load;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 목록 화면(/items) 전체 조회 후 출력과 스트리밍 출력(stream=true) 비교
+ - 저장소 구현마다 load.listing.items(기본 100,000)개 저장 후 검색 조건 없이 전체 목록 요청
+ - 첫 바이트까지 시간(TTFB), 전체 응답 시간, 응답 크기, 요청 동안의 최대 힙 사용량 증가분을 기록
+ - 최대 힙 사용량은 같은 JVM 의 힙 메모리 풀 최대 사용량 합계 -> 요청 전에 GC 후 초기화해서 측정
+ */
+@Slf4j
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamingListingLoadTest {
+
+    private final int items = LoadReport.intProperty("load.listing.items", 100_000);
+    private final LoadReport report = new LoadReport("streaming-listing").setting("items", items);
+
+    @AfterAll
+    void writeReport() {
+        log.info("streaming listing report = {}", report.write());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "memory-columnar", "jdbc-template-v3", "mybatis", "jpa", "spring-data-jpa", "v2"})
+    void listing(String repository) throws Exception {
+        try (ConfigurableApplicationContext context = LoadApplication.startWeb(repository)) {
+            try {
+                seed(repository, context.getBean(ItemService.class), context.getBean(DataSource.class));
+                String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/items";
+                HttpClient client = HttpClient.newHttpClient();
+
+                //워밍업
+                fetch(client, url);
+                fetch(client, url + "?stream=true");
+
+                Map<String, Object> buffered = measure(client, url);
+                Map<String, Object> streamed = measure(client, url + "?stream=true");
+                //스트리밍 화면은 검색 폼에 stream 값이 추가되는 것 외에는 같은 내용
+                assertThat((long) streamed.get("bytes")).isGreaterThanOrEqualTo((long) buffered.get("bytes"));
+
+                report(repository, "buffered", buffered);
+                report(repository, "streamed", streamed);
+            } finally {
+                new MemoryItemRepository().clearStore();    //MemoryItemRepository 저장소는 static
+            }
+        }
+    }
+
+    private Map<String, Object> measure(HttpClient client, String url) throws Exception {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+        System.gc();
+        long baseline = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+            baseline += pool.getUsage().getUsed();
+        }
+
+        Map<String, Object> result = fetch(client, url);
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        result.put("peakHeapIncreaseMb", (peak - baseline) / 1024.0 / 1024.0);
+        return result;
+    }
+
+    private static Map<String, Object> fetch(HttpClient client, String url) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        long firstByte = 0;
+        long bytes = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream body = response.body()) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (bytes == 0 && read > 0) {
+                    firstByte = System.nanoTime() - start;
+                }
+                bytes += read;
+            }
+        }
+        long total = System.nanoTime() - start;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ttfbMs", firstByte / 1_000_000.0);
+        result.put("totalMs", total / 1_000_000.0);
+        result.put("bytes", bytes);
+        return result;
+    }
+
+    private void report(String repository, String mode, Map<String, Object> measured) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("repository", repository);
+        result.put("mode", mode);
+        result.putAll(measured);
+        report.add(result);
+        log.info("{}", result);
+    }
+
+    /**
+     * 메모리 저장소는 ItemService 로 저장, 데이터베이스 저장소는 배치 INSERT 로 빠르게 저장
+     */
+    private void seed(String repository, ItemService itemService, DataSource dataSource) {
+        if (repository.startsWith("memory")) {
+            new MemoryItemRepository().clearStore();
+            for (int i = 0; i < items; i++) {
+                itemService.save(new Item("item" + i % 10_000, i % 100_000, i % 100));
+            }
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            batch.add(new Object[]{"item" + i % 10_000, i % 100_000, i % 100});
+            if (batch.size() == 1_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.jdbctemplate.DeadlineJdbcTemplate;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    void clear() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void slowQueryCancelledAtDeadline() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:deadline-" + UUID.randomUUID(), "sa", "", true);
+        try {
+            JdbcTemplate template = new DeadlineJdbcTemplate(dataSource);
+            RequestDeadline.start(500);
+
+            //수십 초 걸리는 쿼리 -> 남은 시간 500ms 를 올림한 1초 타임아웃으로 취소
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> template.queryForObject(
+                    "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b where a.x + b.x = 7", Long.class))
+                    .isInstanceOf(QueryTimeoutException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3000);
+
+            //마감 시간이 없으면 기존과 같음(타임아웃 없음)
+            RequestDeadline.clear();
+            assertThat(template.queryForObject("select count(*) from system_range(1, 10)", Long.class)).isEqualTo(10L);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void memoryScanStopsAfterDeadline() throws InterruptedException {
+        ColumnarItemRepository repository = new ColumnarItemRepository(false, 16);
+        for (int i = 0; i < RequestDeadline.CHECK_ROWS * 2; i++) {
+            repository.save(new Item("item" + i, i, 1));
+        }
+        RequestDeadline.start(1);
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> repository.findAll(new ItemSearchCond()))
+                .isInstanceOf(QueryTimeoutException.class);
+
+        RequestDeadline.clear();
+        assertThat(repository.findAll(new ItemSearchCond())).hasSize(RequestDeadline.CHECK_ROWS * 2);
+    }
+
+    @Test
+    void propagateToOtherThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RequestDeadline.start(60_000);
+            Long deadline = RequestDeadline.get();
+
+            assertThat(executor.submit(RequestDeadline.propagate(RequestDeadline::get)).get()).isEqualTo(deadline);
+            //실행이 끝나면 실행한 스레드의 값은 원래대로
+            assertThat(executor.submit(RequestDeadline::get).get()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keepEarlierDeadline() {
+        RequestDeadline.start(1000);
+        Long first = RequestDeadline.get();
+        RequestDeadline.start(60_000);
+
+        assertThat(RequestDeadline.get()).isEqualTo(first);
+        assertThat(RequestDeadline.queryTimeoutSeconds(30)).isEqualTo(1);
+        assertThat(RequestDeadline.queryTimeoutSeconds(0)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,149 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicatedItemRepositoryTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplateItemRepositoryV3 database;
+    private ReplicatedItemRepository repository;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:replicated-" + UUID.randomUUID(), "sa", "", true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into item (item_name, price, quantity) select 'item' || x, x * 1000, x from system_range(1, 25)");
+        jdbcTemplate.update("insert into item (item_name, price, quantity) values ('ItemA', 500, 1), ('itemB', 700, 2)");
+        database = new JdbcTemplateItemRepositoryV3(dataSource);
+
+        //id 범위 4개씩, 3개 스레드로 읽음 -> 여러 범위를 동시에 읽는 경우
+        repository = new ReplicatedItemRepository(dataSource, 3, 4, 100, 0, true);
+        awaitReady();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        dataSource.destroy();
+    }
+
+    @Test
+    void loadAndSearchLikeDatabase() {
+        assertThat(repository.snapshot().get("size")).isEqualTo(27);
+
+        List<ItemSearchCond> conditions = List.of(
+                new ItemSearchCond(),
+                new ItemSearchCond("item1", null, MatchMode.EXACT),
+                new ItemSearchCond("item1", null, MatchMode.PREFIX),
+                new ItemSearchCond("item1", 12000, MatchMode.PREFIX),
+                new ItemSearchCond("itema", null, MatchMode.IGNORE_CASE),
+                new ItemSearchCond("m2", null, MatchMode.CONTAINS),
+                new ItemSearchCond(null, 3000));
+        for (ItemSearchCond cond : conditions) {
+            assertThat(repository.findAll(cond)).as(cond.toString())
+                    .containsExactlyInAnyOrderElementsOf(database.findAll(cond));
+        }
+
+        Item first = database.findAll(new ItemSearchCond("item1", null, MatchMode.EXACT)).get(0);
+        assertThat(repository.findById(first.getId())).contains(first);
+        assertThat(repository.findPage(new ItemSearchCond(), first.getId(), 5))
+                .isEqualTo(database.findPage(new ItemSearchCond(), first.getId(), 5));
+    }
+
+    @Test
+    void writeThrough() {
+        Item saved = repository.save(new Item("new", 100, 1));
+        Item target = database.findAll(new ItemSearchCond("item2", null, MatchMode.EXACT)).get(0);
+        repository.update(target.getId(), new ItemUpdateDto("renamed", 900, 9));
+        repository.upsertAll(List.of(new Item("item3", 3, 3), new Item("imported", 4, 4)));
+
+        assertThat(repository.findById(saved.getId())).contains(saved);
+        assertThat(repository.findAll(new ItemSearchCond("item2", null, MatchMode.EXACT))).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond("renamed", null, MatchMode.EXACT)))
+                .extracting(Item::getPrice).containsExactly(900);
+        assertThat(repository.findAll(new ItemSearchCond("item3", null, MatchMode.EXACT)))
+                .extracting(Item::getPrice).containsExactly(3);
+        assertThat(repository.findAll(new ItemSearchCond("imported", null, MatchMode.EXACT)))
+                .containsExactlyElementsOf(database.findAll(new ItemSearchCond("imported", null, MatchMode.EXACT)));
+
+        //write-through 만 있으면 데이터베이스와 같음
+        assertThat(repository.check()).containsEntry("checked", 29L).containsEntry("mismatched", 0L);
+    }
+
+    @Test
+    void concurrentUpdatesKeepLastCommittedValue() throws Exception {
+        Item target = database.findAll(new ItemSearchCond("item4", null, MatchMode.EXACT)).get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int price = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        repository.update(target.getId(), new ItemUpdateDto("item4", price + i, i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //마지막으로 커밋된 값과 같아야 함 -> 검사 없이도 불일치 없음
+        assertThat(repository.findById(target.getId())).isEqualTo(database.findById(target.getId()));
+        assertThat(repository.check()).containsEntry("mismatched", 0L);
+    }
+
+    @Test
+    void checkFindsAndRepairsDirectChanges() {
+        //저장소를 거치지 않은 변경 -> 수정, 추가, 삭제
+        Item changed = database.findAll(new ItemSearchCond("item5", null, MatchMode.EXACT)).get(0);
+        Item removed = database.findAll(new ItemSearchCond("item6", null, MatchMode.EXACT)).get(0);
+        jdbcTemplate.update("update item set price = 1 where id = ?", changed.getId());
+        jdbcTemplate.update("delete from item where id = ?", removed.getId());
+        jdbcTemplate.update("insert into item (item_name, price, quantity) values ('direct', 2, 2)");
+
+        assertThat(repository.findById(changed.getId())).contains(changed);
+        assertThat(repository.findById(removed.getId())).isPresent();
+
+        Map<String, Object> result = repository.check();
+        assertThat(result).containsEntry("checked", 27L).containsEntry("mismatched", 3L).containsEntry("repaired", 3L);
+
+        assertThat(repository.findById(changed.getId()).map(Item::getPrice)).contains(1);
+        assertThat(repository.findById(removed.getId())).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond())).containsExactlyInAnyOrderElementsOf(database.findAll(new ItemSearchCond()));
+        assertThat(repository.check()).containsEntry("mismatched", 0L);
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!repository.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(repository.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,82 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedItemRepositoryTest {
+
+    private final List<SingleConnectionDataSource> dataSources = new ArrayList<>();
+    private ShardedItemRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:shard-" + run + "-" + i, "sa", "", true);
+            new ResourceDatabasePopulator(new ClassPathResource("sql/item-shard.sql")).execute(dataSource);
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedItemRepository(new ArrayList<DataSource>(dataSources), 10, 5000, 6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        dataSources.forEach(SingleConnectionDataSource::destroy);
+    }
+
+    @Test
+    void routeByIdAndMerge() {
+        //given : id 블록(10개)을 넘도록 저장
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            saved.add(repository.save(new Item("item" + (i % 2 == 0 ? "A" : "B") + i, 1000 * i, i)));
+        }
+        Item first = saved.get(0);
+        repository.update(first.getId(), new ItemUpdateDto("itemA-0", 500, 1));
+
+        //then : id 는 겹치지 않고 여러 샤드에 나누어 저장
+        Set<Integer> usedShards = new HashSet<>();
+        saved.forEach(item -> usedShards.add(repository.shardOf(item.getId())));
+        assertThat(saved).extracting(Item::getId).doesNotHaveDuplicates();
+        assertThat(usedShards).hasSize(3);
+
+        assertThat(repository.findById(first.getId()).get().getItemName()).isEqualTo("itemA-0");
+        assertThat(repository.findAll(new ItemSearchCond("itemA", 10000, MatchMode.PREFIX)))
+                .extracting(Item::getPrice)
+                .containsExactlyInAnyOrder(500, 2000, 4000, 6000, 8000, 10000);
+
+        //id 순 페이지를 샤드에 걸쳐서 이어받음
+        List<Item> firstPage = repository.findPage(new ItemSearchCond(), null, 12);
+        List<Item> secondPage = repository.findPage(new ItemSearchCond(), firstPage.get(11).getId(), 100);
+        assertThat(firstPage).hasSize(12).isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(secondPage).hasSize(18);
+
+        assertThat(repository.findAllById(List.of(saved.get(5).getId(), first.getId(), -1L)))
+                .extracting(Item::getId)
+                .containsExactly(saved.get(5).getId(), first.getId());
+
+        ItemStats stats = repository.aggregate(new ItemSearchCond(), 10000);
+        assertThat(stats.getCount()).isEqualTo(30);
+        assertThat(stats.getMinPrice()).isEqualTo(500);
+        assertThat(stats.getMaxPrice()).isEqualTo(29000);
+    }
+}
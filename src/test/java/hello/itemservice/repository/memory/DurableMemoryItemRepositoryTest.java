@@ -0,0 +1,104 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ItemWriteAheadLog.FsyncPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurableMemoryItemRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverFromLog() {
+        //given
+        DurableMemoryItemRepository repository = open();
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+        Item itemB = repository.save(new Item("itemB", 20000, 20));
+        repository.update(itemA.getId(), new ItemUpdateDto("itemA-2", 15000, 5));
+        repository.close();
+
+        //when
+        DurableMemoryItemRepository recovered = open();
+
+        //then
+        assertThat(recovered.findById(itemA.getId()).get().getItemName()).isEqualTo("itemA-2");
+        assertThat(recovered.findById(itemA.getId()).get().getPrice()).isEqualTo(15000);
+        assertThat(recovered.findById(itemB.getId()).get()).isEqualTo(itemB);
+        assertThat(recovered.save(new Item("itemC", 30000, 30)).getId()).isEqualTo(itemB.getId() + 1);
+        recovered.close();
+    }
+
+    @Test
+    void recoverFromSnapshotAndLog() throws Exception {
+        //given
+        DurableMemoryItemRepository repository = open();
+        for (int i = 0; i < 200; i++) {     //세그먼트 여러 개 사용
+            repository.save(new Item("item" + i, i, i));
+        }
+        repository.snapshot();
+        Item afterSnapshot = repository.save(new Item("last", 1, 1));
+        repository.update(1L, new ItemUpdateDto("first", 2, 2));
+        repository.close();
+
+        //when
+        DurableMemoryItemRepository recovered = open();
+
+        //then
+        assertThat(recovered.findAll(new ItemSearchCond())).hasSize(201);
+        assertThat(recovered.findById(afterSnapshot.getId()).get()).isEqualTo(afterSnapshot);
+        assertThat(recovered.findById(1L).get().getItemName()).isEqualTo("first");
+        List<Item> page = recovered.findPage(new ItemSearchCond(), 100L, 50);   //id 순, 100 다음부터
+        assertThat(page).hasSize(50);
+        assertThat(page.get(0).getId()).isEqualTo(101L);
+        assertThat(page.get(49).getId()).isEqualTo(150L);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.getFileName().toString().startsWith("wal-")).count())
+                    .as("스냅샷에 반영된 세그먼트는 삭제").isLessThan(3);
+        }
+        recovered.close();
+    }
+
+    @Test
+    void ignoreTornRecord() throws Exception {
+        //given
+        DurableMemoryItemRepository repository = open();
+        repository.save(new Item("itemA", 10000, 10));
+        repository.save(new Item("itemB", 20000, 20));
+        repository.close();
+
+        //쓰다가 중단된 레코드 - 길이는 기록되었지만 CRC 가 맞지 않음
+        Path segment = directory.resolve("wal-1.log");
+        long end = 2 * (ItemWriteAheadLog.RECORD_HEADER + 34L);   //payload = lsn 8 + id 8 + 플래그 1 + price 4 + quantity 4 + 이름 길이 4 + 이름 5
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(30).putInt(12345).putInt(777).flip(), end);
+        }
+
+        //when
+        DurableMemoryItemRepository recovered = open();
+
+        //then
+        assertThat(recovered.findAll(new ItemSearchCond())).extracting(Item::getItemName)
+                .containsExactlyInAnyOrder("itemA", "itemB");
+        recovered.close();
+    }
+
+    private DurableMemoryItemRepository open() {
+        return new DurableMemoryItemRepository(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS, 0, 0);
+    }
+}
@@ -0,0 +1,84 @@
+package hello.itemservice.repository.mybatis;
+
+import hello.itemservice.ItemServiceApplication;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.MatchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ItemMapper 2차 캐시 -> 트랜잭션 없이 호출(호출마다 SqlSession 커밋)해서 캐시에 결과를 남김
+ - 매퍼를 거치지 않은 SQL 변경은 캐시된 결과가 그대로 반환됨 -> 캐시에서 조회한 것을 확인
+ - 매퍼로 수정하면 캐시를 비움 -> 다음 조회는 데이터베이스의 최신 값(직접 변경한 값 포함)
+ - 목록 조회(findAll, findAllViews)는 캐시하지 않음 -> 직접 변경한 값도 바로 조회
+ */
+class MyBatisCacheTest {
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:mybatis-cache-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=always",
+                        "itemservice.repository=mybatis",
+                        "mybatis.configuration.cache-enabled=true")
+                .run();
+        itemRepository = context.getBean(ItemRepository.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void updateFlushesCachedFindById() {
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        Item other = itemRepository.save(new Item("itemB", 20000, 20));
+        assertThat(itemRepository.findById(item.getId()).map(Item::getPrice)).contains(10000);
+        assertThat(itemRepository.findById(other.getId()).map(Item::getPrice)).contains(20000);
+
+        //매퍼를 거치지 않은 변경 -> 캐시된 값
+        jdbcTemplate.update("update item set price = 15000 where id = ?", other.getId());
+        assertThat(itemRepository.findById(other.getId()).map(Item::getPrice)).contains(20000);
+
+        itemRepository.update(item.getId(), new ItemUpdateDto("itemA", 11000, 11));
+
+        assertThat(itemRepository.findById(item.getId())).get()
+                .extracting(Item::getPrice, Item::getQuantity).containsExactly(11000, 11);
+        assertThat(itemRepository.findById(other.getId()).map(Item::getPrice)).contains(15000);
+    }
+
+    @Test
+    void findAllIsNotCached() {
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        ItemSearchCond cond = new ItemSearchCond("item", 15000, MatchMode.PREFIX);
+        assertThat(itemRepository.findAll(cond)).extracting(Item::getItemName).containsExactly("itemA");
+
+        jdbcTemplate.update("update item set price = 1000 where item_name = 'itemB'");
+        assertThat(itemRepository.findAll(cond)).extracting(Item::getItemName).containsExactly("itemA", "itemB");
+        assertThat(itemRepository.findAllViews(cond)).hasSize(2);
+
+        itemRepository.update(item.getId(), new ItemUpdateDto("itemA", 30000, 10));
+        assertThat(itemRepository.findAll(cond)).extracting(Item::getItemName).containsExactly("itemB");
+    }
+}
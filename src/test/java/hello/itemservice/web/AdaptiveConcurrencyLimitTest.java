@@ -0,0 +1,88 @@
+package hello.itemservice.web;
+
+import hello.itemservice.web.AdaptiveConcurrencyLimit.Permit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void rejectAtCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, clock::get);
+
+        Permit first = limit.tryAcquire();
+        Permit second = limit.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limit.tryAcquire()).isNull();
+
+        //하나를 반환하면 다시 허가
+        first.success();
+        assertThat(limit.tryAcquire()).isNotNull();
+        assertThat(limit.snapshot()).containsEntry("accepted", 3L).containsEntry("rejected", 1L).containsEntry("inFlight", 2);
+    }
+
+    @Test
+    void growWhileLatencyIsStableAndShrinkWhenItRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, clock::get);
+
+        //응답 시간이 일정하면 라운드마다 sqrt(한도)만큼 늘어남
+        int previous = limit.getLimit();
+        for (int round = 0; round < 4; round++) {
+            runFullRound(limit, 10);
+            assertThat(limit.getLimit()).isGreaterThan(previous);
+            previous = limit.getLimit();
+        }
+        int grown = limit.getLimit();
+
+        //응답 시간이 10배 -> 한도를 줄임
+        runFullRound(limit, 100);
+        assertThat(limit.getLimit()).isLessThan(grown / 2).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void noGrowthWithoutLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, clock::get);
+
+        //처리 중인 요청이 한도의 절반도 안 되면 한도를 늘리지 않음
+        for (int i = 0; i < 100; i++) {
+            Permit permit = limit.tryAcquire();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+            permit.success();
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void failureDecreasesLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, clock::get);
+
+        Permit permit = limit.tryAcquire();
+        permit.failure();
+        permit.success();     //처음 호출한 것만 반영
+
+        assertThat(limit.getLimit()).isEqualTo(18);
+        assertThat(limit.snapshot()).containsEntry("dropped", 1L).containsEntry("inFlight", 0);
+    }
+
+    /**
+     * 한도만큼 허가받고 latencyMillis 뒤에 모두 성공으로 반환
+     */
+    private void runFullRound(AdaptiveConcurrencyLimit limit, long latencyMillis) {
+        List<Permit> permits = new ArrayList<>();
+        Permit permit;
+        while ((permit = limit.tryAcquire()) != null) {
+            permits.add(permit);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        permits.forEach(Permit::success);
+    }
+}
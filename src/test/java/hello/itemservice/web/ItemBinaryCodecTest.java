@@ -0,0 +1,86 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemBinaryCodecTest {
+
+    @Test
+    void roundTrip() throws IOException {
+        //given : 블록 여러 개, null 필드, 음수, ASCII 가 아닌 이름, 감소하는 id
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ItemBinaryCodec.BLOCK_ITEMS * 2 + 10; i++) {
+            items.add(item((long) i + 1, "item" + i, i * 100, i % 7));
+        }
+        items.add(item(5L, "상품가", -1, Integer.MIN_VALUE));
+        items.add(item(Long.MAX_VALUE, "", Integer.MAX_VALUE, 0));
+        items.add(item(null, null, null, null));
+
+        //when
+        byte[] encoded = encode(items);
+
+        //then
+        assertThat(ItemBinaryCodec.decode(new ByteArrayInputStream(encoded))).isEqualTo(items);
+    }
+
+    @Test
+    void empty() throws IOException {
+        byte[] encoded = encode(List.of());
+
+        assertThat(encoded).hasSize(5);     //MAGIC + 끝 블록
+        assertThat(ItemBinaryCodec.decode(new ByteArrayInputStream(encoded))).isEmpty();
+    }
+
+    @Test
+    void smallerThanJson() throws IOException {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(item((long) i + 1, "item" + i, 10000 + i, i % 100));
+        }
+
+        byte[] encoded = encode(items);
+
+        //id 차이 1, price 3바이트, quantity 1바이트, 이름 5~8바이트
+        assertThat(encoded.length).isLessThan(items.size() * 16);
+    }
+
+    @Test
+    void truncated() throws IOException {
+        byte[] encoded = encode(List.of(item(1L, "itemA", 10000, 10), item(2L, "itemB", 20000, 20)));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThatThrownBy(() -> ItemBinaryCodec.decode(new ByteArrayInputStream(truncated)))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void wrongMagic() {
+        assertThatThrownBy(() -> ItemBinaryCodec.decode(new ByteArrayInputStream("id,itemName\n".getBytes())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("magic");
+    }
+
+    private static byte[] encode(List<Item> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ItemBinaryCodec.encode(items, out);
+        return out.toByteArray();
+    }
+
+    private static Item item(Long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+}
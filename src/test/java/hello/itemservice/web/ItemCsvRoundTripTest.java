@@ -0,0 +1,120 @@
+package hello.itemservice.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 내보내기(ItemExporter) CSV 를 가져오기(ItemImporter) CSV 읽기로 다시 읽으면 같은 값
+ - 쉼표, 따옴표, 줄바꿈(\n, \r\n)이 들어간 이름
+ */
+class ItemCsvRoundTripTest {
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        items.add(item(1L, "plain", 1000, 1));
+        items.add(item(2L, "a,b", 2000, 2));
+        items.add(item(3L, "say \"hi\"", 3000, 3));
+        items.add(item(4L, "l1\nl2", 4000, 4));
+        items.add(item(5L, "\"q\",x\ny", 5000, 5));
+        items.add(item(6L, "cr\r\nlf", 6000, 6));
+        items.add(item(7L, "\"", 7000, 7));
+        items.add(item(8L, "상품,가", 8000, 8));
+        willAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(1);
+            items.forEach(consumer);
+            return null;
+        }).given(itemService).scanItems(any(), any());
+    }
+
+    @Test
+    void exportedRecordsReadBack() throws IOException {
+        String csv = export();
+
+        ItemImporter.CsvRecordReader records = new ItemImporter.CsvRecordReader(new BufferedReader(new StringReader(csv)));
+        assertThat(records.next()).containsExactly("id", "itemName", "price", "quantity");
+        for (Item item : items) {
+            List<String> record = records.next();
+            assertThat(records.malformed()).isFalse();
+            assertThat(record).containsExactly(String.valueOf(item.getId()), item.getItemName(),
+                    String.valueOf(item.getPrice()), String.valueOf(item.getQuantity()));
+        }
+        assertThat(records.next()).isNull();
+    }
+
+    @Test
+    void recordLineCountsQuotedNewlines() throws IOException {
+        ItemImporter.CsvRecordReader records = new ItemImporter.CsvRecordReader(new BufferedReader(new StringReader(
+                "itemName,price,quantity\n\"a\nb\",1,1\nc,2,2\n\"open,3,3\n")));
+        records.next();
+        assertThat(records.next()).containsExactly("a\nb", "1", "1");
+        assertThat(records.recordLine()).isEqualTo(2);
+        assertThat(records.next()).containsExactly("c", "2", "2");
+        assertThat(records.recordLine()).isEqualTo(4);
+
+        //따옴표가 닫히지 않음
+        assertThat(records.next()).hasSize(1);
+        assertThat(records.malformed()).isTrue();
+    }
+
+    @Test
+    void importExportedCsv() throws IOException {
+        List<Item> upserted = Collections.synchronizedList(new ArrayList<>());
+        given(itemService.upsertAll(anyCollection())).willAnswer(invocation -> {
+            Collection<Item> batch = invocation.getArgument(0);
+            upserted.addAll(batch);
+            return batch.size();
+        });
+        ItemImporter importer = new ItemImporter(itemService, new ObjectMapper(), event -> { }, 3, 2, 2);
+        try {
+            importer.importItems(ItemExporter.Format.CSV, new ByteArrayInputStream(export().getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            importer.shutdown();
+        }
+
+        assertThat(upserted)
+                .extracting(Item::getItemName, Item::getPrice, Item::getQuantity)
+                .containsExactlyInAnyOrderElementsOf(items.stream()
+                        .map(item -> tuple(item.getItemName(), item.getPrice(), item.getQuantity()))
+                        .collect(Collectors.toList()));
+    }
+
+    private String export() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ItemExporter(itemService, new ObjectMapper()).export(new ItemSearchCond(), ItemExporter.Format.CSV, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Item item(Long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+}
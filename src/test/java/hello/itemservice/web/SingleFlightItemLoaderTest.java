@@ -0,0 +1,102 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.ItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SingleFlightItemLoaderTest {
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void leaderFailureFailsEveryWaiter() throws Exception {
+        IllegalStateException failure = new IllegalStateException("db down");
+        given(itemService.findById(anyLong())).willAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            throw failure;
+        });
+        SingleFlightItemLoader loader = new SingleFlightItemLoader(itemService, 5000);
+
+        Future<Optional<Item>> leader = executor.submit(() -> loader.findById(1L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<Optional<Item>>> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiters.add(executor.submit(() -> loader.findById(1L)));
+        }
+        awaitCoalesced(loader, 3);
+        release.countDown();
+
+        assertThatThrownBy(leader::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        for (Future<Optional<Item>> waiter : waiters) {
+            assertThatThrownBy(waiter::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        }
+        verify(itemService, times(1)).findById(1L);
+        assertThat(loader.snapshot()).containsEntry("failed", 1L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void waiterTimeoutDoesNotPoisonNextCall() throws Exception {
+        Item item = new Item("itemA", 10000, 10);
+        item.setId(1L);
+        given(itemService.findById(1L)).willAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return Optional.of(item);
+        });
+        SingleFlightItemLoader loader = new SingleFlightItemLoader(itemService, 50);
+
+        Future<Optional<Item>> leader = executor.submit(() -> loader.findById(1L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //leader 가 끝나지 않았으므로 기다리던 요청은 제한 시간 초과
+        assertThatThrownBy(() -> loader.findById(1L)).isInstanceOf(ItemLoadTimeoutException.class);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).contains(item);
+
+        //다음 요청은 다시 조회 -> 시간 초과가 남긴 상태 없음
+        assertThat(loader.findById(1L)).contains(item);
+        verify(itemService, times(2)).findById(1L);
+        assertThat(loader.snapshot())
+                .containsEntry("executed", 2L)
+                .containsEntry("timedOut", 1L)
+                .containsEntry("inFlight", 0);
+    }
+
+    private void awaitCoalesced(SingleFlightItemLoader loader, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((long) loader.snapshot().get("coalesced") < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(loader.snapshot()).containsEntry("coalesced", count);
+    }
+}
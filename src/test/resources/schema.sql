@@ -8,5 +8,9 @@ create table item
     item_name varchar(10),
     price integer,
     quantity integer,
+    item_name_lower varchar(10) as lower(item_name),
     primary key (id)
-)
\ No newline at end of file
+);
+-- 상품명 검색(MatchMode) 인덱스 -> EXACT, PREFIX 는 item_name, IGNORE_CASE 는 item_name_lower 범위 조회
+create index idx_item_name on item (item_name);
+create index idx_item_name_lower on item (item_name_lower);
\ No newline at end of file